@@ -0,0 +1,99 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.utils.Clock;
+import com.github.ezauton.core.utils.RealClock;
+import com.github.ezauton.core.utils.TimingWheelClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RealClock} and {@link TimingWheelClock} with 10,000 scheduled runnables:
+ * <ul>
+ * <li>{@link #schedule()}: the cost of scheduling one runnable, with runnables spread over the next second</li>
+ * <li>{@link #runAll()}: how long it takes until all runnables due 100 to 200 ms from now have run. Anything over
+ * 200 ms is how late the last one ran.</li>
+ * </ul>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClockSchedulingBenchmark {
+
+    private static final int TASKS = 10_000;
+
+    @Param({"RealClock", "TimingWheelClock"})
+    public String clockType;
+
+    private Clock clock;
+    private Random random;
+    private CountDownLatch latch;
+
+    @Setup(Level.Trial)
+    public void setUpClock() {
+        clock = clockType.equals("RealClock") ? RealClock.CLOCK : new TimingWheelClock();
+        random = new Random(254);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopClock() {
+        if (clock instanceof TimingWheelClock) {
+            ((TimingWheelClock) clock).stop();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpLatch() {
+        latch = new CountDownLatch(TASKS);
+    }
+
+    /**
+     * Wait for the runnables of {@link #schedule()} so they do not pile up between invocations
+     */
+    @TearDown(Level.Invocation)
+    public void awaitScheduled() throws InterruptedException {
+        latch.await(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(TASKS)
+    public void schedule() {
+        scheduleWithin(1_000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void runAll() throws InterruptedException {
+        scheduleWithin(100);
+        latch.await();
+    }
+
+    private void scheduleWithin(int spreadMillis) {
+        long now = clock.getTime();
+        CountDownLatch latch = this.latch;
+        for (int i = 0; i < TASKS; i++) {
+            // RealClock throws for times in the past, so leave time to schedule them all
+            clock.scheduleAt(now + 100 + random.nextInt(spreadMillis), latch::countDown);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.localization.RotationalLocationEstimator;
+import com.github.ezauton.core.localization.TranslationalLocationEstimator;
+import com.github.ezauton.core.localization.Updateable;
+import com.github.ezauton.core.localization.estimators.EncoderRotationEstimator;
+import com.github.ezauton.core.localization.estimators.TankRobotEkfEstimator;
+import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.robot.TankRobotConstants;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TankRobotEkfEstimator} with {@link TankRobotEncoderEncoderEstimator} (heading from the encoders) and
+ * {@link EncoderRotationEstimator} (heading from the gyro):
+ * <ul>
+ * <li>{@link #update()}: how long an update takes. Run with <code>gradle jmh</code>, and add the <code>gc</code>
+ * profiler to see how many bytes it allocates.</li>
+ * <li>{@link #main(String[])}: how far off each is after driving an S curve with slipping wheels, a noisy gyro and a
+ * drifting gyro. This is not timed, so it is a plain main method.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EkfEstimatorBenchmark {
+
+    private static final TankRobotConstants ROBOT = () -> 2;
+    private static final int STEPS = 3_000; // 15 s at 200 Hz
+
+    @Param({"ENCODERS", "GYRO", "EKF"})
+    public Estimator estimator;
+
+    private World world;
+    private Updateable updateable;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        world = new World(1.05, Math.toRadians(1), 0, 1);
+        updateable = (Updateable) world.create(estimator);
+        step = 0;
+    }
+
+    /**
+     * Includes the cost of the simulated world, which is the same for all estimators
+     */
+    @Benchmark
+    public boolean update() {
+        world.step(step);
+        step = (step + 1) % 2_000; // keep driving the S curve
+        return updateable.update();
+    }
+
+    public static void main(String[] args) {
+        System.out.println("Position error (ft) / heading error (deg) after " + STEPS + " steps:");
+        System.out.printf("%-24s %-18s %-18s %-18s%n", "", "encoders", "gyro", "EKF");
+        accuracy("perfect sensors", 1, 0, 0);
+        accuracy("left wheel slips 5%", 1.05, 0, 0);
+        accuracy("gyro noise 1 deg", 1, Math.toRadians(1), 0);
+        accuracy("gyro drift 1 deg/s", 1, 0, Math.toRadians(1) / 200);
+        accuracy("all of the above", 1.05, Math.toRadians(1), Math.toRadians(1) / 200);
+    }
+
+    public enum Estimator {
+        ENCODERS, GYRO, EKF
+    }
+
+    private static void accuracy(String scenario, double leftSlip, double gyroNoise, double gyroDriftPerStep) {
+        System.out.printf("%-24s", scenario);
+        for (Estimator type : Estimator.values()) {
+            World world = new World(leftSlip, gyroNoise, gyroDriftPerStep, 2);
+            Object estimator = world.create(type);
+            for (int i = 0; i < STEPS; i++) {
+                world.step(i);
+                ((Updateable) estimator).update();
+            }
+            double positionError = new ImmutableVector(world.x, world.y).dist(((TranslationalLocationEstimator) estimator).estimateLocation());
+            double headingError = Math.toDegrees(Math.abs(world.heading - ((RotationalLocationEstimator) estimator).estimateHeading()));
+            System.out.printf(" %7.3f / %6.2f  ", positionError, headingError);
+        }
+        System.out.println();
+    }
+
+    /**
+     * A robot driving an S curve, and its sensors
+     */
+    private static class World {
+        private final double leftSlip;
+        private final double gyroNoise;
+        private final double gyroDriftPerStep;
+        private final Random random;
+
+        private double x, y, heading;
+        private double leftDistance, rightDistance;
+        private double gyroDrift;
+
+        World(double leftSlip, double gyroNoise, double gyroDriftPerStep, long seed) {
+            this.leftSlip = leftSlip;
+            this.gyroNoise = gyroNoise;
+            this.gyroDriftPerStep = gyroDriftPerStep;
+            random = new Random(seed);
+        }
+
+        Object create(Estimator type) {
+            TranslationalDistanceSensor left = sensor(true);
+            TranslationalDistanceSensor right = sensor(false);
+            RotationalLocationEstimator gyro = () -> heading + gyroDrift + random.nextGaussian() * gyroNoise;
+            switch (type) {
+                case ENCODERS:
+                    TankRobotEncoderEncoderEstimator encoders = new TankRobotEncoderEncoderEstimator(left, right, ROBOT);
+                    encoders.reset();
+                    return encoders;
+                case GYRO:
+                    TranslationalDistanceSensor average = new TranslationalDistanceSensor() {
+                        @Override
+                        public double getPosition() {
+                            return (left.getPosition() + right.getPosition()) / 2;
+                        }
+
+                        @Override
+                        public double getVelocity() {
+                            return 0;
+                        }
+                    };
+                    EncoderRotationEstimator withGyro = new EncoderRotationEstimator(gyro, average);
+                    withGyro.reset();
+                    return withGyro;
+                default:
+                    double gyroVariance = Math.max(gyroNoise * gyroNoise, 1E-6);
+                    TankRobotEkfEstimator ekf = new TankRobotEkfEstimator(left, right, ROBOT, gyro).setNoise(1E-3, 1E-6, gyroVariance);
+                    ekf.reset();
+                    return ekf;
+            }
+        }
+
+        void step(int i) {
+            // 200 Hz, 5 ft/s, turning left for 5 s then right
+            double d = 5 / 200D;
+            double dTheta = (i / 1_000) % 2 == 0 ? 0.004 : -0.004;
+            double dl = d - dTheta * ROBOT.getLateralWheelDistance() / 2;
+            double dr = d + dTheta * ROBOT.getLateralWheelDistance() / 2;
+
+            double r = d / dTheta;
+            x += r * (Math.cos(heading + dTheta) - Math.cos(heading));
+            y += r * (Math.sin(heading + dTheta) - Math.sin(heading));
+            heading += dTheta;
+            leftDistance += dl * leftSlip;
+            rightDistance += dr;
+            gyroDrift += gyroDriftPerStep;
+        }
+
+        private TranslationalDistanceSensor sensor(boolean isLeft) {
+            return new TranslationalDistanceSensor() {
+                @Override
+                public double getPosition() {
+                    return isLeft ? leftDistance : rightDistance;
+                }
+
+                @Override
+                public double getVelocity() {
+                    return 0;
+                }
+            };
+        }
+    }
+}
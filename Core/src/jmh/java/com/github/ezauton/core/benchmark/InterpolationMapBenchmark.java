@@ -0,0 +1,128 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.utils.InterpolationMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link InterpolationMap#get(double)} with the previous implementation, which sorted a copy of the keys of a
+ * {@link HashMap} and scanned it on every lookup, at 10, 1,000 and 100,000 entries. Also times
+ * {@link InterpolationMap#integrate(double, double)} over random ranges.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolationMapBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    private InterpolationMap map;
+    private HashMapInterpolation previous;
+    private double[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(entries);
+        Map<Double, Double> table = new HashMap<>();
+        while (table.size() < entries) {
+            table.put(random.nextDouble() * entries, random.nextDouble());
+        }
+        map = new InterpolationMap(table);
+        previous = new HashMapInterpolation(table);
+
+        random = new Random(5254);
+        keys = new double[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextDouble() * entries;
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public double get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public double getPrevious() {
+        return previous.get(nextKey());
+    }
+
+    @Benchmark
+    public double integrate() {
+        double from = nextKey();
+        return map.integrate(from, nextKey());
+    }
+
+    /**
+     * Cycles through random keys so lookups do not always hit the same entries
+     */
+    private double nextKey() {
+        double key = keys[next];
+        next = (next + 1) & (KEYS - 1);
+        return key;
+    }
+
+    /**
+     * The lookup of the previous InterpolationMap
+     */
+    private static class HashMapInterpolation {
+        private final Map<Double, Double> table;
+
+        HashMapInterpolation(Map<Double, Double> table) {
+            this.table = new HashMap<>(table);
+        }
+
+        Double get(Double key) {
+            ArrayList<Double> keys = new ArrayList<>(table.keySet());
+            keys.sort(Comparator.comparingDouble(a -> (double) a));
+
+            Double upperBound = null;
+            Double lowerBound = null;
+            int i = 0;
+            for (Double keyOn : keys) {
+                if (key.floatValue() < keyOn.floatValue()) {
+                    upperBound = keyOn;
+                    if (i > 0) {
+                        lowerBound = keys.get(i - 1);
+                    }
+                    break;
+                }
+                i++;
+            }
+
+            if (upperBound == null) {
+                return table.get(keys.get(keys.size() - 1));
+            } else if (lowerBound == null) {
+                return table.get(keys.get(0));
+            }
+            double slope = (table.get(upperBound) - table.get(lowerBound)) / (upperBound - lowerBound);
+            return ((slope * key) - (slope * upperBound)) + table.get(upperBound);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.action.BaseAction;
+import com.github.ezauton.core.action.LoopTimingStats;
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import com.github.ezauton.core.simulation.SchedulingClass;
+import com.github.ezauton.core.utils.RealClock;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a 5 ms control loop for a second while 16 CPU-bound actions run, and measures how well it keeps time:
+ * <ul>
+ * <li>idle: without the CPU-bound actions</li>
+ * <li>oneLane: with everything in the normal lane</li>
+ * <li>separateLanes: with the control loop in the real-time lane and the CPU-bound actions in the background lane</li>
+ * </ul>
+ * The score is how long the loop took, which is about a second either way. Compare the {@code overruns},
+ * {@code worstLatenessMillis} and {@code p99PeriodMillis} counters.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LaneIsolationBenchmark {
+
+    private static final int HOGS = 16;
+
+    @Param({"idle", "oneLane", "separateLanes"})
+    public String lanes;
+
+    private final List<CompletableFuture<Void>> hogs = new ArrayList<>();
+    private MainActionScheduler scheduler;
+    private volatile boolean hogging;
+
+    @Setup(Level.Iteration)
+    public void startHogs() {
+        scheduler = new MainActionScheduler(RealClock.CLOCK);
+        hogging = true;
+        SchedulingClass hogClass = lanes.equals("separateLanes") ? SchedulingClass.BACKGROUND : SchedulingClass.NORMAL;
+        for (int i = 0; i < (lanes.equals("idle") ? 0 : HOGS); i++) {
+            hogs.add(scheduler.scheduleAction(new BaseAction(this::hog), hogClass));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopHogs() throws Exception {
+        hogging = false;
+        for (CompletableFuture<Void> hog : hogs) {
+            hog.get(10, TimeUnit.SECONDS);
+        }
+        hogs.clear();
+    }
+
+    @Benchmark
+    public void controlLoop(LoopTiming timing) throws Exception {
+        TimedPeriodicAction controlLoop = new TimedPeriodicAction(5, TimeUnit.MILLISECONDS, 1, TimeUnit.SECONDS);
+        LoopTimingStats stats = controlLoop.getTimingStats();
+        SchedulingClass controlClass = lanes.equals("separateLanes") ? SchedulingClass.REAL_TIME : SchedulingClass.NORMAL;
+        scheduler.scheduleAction(controlLoop, controlClass).get(10, TimeUnit.SECONDS);
+
+        timing.overruns = stats.getOverrunCount();
+        timing.worstLatenessMillis = stats.getWorstLatenessMillis();
+        timing.p99PeriodMillis = stats.getPeriodHistogram().getPercentile(0.99);
+    }
+
+    private void hog() {
+        double x = 0;
+        while (hogging) {
+            for (int i = 0; i < 10_000; i++) {
+                x += Math.sqrt(i);
+            }
+        }
+        if (x == 42) {
+            System.out.println(); // keep the loop from being optimized away
+        }
+    }
+
+    /**
+     * How well the control loop kept time, reported next to the score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoopTiming {
+        public long overruns;
+        public long worstLatenessMillis;
+        public long p99PeriodMillis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            overruns = 0;
+            worstLatenessMillis = 0;
+            p99PeriodMillis = 0;
+        }
+    }
+}
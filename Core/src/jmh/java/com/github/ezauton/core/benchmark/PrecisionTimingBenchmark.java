@@ -0,0 +1,68 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.utils.RealClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long one period of a 5 ms and a 20 ms loop actually takes, with sleep-only timing and with hybrid
+ * spin/sleep timing (see {@link PeriodicAction#setSpinBudget(long, TimeUnit)}). Every invocation runs a loop for a
+ * single period, so the sampled percentiles show how far a period strays from the nominal one.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrecisionTimingBenchmark {
+
+    @Param({"5", "20"})
+    public long periodMillis;
+
+    @Param({"0", "1", "2"})
+    public long spinBudgetMillis;
+
+    private PeriodicAction loop;
+    private ActionRunInfo actionRunInfo;
+
+    @Setup(Level.Trial)
+    public void setUpClock() {
+        actionRunInfo = new ActionRunInfo(RealClock.CLOCK, null);
+    }
+
+    /**
+     * A loop keeps its schedule from when it first started, so every period is run by a new one
+     */
+    @Setup(Level.Invocation)
+    public void setUpLoop() {
+        loop = new PeriodicAction(periodMillis, TimeUnit.MILLISECONDS) {
+            @Override
+            protected boolean isFinished() {
+                return true; // after waiting out one period
+            }
+        };
+        loop.setSpinBudget(spinBudgetMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public void period() throws Exception {
+        loop.run(actionRunInfo);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.pathplanning.QuinticSpline;
+import com.github.ezauton.core.pathplanning.purepursuit.SplinePPWaypoint;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the arc length table of {@link QuinticSpline} with the default
+ * {@link MathUtils.Geometry.ParametricFunction} methods, which add up chords every 1E-4 of t, for getting the length,
+ * a point from an arc length and t from a point. Also times building a spline, which builds its table, and spline path
+ * generation with {@link SplinePPWaypoint.Builder#buildPathGenerator()}.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuinticSplineBenchmark {
+
+    private SplinePPWaypoint.Builder builder;
+    private QuinticSpline spline;
+    private MathUtils.Geometry.ParametricFunction chords;
+    private ImmutableVector point;
+
+    @Setup
+    public void setUp() {
+        builder = new SplinePPWaypoint.Builder();
+        for (int i = 0; i < 16; i++) {
+            builder.add(i % 2 == 0 ? 0 : 4, i * 8, 0, i == 15 ? 0 : 10, 13, -12);
+        }
+        spline = builder.buildSplines().get(1);
+        chords = new MathUtils.Geometry.ParametricFunction() {
+            @Override
+            public double getX(double t) {
+                return spline.getX(t);
+            }
+
+            @Override
+            public double getY(double t) {
+                return spline.getY(t);
+            }
+        };
+        point = spline.get(0.7);
+    }
+
+    @Benchmark
+    public double lengthTable() {
+        return spline.getLength();
+    }
+
+    @Benchmark
+    public double lengthChords() {
+        return chords.getArcLength(0, 1);
+    }
+
+    @Benchmark
+    public ImmutableVector pointAtLengthTable() {
+        return spline.fromArcLength(spline.getLength() * 0.7);
+    }
+
+    @Benchmark
+    public ImmutableVector pointAtLengthChords() {
+        return chords.fromArcLength(spline.getLength() * 0.7);
+    }
+
+    @Benchmark
+    public double tOfPointTable() {
+        return spline.getT(point, 0, 1);
+    }
+
+    @Benchmark
+    public double tOfPointChords() {
+        return chords.getT(point, 0, 1);
+    }
+
+    @Benchmark
+    public QuinticSpline newSpline() {
+        return new QuinticSpline(spline.getFirst(), spline.getLast(), spline.getFirstSlope(), spline.getLastSlope());
+    }
+
+    /**
+     * 16 waypoints
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double pathGeneration() {
+        return builder.buildPathGenerator().generate(0.05).getLength();
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.pathplanning.PP_PathGenerator;
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.purepursuit.PPWaypoint;
+import com.github.ezauton.core.simulation.SimulationBatch;
+import com.github.ezauton.core.simulator.SimulationScenarios;
+import com.github.ezauton.core.utils.Clock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how a 1,000 run lookahead sweep with {@link SimulationBatch} scales with the number of threads. The
+ * speedup with n threads is the score with 1 thread over the score with n.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBatchBenchmark {
+
+    private static final int RUNS = 1_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<SimulationBatch.RunSummary> sweep() throws Exception {
+        return new SimulationBatch(SimulationBatchBenchmark::scenario, pool).run(RUNS, 1, TimeUnit.MINUTES);
+    }
+
+    private static SimulationBatch.Scenario scenario(int run, Clock clock) {
+        double maxLookahead = 2 + (run % 100) / 20D;
+        Path path = new PP_PathGenerator(
+                PPWaypoint.simple2D(0, 0, 0, 3, -3),
+                PPWaypoint.simple2D(0, 6, 5, 3, -3),
+                PPWaypoint.simple2D(6, 12, 0, 3, -3)
+        ).generate(0.05);
+        return SimulationScenarios.purePursuit(clock, path, maxLookahead);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.simulation.DiscreteEventSimulation;
+import com.github.ezauton.core.simulation.ModernSimulatedClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how long {@link ModernSimulatedClock} and {@link DiscreteEventSimulation} take to simulate a 15 second
+ * autonomous: a 20 ms control loop next to a 5 ms odometry loop.
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBenchmark {
+
+    private static final long SIMULATED_SECONDS = 15;
+
+    @Param({"ModernSimulatedClock", "DiscreteEventSimulation"})
+    public String simulation;
+
+    @Benchmark
+    @SuppressWarnings("deprecation") // the simulator it replaces
+    public long autonomous() throws Exception {
+        if (simulation.equals("ModernSimulatedClock")) {
+            ModernSimulatedClock threaded = new ModernSimulatedClock().add(controlLoop()).add(odometryLoop());
+            threaded.runSimulation(5, TimeUnit.MINUTES);
+            return threaded.getTime();
+        }
+        DiscreteEventSimulation discrete = new DiscreteEventSimulation().add(controlLoop()).add(odometryLoop());
+        discrete.runSimulation(5, TimeUnit.MINUTES);
+        return discrete.getTime();
+    }
+
+    private static TimedPeriodicAction controlLoop() {
+        return new TimedPeriodicAction(20, TimeUnit.MILLISECONDS, SIMULATED_SECONDS, TimeUnit.SECONDS, () -> {});
+    }
+
+    private static TimedPeriodicAction odometryLoop() {
+        return new TimedPeriodicAction(5, TimeUnit.MILLISECONDS, SIMULATED_SECONDS, TimeUnit.SECONDS, () -> {});
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.PathSegment;
+import com.github.ezauton.core.pathplanning.QuinticSpline;
+import com.github.ezauton.core.pathplanning.Trajectory;
+import com.github.ezauton.core.pathplanning.TrajectoryGenerator;
+import com.github.ezauton.core.pathplanning.purepursuit.SplinePPWaypoint;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TrajectoryGenerator} with hand-tuned waypoint speeds through
+ * {@link SplinePPWaypoint.Builder#buildPathGenerator()}, on the path of PPSimulatorTest#testSpline ("tuned") and on
+ * zig-zags of 4, 16 and 64 waypoints:
+ * <ul>
+ * <li>the score is how long generation takes</li>
+ * <li>the {@code driveMillis} counter is how long the robot takes to drive the result. Both have the same limits,
+ * including the centripetal acceleration the hand-tuned speeds reach.</li>
+ * </ul>
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TrajectoryGeneratorBenchmark {
+
+    @Param({"tuned", "4", "16", "64"})
+    public String path;
+
+    private SplinePPWaypoint.Builder builder;
+    private List<QuinticSpline> splines;
+    private TrajectoryGenerator generator;
+    private double endSpeed;
+    private long waypointSpeedsDriveMillis;
+
+    @Setup
+    public void setUp() {
+        if (path.equals("tuned")) {
+            builder = new SplinePPWaypoint.Builder()
+                    .add(0, 0, 0, 15, 13, -12)
+                    .add(0, 13, 0, 10, 13, -12)
+                    .add(20, 17, -Math.PI / 2, 8, 13, -12)
+                    .add(23, 24, 0, 0.5, 13, -12);
+            endSpeed = 0.5;
+        } else {
+            builder = zigZag(Integer.parseInt(path));
+            endSpeed = 0;
+        }
+        splines = builder.buildSplines();
+
+        Path waypointSpeeds = builder.buildPathGenerator().generate(0.05);
+        generator = new TrajectoryGenerator(15, 13, -12, maxCentripetalAcceleration(waypointSpeeds));
+        waypointSpeedsDriveMillis = (long) (driveTime(waypointSpeeds) * 1000);
+    }
+
+    @Benchmark
+    public Trajectory trajectory(DriveTime driveTime) {
+        Trajectory trajectory = generator.generate(splines, 0, endSpeed);
+        driveTime.driveMillis = (long) (trajectory.getDuration() * 1000);
+        return trajectory;
+    }
+
+    @Benchmark
+    public Path waypointSpeeds(DriveTime driveTime) {
+        driveTime.driveMillis = waypointSpeedsDriveMillis;
+        return builder.buildPathGenerator().generate(0.05);
+    }
+
+    private static SplinePPWaypoint.Builder zigZag(int waypoints) {
+        SplinePPWaypoint.Builder builder = new SplinePPWaypoint.Builder();
+        for (int i = 0; i < waypoints; i++) {
+            builder.add(i % 2 == 0 ? 0 : 4, i * 8, 0, i == waypoints - 1 ? 0 : 10, 13, -12);
+        }
+        return builder;
+    }
+
+    /**
+     * @return The most v^2 * curvature reached at the corners between segments
+     */
+    private static double maxCentripetalAcceleration(Path path) {
+        List<PathSegment> segments = path.getPathSegments();
+        double max = 0;
+        for (int i = 1; i < segments.size(); i++) {
+            PathSegment before = segments.get(i - 1);
+            PathSegment after = segments.get(i);
+            ImmutableVector a = before.getTo().sub(before.getFrom());
+            ImmutableVector b = after.getTo().sub(after.getFrom());
+            double turn = Math.abs(Math.atan2(a.get(0) * b.get(1) - a.get(1) * b.get(0), a.dot(b)));
+            double curvature = turn / ((before.getLength() + after.getLength()) / 2);
+            double speed = after.getSpeed(after.getAbsoluteDistanceStart());
+            max = Math.max(max, speed * speed * curvature);
+        }
+        return max;
+    }
+
+    /**
+     * @return How long it takes to drive the path at the speeds of its segments
+     */
+    private static double driveTime(Path path) {
+        double step = 0.001;
+        double time = 0;
+        for (PathSegment segment : path.getPathSegments()) {
+            for (double d = segment.getAbsoluteDistanceStart(); d < segment.getAbsoluteDistanceEnd(); d += step) {
+                time += step / Math.max(segment.getSpeed(d), 0.5); // so it does not take forever to get going or stop
+            }
+        }
+        return time;
+    }
+
+    /**
+     * How long the robot takes to drive what was generated, reported next to the score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DriveTime {
+        public long driveMillis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            driveMillis = 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.ezauton.core.benchmark;
+
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import com.github.ezauton.core.action.tangible.VirtualThreadActionScheduler;
+import com.github.ezauton.core.simulation.ActionScheduler;
+import com.github.ezauton.core.utils.VirtualClock;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs 10,000 concurrent {@link TimedPeriodicAction}s on a {@link VirtualClock}, on a
+ * {@link VirtualThreadActionScheduler} and on a {@link MainActionScheduler}. Every run does the same work in the same
+ * order, so the score is the cost of the threads alone. The {@code peakPlatformThreads} and {@code heapGrowthMegabytes}
+ * counters show what the threads take up. Run on Java 21+ to see virtual threads (on older JVMs both use the cached
+ * pool).
+ * <p>
+ * Run with <code>gradle jmh</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadBenchmark {
+
+    private static final int ACTIONS = 10_000;
+
+    @Param({"virtual", "platform"})
+    public String threads;
+
+    @Benchmark
+    public long simulate(Footprint footprint) throws Exception {
+        VirtualClock clock = new VirtualClock();
+        ActionScheduler scheduler = threads.equals("virtual") ? new VirtualThreadActionScheduler(clock) : new MainActionScheduler(clock);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ACTIONS);
+        for (int i = 0; i < ACTIONS; i++) {
+            // 100 ms period for a simulated second
+            futures.add(scheduler.scheduleAction(new TimedPeriodicAction(100, TimeUnit.MILLISECONDS, 1, TimeUnit.SECONDS)));
+        }
+        if (!clock.awaitSleeping(ACTIONS, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Only " + clock.getSleepingCount() + " actions started");
+        }
+        long usedPeak = runtime.totalMemory() - runtime.freeMemory();
+
+        long time = clock.advanceUntilIdle();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(1, TimeUnit.MINUTES);
+
+        footprint.peakPlatformThreads = threadBean.getPeakThreadCount();
+        footprint.heapGrowthMegabytes = (usedPeak - usedBefore) / (1024 * 1024);
+        return time;
+    }
+
+    /**
+     * What the threads took up, reported next to the score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long peakPlatformThreads;
+        public long heapGrowthMegabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakPlatformThreads = 0;
+            heapGrowthMegabytes = 0;
+        }
+    }
+}
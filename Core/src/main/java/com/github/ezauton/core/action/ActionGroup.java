@@ -4,8 +4,12 @@ import com.github.ezauton.core.action.tangible.ActionCallable;
 
 import java.util.*;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -14,6 +18,9 @@ import java.util.concurrent.Future;
  * Create a Thread from this Action group. The ActionGroup blocks until all sub actions (including parallels) are
  * finished. The reason for this is mentioned
  * <a href = "https://vorpus.org/blog/notes-on-structured-concurrency-or-go-statement-considered-harmful/">here</a>.
+ * <p>
+ * Schedulers which return {@link CompletableFuture}s can instead use {@link ActionGroup#runAsync(ActionRunInfo)}, which
+ * advances the group from completion callbacks, so a group does not hold a thread while its children run.
  */
 public final class ActionGroup extends BaseAction {
     private final Queue<ActionWrapper> scheduledActions;
@@ -160,6 +167,13 @@ public final class ActionGroup extends BaseAction {
         return this;
     }
 
+    /**
+     * @return The actions of this group (with their concurrency level) in the order they will be scheduled
+     */
+    public List<ActionWrapper> getActions() {
+        return Collections.unmodifiableList(new ArrayList<>(scheduledActions));
+    }
+
     private static class WithActionData {
 
         private final Action action;
@@ -249,10 +263,176 @@ public final class ActionGroup extends BaseAction {
         }
     }
 
+    /**
+     * Run the group without blocking. The same as {@link ActionGroup#run(ActionRunInfo)}, except that the next child is
+     * scheduled from the completion callback of the previous sequential child instead of from a thread waiting on it.
+     * Nested groups scheduled this way also do not need a thread, so only leaf actions use one.
+     * <p>
+     * The returned future is completed like the future of a scheduled action: after {@link Action#end()} and the
+     * {@link Action#onFinish(Runnable)} runnables have run, or exceptionally if a child failed or a sequential child was
+     * cancelled. Cancelling it cancels all running children and (like interrupting a group) still ends the group.
+     *
+     * @param actionRunInfo Children are scheduled on its scheduler
+     * @return A future which is completed when the group is finished
+     */
+    public final CompletableFuture<Void> runAsync(ActionRunInfo actionRunInfo) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        new AsyncRun(actionRunInfo, future).start();
+        return future;
+    }
+
     private void cancelAll(Collection<Future<Void>> futures) {
         futures.forEach(voidFuture -> voidFuture.cancel(true));
     }
 
+    /**
+     * The state of one {@link ActionGroup#runAsync(ActionRunInfo)}. Completion callbacks can come from any thread, so
+     * every state change is posted to a mailbox and run by whichever thread is draining it. This serializes them
+     * without a lock, so a group cancelling its children never waits on a lock a finishing child holds (or vice versa).
+     */
+    private final class AsyncRun {
+        private final ActionRunInfo actionRunInfo;
+        private final CompletableFuture<Void> future;
+        private final Iterator<ActionWrapper> remaining;
+        private final List<CompletableFuture<Void>> all = new ArrayList<>();
+        private final List<CompletableFuture<Void>> withs = new ArrayList<>();
+
+        private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private AsyncRun(ActionRunInfo actionRunInfo, CompletableFuture<Void> future) {
+            this.actionRunInfo = actionRunInfo;
+            this.future = future;
+            this.remaining = getActions().iterator();
+        }
+
+        private void start() {
+            future.whenComplete((v, t) -> {
+                if (future.isCancelled()) {
+                    post(this::cancelled);
+                }
+            });
+            post(this::advance);
+        }
+
+        private void post(Runnable runnable) {
+            mailbox.add(runnable);
+            if (wip.getAndIncrement() != 0) {
+                return; // another thread (or this one, further up the stack) is draining
+            }
+            do {
+                mailbox.poll().run();
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void advance() {
+            while (remaining.hasNext()) {
+                if (future.isDone()) {
+                    return;
+                }
+                ActionWrapper wrapper = remaining.next();
+                final CompletableFuture<Void> child;
+                try {
+                    child = actionRunInfo.getActionScheduler().scheduleAction(wrapper.getAction());
+                } catch (Exception e) {
+                    all.forEach(other -> other.cancel(true));
+                    future.completeExceptionally(e);
+                    return;
+                }
+                all.add(child);
+
+                switch (wrapper.getType()) {
+                    case WITH:
+                        withs.add(child);
+                        break;
+                    case PARALLEL:
+                        break;
+                    case SEQUENTIAL:
+                        if (!child.isDone()) {
+                            child.whenComplete((v, t) -> post(() -> {
+                                if (sequentialDone(child)) {
+                                    advance();
+                                }
+                            }));
+                            return;
+                        }
+                        if (!sequentialDone(child)) {
+                            return;
+                        }
+                }
+            }
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).whenComplete((v, t) -> post(this::allDone));
+        }
+
+        /**
+         * @return If the group should continue
+         */
+        private boolean sequentialDone(CompletableFuture<Void> child) {
+            if (future.isDone()) {
+                return false;
+            }
+            if (child.isCancelled()) {
+                all.forEach(other -> other.cancel(true));
+                future.completeExceptionally(new ExecutionException("A sequential action threw an exception", new CancellationException()));
+                return false;
+            }
+            Throwable cause = getFailure(child);
+            if (cause != null) {
+                future.completeExceptionally(cause);
+                return false;
+            }
+            withs.forEach(with -> with.cancel(true));
+            withs.clear();
+            return true;
+        }
+
+        private void allDone() {
+            if (future.isDone()) {
+                return;
+            }
+            for (CompletableFuture<Void> child : all) {
+                Throwable cause = getFailure(child);
+                if (cause != null) {
+                    future.completeExceptionally(cause);
+                    return;
+                }
+            }
+            try {
+                end();
+                getFinished().forEach(Runnable::run);
+                future.complete(null);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void cancelled() {
+            all.forEach(child -> child.cancel(true));
+            try {
+                end();
+                getFinished().forEach(Runnable::run);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return The exception the future was completed with, or null if it completed normally or was cancelled
+     */
+    private static Throwable getFailure(CompletableFuture<Void> future) {
+        if (!future.isCompletedExceptionally() || future.isCancelled()) {
+            return null;
+        }
+        try {
+            future.getNow(null);
+        } catch (CompletionException e) {
+            return e.getCause();
+        } catch (CancellationException ignored) {
+        }
+        return null;
+    }
+
     /**
      * Provides a way to describe the concurrency of an action
      */
@@ -28,6 +28,22 @@ public class DelayedAction extends BaseAction {
         }
     }
 
+    /**
+     * @param timeUnit The timeunit to return the delay in
+     * @return How long the action waits before executing
+     */
+    public final long getDelay(TimeUnit timeUnit) {
+        return timeUnit.convert(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Execute what would be executed once the delay is done, without waiting. Used by schedulers which keep track of
+     * time themselves.
+     */
+    public final void timeUp() {
+        onTimeUp();
+    }
+
     @Override
     public final void run(ActionRunInfo actionRunInfo) {
         try {
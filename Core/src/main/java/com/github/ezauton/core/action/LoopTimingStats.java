@@ -0,0 +1,248 @@
+package com.github.ezauton.core.action;
+
+import java.util.Arrays;
+
+/**
+ * Timing statistics of the loop of a {@link PeriodicAction}. Recording a cycle only updates a few counters and
+ * increments a histogram bucket, so it does not allocate and is cheap enough to leave on in a match.
+ * <p>
+ * Stats are written by the thread running the action. Reading them from another thread is fine for monitoring, but a
+ * read in the middle of a cycle can see some values from before it and some from after it.
+ */
+public final class LoopTimingStats {
+
+    private final Histogram periodHistogram;
+    private final Histogram executeHistogram = new Histogram(1_000, 10);
+    private final Histogram jitterHistogram = new Histogram(500, 10);
+    private long overrunCount;
+    private long worstLatenessMillis;
+
+    /**
+     * @param bucketCount How many 1 ms buckets the period histogram has. Longer periods are counted in the last bucket.
+     */
+    public LoopTimingStats(int bucketCount) {
+        periodHistogram = new Histogram(bucketCount);
+    }
+
+    /**
+     * Record a cycle of the loop
+     *
+     * @param periodMillis   The time since the previous cycle started, or a negative number if this is the first cycle
+     * @param executeNanos   How long {@link PeriodicAction#execute()} took
+     * @param latenessMillis How far behind schedule the loop is after this cycle (0 or less if it is on time)
+     */
+    void record(long periodMillis, long executeNanos, long latenessMillis) {
+        if (periodMillis >= 0) {
+            periodHistogram.record(periodMillis);
+        }
+        executeHistogram.record(executeNanos / 1_000);
+        if (latenessMillis > 0) {
+            overrunCount++;
+            if (latenessMillis > worstLatenessMillis) {
+                worstLatenessMillis = latenessMillis;
+            }
+        }
+    }
+
+    /**
+     * Record how far from its deadline the loop woke up after waiting for the next cycle
+     *
+     * @param errorNanos The time the loop woke up minus the deadline. Early and late wakeups count the same.
+     */
+    void recordWakeup(long errorNanos) {
+        jitterHistogram.record(Math.abs(errorNanos) / 1_000);
+    }
+
+    /**
+     * @return The actual time between the starts of consecutive cycles
+     */
+    public Histogram getPeriodHistogram() {
+        return periodHistogram;
+    }
+
+    /**
+     * @return How long each cycle took to execute, in microseconds (with 10 µs buckets)
+     */
+    public Histogram getExecuteHistogram() {
+        return executeHistogram;
+    }
+
+    /**
+     * @return How far from its deadline the loop woke up after waiting for each cycle, in microseconds (with 10 µs buckets). Only
+     * recorded by {@link PeriodicAction#run(ActionRunInfo)}, and only for cycles it had to wait for.
+     * @see PeriodicAction#setSpinBudget(long, java.util.concurrent.TimeUnit)
+     */
+    public Histogram getJitterHistogram() {
+        return jitterHistogram;
+    }
+
+    /**
+     * @return How many cycles finished after the next cycle should have started
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * @return The furthest behind schedule the loop has been, in milliseconds
+     */
+    public long getWorstLatenessMillis() {
+        return worstLatenessMillis;
+    }
+
+    /**
+     * @return How many cycles have been recorded
+     */
+    public long getCycles() {
+        return executeHistogram.getCount();
+    }
+
+    /**
+     * Clear all stats, e.g., between autonomous and teleop
+     */
+    public void reset() {
+        periodHistogram.reset();
+        executeHistogram.reset();
+        jitterHistogram.reset();
+        overrunCount = 0;
+        worstLatenessMillis = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LoopTimingStats{" +
+                "cycles=" + getCycles() +
+                ", period=" + periodHistogram +
+                ", executeMicros=" + executeHistogram +
+                ", jitterMicros=" + jitterHistogram +
+                ", overrunCount=" + overrunCount +
+                ", worstLatenessMillis=" + worstLatenessMillis +
+                '}';
+    }
+
+    /**
+     * A histogram of durations with fixed-width buckets (1 ms unless otherwise stated), preallocated so recording does
+     * not allocate
+     */
+    public static final class Histogram {
+        private final long[] buckets;
+        private final long bucketWidth;
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        /**
+         * @param bucketCount How many 1 ms buckets there are. Longer durations are counted in the last bucket.
+         */
+        public Histogram(int bucketCount) {
+            this(bucketCount, 1);
+        }
+
+        /**
+         * @param bucketCount How many buckets there are. Longer durations are counted in the last bucket.
+         * @param bucketWidth How many units (e.g., ms) wide each bucket is
+         */
+        public Histogram(int bucketCount, long bucketWidth) {
+            if (bucketCount <= 0) {
+                throw new IllegalArgumentException("bucketCount must be positive");
+            }
+            if (bucketWidth <= 0) {
+                throw new IllegalArgumentException("bucketWidth must be positive");
+            }
+            buckets = new long[bucketCount];
+            this.bucketWidth = bucketWidth;
+        }
+
+        /**
+         * @param duration The duration to record. Negative durations are counted as 0.
+         */
+        public void record(long duration) {
+            duration = Math.max(duration, 0);
+            buckets[(int) Math.min(duration / bucketWidth, buckets.length - 1)]++;
+            count++;
+            sum += duration;
+            if (duration < min) {
+                min = duration;
+            }
+            if (duration > max) {
+                max = duration;
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The smallest recorded duration, or 0 if nothing was recorded
+         */
+        public long getMin() {
+            return count == 0 ? 0 : min;
+        }
+
+        /**
+         * @return The largest recorded duration, or 0 if nothing was recorded
+         */
+        public long getMax() {
+            return count == 0 ? 0 : max;
+        }
+
+        /**
+         * @return The mean duration, or 0 if nothing was recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile In [0, 1], e.g., 0.99 for the 99th percentile
+         * @return The start of the first bucket which at least that fraction of recorded durations are in or below, or
+         * 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("percentile must be in [0, 1]");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile * count));
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length - 1; i++) {
+                cumulative += buckets[i];
+                if (cumulative >= target) {
+                    return i * bucketWidth;
+                }
+            }
+            return max; // in the overflow bucket
+        }
+
+        /**
+         * @return A copy of the bucket counts. Index i is the number of durations in [i, i + 1) bucket widths, except
+         * for the last index, which counts everything at least that long.
+         */
+        public long[] getBuckets() {
+            return Arrays.copyOf(buckets, buckets.length);
+        }
+
+        public void reset() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            sum = 0;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram{" +
+                    "count=" + count +
+                    ", min=" + getMin() +
+                    ", mean=" + getMean() +
+                    ", p99=" + getPercentile(0.99) +
+                    ", max=" + getMax() +
+                    '}';
+        }
+    }
+}
@@ -20,6 +20,11 @@ public abstract class PeriodicAction extends BaseAction {
     protected Stopwatch stopwatch;
     protected boolean periodDelayAfterExecution = false;
     private int timesRun = 0;
+    private volatile LoopTimingStats timingStats;
+    private long startTime;
+    private long startTimeNanos;
+    private long lastCycleStart;
+    private long spinBudgetNanos = 0;
 
     /**
      * An action which runs at recurring intervals 🔁. Will run all {@link Runnable}s sequentially every period timeUnit.
@@ -65,6 +70,14 @@ public abstract class PeriodicAction extends BaseAction {
         return timesRun;
     }
 
+    /**
+     * @param timeUnit The timeunit to return the period in
+     * @return How often the action runs
+     */
+    public final long getPeriod(TimeUnit timeUnit) {
+        return timeUnit.convert(periodMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * An alternative to {@link PeriodicAction#addRunnable(Runnable)}.
      *
@@ -113,23 +126,118 @@ public abstract class PeriodicAction extends BaseAction {
         this.periodDelayAfterExecution = periodDelayAfterExecution;
     }
 
-    @Override
-    public final void run(ActionRunInfo actionRunInfo) throws Exception  {
+    /**
+     * Turn on precision timing. Waiting for the next cycle normally sleeps, which can oversleep by a millisecond or
+     * two. With a spin budget, the loop sleeps until the budget before the deadline and then spin-waits (using a whole
+     * core) until the deadline. The achieved precision is in {@link LoopTimingStats#getJitterHistogram()}.
+     * <p>
+     * Only used with real-time clocks (see {@link Clock#isRealTime()}), since a simulated clock does not move while
+     * spinning.
+     *
+     * @param spinBudget How long before each deadline to stop sleeping and start spinning, e.g., 2 ms. 0 turns
+     *                   precision timing off (the default).
+     * @param timeUnit   The timeunit that spinBudget is in
+     */
+    public void setSpinBudget(long spinBudget, TimeUnit timeUnit) {
+        if (spinBudget < 0) {
+            throw new IllegalArgumentException("spinBudget must not be negative");
+        }
+        this.spinBudgetNanos = timeUnit.toNanos(spinBudget);
+    }
+
+    /**
+     * @param timeUnit The timeunit to return the spin budget in
+     * @return How long before each deadline the loop spins instead of sleeping, or 0 if precision timing is off
+     */
+    public long getSpinBudget(TimeUnit timeUnit) {
+        return timeUnit.convert(spinBudgetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Initialize the action and run its first cycle without blocking. Together with {@link PeriodicAction#step()}, this
+     * allows a scheduler which keeps track of time itself (e.g., an event loop) to drive the action instead of
+     * {@link PeriodicAction#run(ActionRunInfo)}.
+     *
+     * @param actionRunInfo The clock to run the action
+     */
+    public final void start(ActionRunInfo actionRunInfo) throws Exception {
+        prepare(actionRunInfo);
+        init();
+        executeCycle();
+    }
+
+    /**
+     * Run one more cycle unless the action is finished. Should be called every period after
+     * {@link PeriodicAction#start(ActionRunInfo)}.
+     *
+     * @return If the action is finished (in which case nothing was executed)
+     */
+    public final boolean step() throws Exception {
+        if (isFinished()) {
+            return true;
+        }
+        executeCycle();
+        return false;
+    }
+
+    private void prepare(ActionRunInfo actionRunInfo) {
         this.clock = actionRunInfo.getClock();
 
         stopwatch = new Stopwatch(clock);
         stopwatch.reset();
 
-        long start = clock.getTime();
+        startTime = clock.getTime();
+        startTimeNanos = clock.getTimeNanos();
+        lastCycleStart = -1;
+    }
+
+    private void executeCycle() throws Exception {
+        long beforeExecution = clock.getTime();
+        long beforeExecutionNanos = clock.getTimeNanos();
+        execute();
+        long afterExecution = clock.getTime();
+        long afterExecutionNanos = clock.getTimeNanos();
+        timesRun++;
+        long lateness = isPeriodDelayAfterExecution() ? 0 : afterExecution - (startTime + periodMillis * timesRun);
+        recordCycle(beforeExecution, afterExecutionNanos - beforeExecutionNanos, lateness);
+    }
+
+    private void recordCycle(long beforeExecution, long executeNanos, long lateness) {
+        LoopTimingStats stats = timingStats;
+        if (stats != null) {
+            stats.record(lastCycleStart < 0 ? -1 : beforeExecution - lastCycleStart, executeNanos, lateness);
+        }
+        lastCycleStart = beforeExecution;
+    }
+
+    private void recordWakeup(long deadlineNanos) {
+        LoopTimingStats stats = timingStats;
+        if (stats != null) {
+            stats.recordWakeup(clock.getTimeNanos() - deadlineNanos);
+        }
+    }
+
+    @Override
+    public final void run(ActionRunInfo actionRunInfo) throws Exception  {
+        prepare(actionRunInfo);
+
+        long start = startTime;
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        boolean precise = spinBudgetNanos > 0 && clock.isRealTime();
 
         init();
         do {
+            long beforeExecution = clock.getTime();
+            long beforeExecutionNanos = clock.getTimeNanos();
             execute();
             long afterExecution = clock.getTime();
+            long afterExecutionNanos = clock.getTimeNanos();
 
             long wait;
+            long deadlineNanos;
             if (isPeriodDelayAfterExecution()) {
                 wait = periodMillis;
+                deadlineNanos = afterExecutionNanos + periodNanos;
             } else {
                 long millisTotal = afterExecution - start;
 
@@ -138,14 +246,20 @@ public abstract class PeriodicAction extends BaseAction {
                 long expectedNext = periodMillis * timesRun;
 
                 wait = expectedNext - millisTotal;
+                deadlineNanos = startTimeNanos + periodNanos * timesRun;
             }
+            // If wait < 0, we are behind schedule. This is counted as an overrun and the next cycle runs right away.
+            recordCycle(beforeExecution, afterExecutionNanos - beforeExecutionNanos, isPeriodDelayAfterExecution() ? 0 : -wait);
 
             try {
-                if (wait < 0) {
-                    // TODO: probably should be an exception or a better way of displaying than this. (needs to be catchable though)
-//                    System.out.printf("The action is executing slower than the set period! milliseconds behind: %d\n", -wait);
+                if (precise) {
+                    if (deadlineNanos > afterExecutionNanos) {
+                        sleepPrecisely(deadlineNanos);
+                        recordWakeup(deadlineNanos);
+                    }
                 } else if (wait > 0) {
                     clock.sleep(wait, TimeUnit.MILLISECONDS);
+                    recordWakeup(deadlineNanos);
                 }
             } catch (InterruptedException e) {
                 loopWaitInterrupted();
@@ -155,6 +269,36 @@ public abstract class PeriodicAction extends BaseAction {
         while (!isFinished());
     }
 
+    /**
+     * Sleep until the spin budget before the deadline, then spin until it
+     */
+    private void sleepPrecisely(long deadlineNanos) throws InterruptedException {
+        long sleepNanos = deadlineNanos - clock.getTimeNanos() - spinBudgetNanos;
+        if (sleepNanos > 0) {
+            clock.sleep(sleepNanos, TimeUnit.NANOSECONDS);
+        }
+        while (clock.getTimeNanos() < deadlineNanos) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Timing statistics of the loop: how long cycles take to execute, the actual period and how often (and by how much)
+     * the loop falls behind schedule. They take a few KB, so they are only kept once asked for: cycles are recorded from
+     * the first call on. Call this before the action starts to see every cycle.
+     *
+     * @return The timing statistics of this action
+     */
+    public final synchronized LoopTimingStats getTimingStats() {
+        if (timingStats == null) {
+            // Enough 1 ms buckets to see a loop running up to 4x slower than it should
+            timingStats = new LoopTimingStats((int) Math.max(64, Math.min(4 * periodMillis + 1, 4096)));
+        }
+        return timingStats;
+    }
+
     /**
      * Called when the action is ended violently 💥
      *
@@ -2,14 +2,34 @@ package com.github.ezauton.core.action.require;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A resource which can depend on other resources. Taking it takes its sub-resources too, in the global order used by
+ * {@link ResourceManager}, so overlapping resource trees cannot deadlock.
+ */
 public class BaseResource implements Resource {
 
+    private static final AtomicLong ORDER_COUNTER = new AtomicLong();
+
+    /**
+     * The position of this resource in the global acquisition order
+     */
+    final long order = ORDER_COUNTER.getAndIncrement();
 
     private ReentrantLock lock = new ReentrantLock();
 
-    private Set<Resource> subResources = new HashSet<>();
+    Set<Resource> subResources = new HashSet<>();
+
+    private final ResourceStats stats = new ResourceStats();
+
+    private final Object holdLock = new Object();
+
+    // Guarded by holdLock. Only set while the lock is held.
+    private Hold hold;
 
     /**
      * Add another resource sub-dependency.
@@ -24,10 +44,17 @@ public class BaseResource implements Resource {
 
     @Override
     public final void take() throws InterruptedException {
-        lock.lock();
-        for (Resource subResource : subResources) {
-            subResource.take();
-        }
+        ResourceManager.takeAll(this);
+    }
+
+    @Override
+    public final boolean tryTake(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        return ResourceManager.tryTakeAll(timeout, timeUnit, this);
+    }
+
+    @Override
+    public final boolean supportsTryTake() {
+        return true;
     }
 
     @Override
@@ -38,10 +65,7 @@ public class BaseResource implements Resource {
 
     @Override
     public void giveBack() {
-        lock.unlock();
-        for (Resource subResource : subResources) {
-            subResource.giveBack();
-        }
+        ResourceManager.giveBackAll(this);
     }
 
     @Override
@@ -53,4 +77,90 @@ public class BaseResource implements Resource {
             subResource.assertPossession();
         }
     }
+
+    /**
+     * @return How contended this resource (not including its sub-resources) is
+     */
+    public ResourceStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Lock only this resource (not its sub-resources)
+     *
+     * @param owner         The future to cancel if the taker is preempted, or null if it cannot be
+     * @param priority      The priority of the taker
+     * @param preempt       If a holder with a lower priority should be cancelled
+     * @param deadlineNanos The {@link System#nanoTime()} to give up at, or {@link ResourceManager#NO_DEADLINE}
+     * @return If the lock was taken
+     */
+    boolean acquire(Future<?> owner, int priority, boolean preempt, long deadlineNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean contended = !lock.tryLock();
+        if (contended) {
+            if (preempt) {
+                preemptHolder(priority);
+            }
+            if (deadlineNanos == ResourceManager.NO_DEADLINE) {
+                lock.lockInterruptibly();
+            } else if (!lock.tryLock(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                stats.recordTimeout();
+                return false;
+            }
+        }
+        if (lock.getHoldCount() == 1) {
+            long now = System.nanoTime();
+            synchronized (holdLock) {
+                hold = new Hold(owner, priority, now);
+            }
+            stats.recordAcquisition(contended, now - start);
+        }
+        return true;
+    }
+
+    /**
+     * Unlock only this resource (not its sub-resources)
+     */
+    void release() {
+        if (lock.getHoldCount() == 1) {
+            synchronized (holdLock) {
+                stats.recordHold(System.nanoTime() - hold.since);
+                hold = null;
+            }
+        }
+        lock.unlock();
+    }
+
+    /**
+     * Cancel the owner of the current hold if it has a lower priority. Like any cancelled action, it should give the
+     * resource back when it ends. This is done under the hold lock, so an owner which has already given the resource
+     * back is never cancelled.
+     */
+    private void preemptHolder(int priority) {
+        synchronized (holdLock) {
+            Hold current = hold;
+            if (current == null || current.owner == null || current.preempted || current.priority >= priority) {
+                return;
+            }
+            current.preempted = true;
+            stats.recordPreemption();
+            current.owner.cancel(true);
+        }
+    }
+
+    /**
+     * Who holds the resource. A new hold is created every time the resource is taken (not counting reentrant takes).
+     */
+    private static final class Hold {
+        private final Future<?> owner;
+        private final int priority;
+        private final long since;
+        private boolean preempted = false;
+
+        private Hold(Future<?> owner, int priority, long since) {
+            this.owner = owner;
+            this.priority = priority;
+            this.since = since;
+        }
+    }
 }
@@ -1,11 +1,33 @@
 package com.github.ezauton.core.action.require;
 
+import java.util.concurrent.TimeUnit;
+
 public interface Resource {
     /**
      * block until the resource if available and then take control of it
      */
     void take() throws InterruptedException;
 
+    /**
+     * Take control of the resource if it becomes available in time
+     *
+     * @param timeout  The longest to wait for the resource
+     * @param timeUnit The timeunit that the timeout is in
+     * @return If the resource was taken. If not, nothing is held.
+     * @throws UnsupportedOperationException If the resource does not {@link #supportsTryTake() support it}
+     */
+    default boolean tryTake(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be taken with a timeout");
+    }
+
+    /**
+     * @return If the resource can be taken with a timeout. {@link ResourceManager#tryTakeAll(long, TimeUnit, Resource...)}
+     * rejects resources which cannot before taking any of them.
+     */
+    default boolean supportsTryTake() {
+        return false;
+    }
+
     /**
      * @return If the resource is taken
      */
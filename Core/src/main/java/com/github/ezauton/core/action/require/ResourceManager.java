@@ -0,0 +1,176 @@
+package com.github.ezauton.core.action.require;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes whole sets of resources without deadlocking.
+ * <p>
+ * A set is expanded to include every sub-resource, and its {@link BaseResource}s are always locked in the same global
+ * order (the order they were created in). Two actions taking overlapping resource trees therefore never hold each
+ * other's next resource. Other {@link Resource} implementations are taken after, in the order given.
+ * <p>
+ * A taker with a higher priority can preempt a holder with a lower one if the holder said which future to cancel when
+ * it took the resources (usually the future of its action). Cancelling it ends the action, so actions should give
+ * their resources back in {@link com.github.ezauton.core.action.Action#end()} or a finally block.
+ */
+public final class ResourceManager {
+
+    /**
+     * Used as a deadline to wait forever
+     */
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private static final Comparator<Resource> GLOBAL_ORDER = Comparator.comparingLong(resource ->
+            resource instanceof BaseResource ? ((BaseResource) resource).order : Long.MAX_VALUE);
+
+    private ResourceManager() {
+    }
+
+    /**
+     * Block until all resources (and their sub-resources) are available and then take them
+     *
+     * @param resources The resources to take
+     */
+    public static void takeAll(Resource... resources) throws InterruptedException {
+        acquire(resources, null, 0, false, NO_DEADLINE);
+    }
+
+    /**
+     * Take all resources (and their sub-resources) if they become available in time
+     *
+     * @param timeout   The longest to wait for all of the resources
+     * @param timeUnit  The timeunit that the timeout is in
+     * @param resources The resources to take
+     * @return If the resources were taken. If not, none of them are held.
+     */
+    public static boolean tryTakeAll(long timeout, TimeUnit timeUnit, Resource... resources) throws InterruptedException {
+        return tryTakeAll(0, false, timeout, timeUnit, resources);
+    }
+
+    /**
+     * Take all resources (and their sub-resources) if they become available in time. They cannot be preempted once
+     * taken.
+     *
+     * @param priority  The priority of the taker. Takes without a priority have a priority of 0.
+     * @param preempt   If holders with a lower priority should be cancelled so they give their resources back
+     * @param timeout   The longest to wait for all of the resources
+     * @param timeUnit  The timeunit that the timeout is in
+     * @param resources The resources to take
+     * @return If the resources were taken. If not, none of them are held.
+     */
+    public static boolean tryTakeAll(int priority, boolean preempt, long timeout, TimeUnit timeUnit, Resource... resources) throws InterruptedException {
+        return tryTakeAll(null, priority, preempt, timeout, timeUnit, resources);
+    }
+
+    /**
+     * Take all resources (and their sub-resources) if they become available in time
+     *
+     * @param owner     The future to cancel if a taker with a higher priority preempts this one, usually the future of
+     *                  the action taking the resources. If null, the resources cannot be preempted.
+     * @param priority  The priority of the taker. Takes without a priority have a priority of 0.
+     * @param preempt   If holders with a lower priority should be cancelled so they give their resources back
+     * @param timeout   The longest to wait for all of the resources
+     * @param timeUnit  The timeunit that the timeout is in
+     * @param resources The resources to take
+     * @return If the resources were taken. If not, none of them are held.
+     */
+    public static boolean tryTakeAll(Future<?> owner, int priority, boolean preempt, long timeout, TimeUnit timeUnit, Resource... resources) throws InterruptedException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        return acquire(resources, owner, priority, preempt, System.nanoTime() + timeUnit.toNanos(timeout));
+    }
+
+    /**
+     * Give back all resources (and their sub-resources), in the opposite order they were taken
+     *
+     * @param resources The resources to give back
+     */
+    public static void giveBackAll(Resource... resources) {
+        releaseAll(expand(resources));
+    }
+
+    private static boolean acquire(Resource[] resources, Future<?> owner, int priority, boolean preempt, long deadlineNanos) throws InterruptedException {
+        List<Resource> ordered = expand(resources);
+        if (deadlineNanos != NO_DEADLINE) {
+            // Reject before taking anything, not halfway through
+            for (Resource resource : ordered) {
+                if (!resource.supportsTryTake()) {
+                    throw new IllegalArgumentException(resource.getClass().getSimpleName() + " cannot be taken with a timeout");
+                }
+            }
+        }
+        List<Resource> taken = new ArrayList<>(ordered.size());
+        boolean success = false;
+        try {
+            for (Resource resource : ordered) {
+                if (!acquireOne(resource, owner, priority, preempt, deadlineNanos)) {
+                    return false;
+                }
+                taken.add(resource);
+            }
+            success = true;
+            return true;
+        } finally {
+            if (!success) {
+                // Exactly what was taken. Expanding again could add sub-resources which were never taken.
+                releaseAll(taken);
+            }
+        }
+    }
+
+    /**
+     * Release each resource, in the opposite order of the list
+     */
+    private static void releaseAll(List<Resource> ordered) {
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            Resource resource = ordered.get(i);
+            if (resource instanceof BaseResource) {
+                ((BaseResource) resource).release();
+            } else {
+                resource.giveBack();
+            }
+        }
+    }
+
+    private static boolean acquireOne(Resource resource, Future<?> owner, int priority, boolean preempt, long deadlineNanos) throws InterruptedException {
+        if (resource instanceof BaseResource) {
+            return ((BaseResource) resource).acquire(owner, priority, preempt, deadlineNanos);
+        }
+        if (deadlineNanos == NO_DEADLINE) {
+            resource.take();
+            return true;
+        }
+        return resource.tryTake(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The resources and all of their sub-resources without duplicates, in global order
+     */
+    private static List<Resource> expand(Resource[] resources) {
+        Set<Resource> all = new LinkedHashSet<>();
+        for (Resource resource : resources) {
+            addWithSubResources(resource, all);
+        }
+        List<Resource> ordered = new ArrayList<>(all);
+        ordered.sort(GLOBAL_ORDER); // stable, so other resources stay in the order given
+        return ordered;
+    }
+
+    private static void addWithSubResources(Resource resource, Set<Resource> all) {
+        if (!all.add(resource)) {
+            return;
+        }
+        if (resource instanceof BaseResource) {
+            for (Resource subResource : ((BaseResource) resource).subResources) {
+                addWithSubResources(subResource, all);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.ezauton.core.action.require;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention metrics of a {@link BaseResource}, e.g., to find which subsystem keeps the drivetrain waiting.
+ * Durations are measured in real time.
+ */
+public final class ResourceStats {
+
+    // Written while holding the resource, so writes never race
+    private volatile long acquisitions;
+    private volatile long contendedAcquisitions;
+    private volatile long totalWaitNanos;
+    private volatile long maxWaitNanos;
+    private volatile long releases;
+    private volatile long totalHoldNanos;
+    private volatile long maxHoldNanos;
+
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong preemptions = new AtomicLong();
+
+    void recordAcquisition(boolean contended, long waitNanos) {
+        acquisitions++;
+        if (contended) {
+            contendedAcquisitions++;
+        }
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    void recordHold(long holdNanos) {
+        releases++;
+        totalHoldNanos += holdNanos;
+        maxHoldNanos = Math.max(maxHoldNanos, holdNanos);
+    }
+
+    void recordTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    void recordPreemption() {
+        preemptions.incrementAndGet();
+    }
+
+    /**
+     * @return How many times the resource was taken (not counting reentrant takes by the holder)
+     */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * @return How many times the resource was taken after waiting for another holder
+     */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /**
+     * @return How many times waiting for the resource timed out
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return How many times a holder was interrupted by a taker with a higher priority
+     */
+    public long getPreemptions() {
+        return preemptions.get();
+    }
+
+    public long getTotalWait(TimeUnit timeUnit) {
+        return timeUnit.convert(totalWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWait(TimeUnit timeUnit) {
+        return timeUnit.convert(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The mean time a successful take waited, or 0 if never taken
+     */
+    public double getMeanWait(TimeUnit timeUnit) {
+        return acquisitions == 0 ? 0 : (double) timeUnit.convert(totalWaitNanos, TimeUnit.NANOSECONDS) / acquisitions;
+    }
+
+    public long getTotalHold(TimeUnit timeUnit) {
+        return timeUnit.convert(totalHoldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxHold(TimeUnit timeUnit) {
+        return timeUnit.convert(maxHoldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The mean time the resource was held before being given back, or 0 if never given back
+     */
+    public double getMeanHold(TimeUnit timeUnit) {
+        return releases == 0 ? 0 : (double) timeUnit.convert(totalHoldNanos, TimeUnit.NANOSECONDS) / releases;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceStats{" +
+                "acquisitions=" + acquisitions +
+                ", contendedAcquisitions=" + contendedAcquisitions +
+                ", timeouts=" + timeouts +
+                ", preemptions=" + preemptions +
+                ", maxWaitMillis=" + getMaxWait(TimeUnit.MILLISECONDS) +
+                ", maxHoldMillis=" + getMaxHold(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.ezauton.core.action.tangible;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link CompletableFuture} for a task running on an {@link ExecutorService}. Unlike
+ * {@link CompletableFuture#supplyAsync(java.util.function.Supplier, java.util.concurrent.Executor)}, cancelling it
+ * interrupts the task, which is how blocking actions are stopped.
+ */
+final class ActionFuture extends CompletableFuture<Void> {
+
+    private volatile Future<?> task;
+
+    private ActionFuture() {
+    }
+
+    /**
+     * @param executorService Where to run the callable
+     * @param callable        Usually an {@link ActionCallable}
+     * @return A future which is completed (on the thread of the callable) when the callable returns or throws
+     */
+    static ActionFuture submit(ExecutorService executorService, Callable<Void> callable) {
+        return submit(executorService, callable, System.nanoTime());
+    }
+
+    /**
+     * @param executorService Where to run the callable
+     * @param callable        Usually an {@link ActionCallable}
+     * @param deadlineNanos   When the callable should be done by, if the executor is a {@link DeadlineExecutor}
+     * @return A future which is completed (on the thread of the callable) when the callable returns or throws
+     */
+    static ActionFuture submit(ExecutorService executorService, Callable<Void> callable, long deadlineNanos) {
+        ActionFuture future = new ActionFuture();
+        Runnable runnable = () -> {
+            try {
+                callable.call();
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+        Future<?> task = executorService instanceof DeadlineExecutor
+                ? ((DeadlineExecutor) executorService).submitWithDeadline(runnable, deadlineNanos)
+                : executorService.submit(runnable);
+        future.task = task;
+        if (future.isCancelled()) { // cancelled before the task was set
+            task.cancel(true);
+        }
+        return future;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Future<?> task = this.task;
+        if (cancelled && task != null) {
+            task.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+}
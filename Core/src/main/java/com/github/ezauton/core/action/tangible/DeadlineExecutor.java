@@ -0,0 +1,82 @@
+package com.github.ezauton.core.action.tangible;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size thread pool which runs waiting tasks earliest deadline first instead of in the order they were
+ * submitted. Tasks with the same deadline are run in the order they were submitted. Deadlines are in
+ * {@link System#nanoTime()} time.
+ * <p>
+ * A task which is running is never preempted, so ordering only matters when all threads are busy.
+ */
+public final class DeadlineExecutor extends ThreadPoolExecutor {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param threads       How many tasks can run at once
+     * @param threadFactory Creates the threads, e.g., with a low priority
+     */
+    public DeadlineExecutor(int threads, ThreadFactory threadFactory) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * @param task          The task to run
+     * @param deadlineNanos The {@link System#nanoTime()} the task should be done by
+     * @return A future which is completed when the task is done
+     */
+    public Future<?> submitWithDeadline(Runnable task, long deadlineNanos) {
+        DeadlineTask<Void> deadlineTask = new DeadlineTask<>(Executors.callable(task, null), deadlineNanos, sequence.getAndIncrement());
+        execute(deadlineTask);
+        return deadlineTask;
+    }
+
+    /**
+     * Tasks submitted without a deadline are due now, so they run before anything due later
+     */
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new DeadlineTask<>(Executors.callable(runnable, value), System.nanoTime(), sequence.getAndIncrement());
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new DeadlineTask<>(callable, System.nanoTime(), sequence.getAndIncrement());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command instanceof DeadlineTask ? command : newTaskFor(command, null));
+    }
+
+    private static final class DeadlineTask<T> extends FutureTask<T> implements Comparable<DeadlineTask<?>> {
+        private final long deadlineNanos;
+        private final long sequence;
+
+        private DeadlineTask(Callable<T> callable, long deadlineNanos, long sequence) {
+            super(callable);
+            this.deadlineNanos = deadlineNanos;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(DeadlineTask<?> other) {
+            // Subtract so that nanoTime overflow does not matter
+            long difference = deadlineNanos - other.deadlineNanos;
+            if (difference != 0) {
+                return difference < 0 ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
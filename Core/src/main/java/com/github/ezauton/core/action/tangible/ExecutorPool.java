@@ -1,14 +1,123 @@
 package com.github.ezauton.core.action.tangible;
 
+import com.github.ezauton.core.simulation.SchedulingClass;
+
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ExecutorPool {
 
     private static ExecutorService executorService = null;
+    private static ExecutorService virtualThreadExecutor = null;
+
+    private static final Map<SchedulingClass, ExecutorService> lanes = new EnumMap<>(SchedulingClass.class);
+    private static final Map<SchedulingClass, Integer> laneThreads = new EnumMap<>(SchedulingClass.class);
+
+    static {
+        laneThreads.put(SchedulingClass.REAL_TIME, 8);
+        laneThreads.put(SchedulingClass.BACKGROUND, 2);
+    }
 
     public static ExecutorService getInstance() {
         if (executorService == null) executorService = Executors.newCachedThreadPool();
         return executorService;
     }
+
+    /**
+     * Get an executor which starts a virtual thread for every task, if the JVM has virtual threads (Java 21+). Blocking
+     * in a virtual thread (e.g., in {@link com.github.ezauton.core.utils.Clock#sleep(long, TimeUnit)}) does not
+     * block a platform thread, so thousands of actions can run at once. Otherwise, this is the same as
+     * {@link ExecutorPool#getInstance()}.
+     *
+     * @return An executor which runs every task in its own virtual thread, or the cached pool
+     * @see ExecutorPool#hasVirtualThreads()
+     */
+    public static synchronized ExecutorService getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            try {
+                // Through reflection, as we compile against Java 8
+                virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                virtualThreadExecutor = getInstance();
+            }
+        }
+        return virtualThreadExecutor;
+    }
+
+    /**
+     * @return If {@link ExecutorPool#getVirtualThreadExecutor()} uses virtual threads
+     */
+    public static boolean hasVirtualThreads() {
+        return getVirtualThreadExecutor() != getInstance();
+    }
+
+    /**
+     * Get the executor of a lane. {@link SchedulingClass#NORMAL} is the (unbounded) executor from
+     * {@link ExecutorPool#getInstance()}. The other lanes use daemon threads:
+     * <ul>
+     * <li>{@link SchedulingClass#REAL_TIME}: a fixed number of {@link Thread#MAX_PRIORITY} threads. Waiting tasks are
+     * run earliest deadline first (see {@link DeadlineExecutor}). {@link MainActionScheduler} submits a periodic action
+     * one cycle at a time, so a control loop only takes up a thread while a cycle runs, and when more cycles are due
+     * than the lane has threads, the most urgent one runs first.</li>
+     * <li>{@link SchedulingClass#BACKGROUND}: a fixed number of {@link Thread#MIN_PRIORITY} threads, so a flood of
+     * background work cannot take CPU time from more than that many threads. Since an action takes up a thread until it
+     * is done, actions beyond the thread count wait until one is free, earliest deadline first (see
+     * {@link DeadlineExecutor}).</li>
+     * </ul>
+     *
+     * @param schedulingClass The lane
+     * @return The executor of the lane
+     */
+    public static synchronized ExecutorService getLane(SchedulingClass schedulingClass) {
+        if (schedulingClass == SchedulingClass.NORMAL) {
+            return getInstance();
+        }
+        return lanes.computeIfAbsent(schedulingClass, ExecutorPool::createLane);
+    }
+
+    /**
+     * Set how many threads a lane has. Must be called before the lane is first used.
+     *
+     * @param schedulingClass The lane. Cannot be {@link SchedulingClass#NORMAL}, which is unbounded.
+     * @param threads         How many tasks in the lane can run at once. Further tasks wait.
+     */
+    public static synchronized void setLaneThreads(SchedulingClass schedulingClass, int threads) {
+        if (schedulingClass == SchedulingClass.NORMAL) {
+            throw new IllegalArgumentException("The normal lane is unbounded");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (lanes.containsKey(schedulingClass)) {
+            throw new IllegalStateException("The " + schedulingClass + " lane has already been created");
+        }
+        laneThreads.put(schedulingClass, threads);
+    }
+
+    private static ExecutorService createLane(SchedulingClass schedulingClass) {
+        int threads = laneThreads.get(schedulingClass);
+        switch (schedulingClass) {
+            case REAL_TIME:
+                return new DeadlineExecutor(threads, threadFactory("ezAuton-realtime-", Thread.MAX_PRIORITY));
+            case BACKGROUND:
+                return new DeadlineExecutor(threads, threadFactory("ezAuton-background-", Thread.MIN_PRIORITY));
+            default:
+                throw new IllegalArgumentException("No lane for " + schedulingClass);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix, int priority) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
 }
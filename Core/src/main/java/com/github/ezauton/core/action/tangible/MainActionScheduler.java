@@ -1,23 +1,53 @@
 package com.github.ezauton.core.action.tangible;
 
+import com.github.ezauton.core.action.ActionGroup;
 import com.github.ezauton.core.action.ActionRunInfo;
 import com.github.ezauton.core.action.Action;
+import com.github.ezauton.core.action.DelayedAction;
+import com.github.ezauton.core.action.PeriodicAction;
 import com.github.ezauton.core.simulation.ActionScheduler;
+import com.github.ezauton.core.simulation.SchedulingClass;
 import com.github.ezauton.core.utils.Clock;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.Future;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Runs actions on the {@link ExecutorPool}. Actions are tracked while they are running (see
+ * {@link MainActionScheduler#getRunningActions()}) and forgotten when they finish, so memory use does not grow over a
+ * long session.
+ * <p>
+ * Actions can be run in separate lanes (see {@link ExecutorPool#getLane(SchedulingClass)}). Actions scheduled by an
+ * action run in the same lane as it.
+ */
 public class MainActionScheduler implements ActionScheduler {
 
     private final Clock clock;
     private final boolean print;
-    private final List<ActionDescriptor> allFutures = new ArrayList<>();
+    private final ExecutorService executor;
+    private final Map<Long, ActionDescriptor> running = new ConcurrentHashMap<>();
+    private final AtomicLong idCounter = new AtomicLong();
 
     public MainActionScheduler(Clock clock, boolean print) {
+        this(clock, print, ExecutorPool.getInstance());
+    }
+
+    /**
+     * @param clock    The clock to run actions with
+     * @param print    If exceptions thrown by actions should be printed
+     * @param executor What to run {@link SchedulingClass#NORMAL} actions on
+     */
+    protected MainActionScheduler(Clock clock, boolean print, ExecutorService executor) {
         this.clock = clock;
         this.print = print;
+        this.executor = executor;
     }
 
     public MainActionScheduler(Clock clock)
@@ -25,34 +55,293 @@ public class MainActionScheduler implements ActionScheduler {
         this(clock, false);
     }
 
+    /**
+     * Run an action on the {@link ExecutorPool}. {@link ActionGroup}s are run with
+     * {@link ActionGroup#runAsync(ActionRunInfo)}, so they do not take up a thread of their own.
+     *
+     * @param action The action to run
+     * @return A future which is completed when the action is finished. Cancelling it interrupts the action.
+     */
+    @Override
+    public CompletableFuture<Void> scheduleAction(Action action) {
+        return scheduleAction(action, SchedulingClass.NORMAL);
+    }
+
+    /**
+     * Run an action in a lane. Outside of the {@link SchedulingClass#NORMAL} lane, waiting actions are ordered by
+     * deadline: one period from now for a {@link PeriodicAction}, the delay for a {@link DelayedAction}, and now for
+     * anything else. With a real-time clock (see {@link Clock#isRealTime()}), a {@link PeriodicAction} in the
+     * {@link SchedulingClass#REAL_TIME} lane is run one cycle at a time, each due by the start of the next cycle, so it
+     * does not hold a thread between cycles. Other real-time actions hold one of the lane's threads until they are done.
+     * With a simulated clock, real-time actions are run like normal ones, since their sleeps would hold the lane's few
+     * threads.
+     *
+     * @param action          The action to run
+     * @param schedulingClass The lane to run the action (and actions it schedules) in
+     * @return A future which is completed when the action is finished. Cancelling it interrupts the action, or ends a
+     * periodic action run one cycle at a time on its next cycle.
+     */
     @Override
-    public Future<Void> scheduleAction(Action action) {
-        final MainActionScheduler pass = new MainActionScheduler(clock, false);
-        ActionRunInfo actionRunInfo = new ActionRunInfo(clock,  pass);
-        final ActionCallable actionCallable = new ActionCallable(action, actionRunInfo, print);
-        Future<Void> future = ExecutorPool.getInstance().submit(actionCallable);
-        allFutures.add(new ActionDescriptor(action, future));
-        return future;
+    public CompletableFuture<Void> scheduleAction(Action action, SchedulingClass schedulingClass) {
+        return schedule(action, null, schedulingClass, print);
     }
 
+    private CompletableFuture<Void> schedule(Action action, ActionDescriptor parent, SchedulingClass schedulingClass, boolean print) {
+        ActionDescriptor descriptor = new ActionDescriptor(idCounter.incrementAndGet(), action, parent, schedulingClass, clock.getTime());
+        // Actions scheduled by this action are tracked with this action as their parent
+        ActionRunInfo actionRunInfo = new ActionRunInfo(clock, new ChildScheduler(descriptor));
+        TrackedFuture tracked = new TrackedFuture();
+        descriptor.future = tracked;
+        running.put(descriptor.id, descriptor);
+
+        CompletableFuture<Void> future;
+        try {
+            boolean realTime = schedulingClass == SchedulingClass.REAL_TIME && clock.isRealTime();
+            if (action instanceof ActionGroup) {
+                descriptor.start();
+                future = ((ActionGroup) action).runAsync(actionRunInfo);
+            } else if (realTime && action instanceof PeriodicAction) {
+                DeadlineExecutor lane = (DeadlineExecutor) ExecutorPool.getLane(SchedulingClass.REAL_TIME);
+                future = RealTimeCycles.start((PeriodicAction) action, actionRunInfo, lane, print, descriptor::start);
+            } else {
+                final ActionCallable actionCallable = new ActionCallable(action, actionRunInfo, print);
+                ExecutorService lane = schedulingClass == SchedulingClass.BACKGROUND || realTime ? ExecutorPool.getLane(schedulingClass) : executor;
+                future = ActionFuture.submit(lane, () -> {
+                    descriptor.start();
+                    return actionCallable.call();
+                }, System.nanoTime() + getRelativeDeadline(action, TimeUnit.NANOSECONDS));
+            }
+        } catch (RuntimeException | Error e) { // e.g., the executor was shut down
+            running.remove(descriptor.id);
+            throw e;
+        }
+        tracked.track(future, () -> running.remove(descriptor.id));
+        return tracked;
+    }
+
+    private static long getRelativeDeadline(Action action, TimeUnit timeUnit) {
+        if (action instanceof PeriodicAction) {
+            return ((PeriodicAction) action).getPeriod(timeUnit);
+        }
+        if (action instanceof DelayedAction) {
+            return ((DelayedAction) action).getDelay(timeUnit);
+        }
+        return 0;
+    }
+
+    /**
+     * Cancel all running actions. Actions scheduled by other actions (e.g., children of an {@link ActionGroup}) are
+     * cancelled by their parent.
+     */
     public void killAll() throws Exception
     {
-        for(ActionDescriptor desc : allFutures)
+        for(ActionDescriptor desc : running.values())
         {
-            desc.future.cancel(true);
+            CompletableFuture<Void> future = desc.future;
+            if (desc.parent == null && future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return How many actions are scheduled or running, including actions scheduled by other actions
+     */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * @return A snapshot of all actions which are scheduled or running (including actions scheduled by other actions),
+     * in the order they were scheduled
+     */
+    public List<ActionStatus> getRunningActions() {
+        List<ActionStatus> statuses = new ArrayList<>(running.size());
+        for (ActionDescriptor descriptor : running.values()) {
+            statuses.add(descriptor.snapshot());
+        }
+        statuses.sort(Comparator.comparingLong(ActionStatus::getId));
+        return statuses;
+    }
+
+    /**
+     * The lifecycle state of a tracked action. Finished actions are no longer tracked.
+     */
+    public enum State {
+        /**
+         * Waiting for a thread of the {@link ExecutorPool}
+         */
+        SCHEDULED,
+
+        /**
+         * Running (or being cancelled)
+         */
+        RUNNING
+    }
+
+    /**
+     * An immutable snapshot of a tracked action
+     */
+    public static final class ActionStatus {
+        private final long id;
+        private final Action action;
+        private final long parentId;
+        private final SchedulingClass schedulingClass;
+        private final long scheduledTime;
+        private final long startTime;
+        private final State state;
+
+        private ActionStatus(long id, Action action, long parentId, SchedulingClass schedulingClass, long scheduledTime, long startTime, State state) {
+            this.id = id;
+            this.action = action;
+            this.parentId = parentId;
+            this.schedulingClass = schedulingClass;
+            this.scheduledTime = scheduledTime;
+            this.startTime = startTime;
+            this.state = state;
+        }
+
+        /**
+         * @return A number unique to this scheduling of the action
+         */
+        public long getId() {
+            return id;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        /**
+         * @return The id of the action which scheduled this action, or -1 if it was scheduled directly
+         */
+        public long getParentId() {
+            return parentId;
+        }
+
+        /**
+         * @return The lane the action runs in
+         */
+        public SchedulingClass getSchedulingClass() {
+            return schedulingClass;
+        }
+
+        /**
+         * @return The clock time (ms) the action was scheduled at
+         */
+        public long getScheduledTime() {
+            return scheduledTime;
+        }
+
+        /**
+         * @return The clock time (ms) the action started running at, or -1 if it has not started
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return "ActionStatus{" +
+                    "id=" + id +
+                    ", action=" + action +
+                    ", parentId=" + parentId +
+                    ", schedulingClass=" + schedulingClass +
+                    ", scheduledTime=" + scheduledTime +
+                    ", startTime=" + startTime +
+                    ", state=" + state +
+                    '}';
+        }
+    }
+
+    /**
+     * The future returned to whoever scheduled an action. It is only completed after the action is forgotten, so
+     * {@link MainActionScheduler#getRunningCount()} is up to date as soon as the action is seen to be done.
+     */
+    private static final class TrackedFuture extends CompletableFuture<Void> {
+        private volatile CompletableFuture<Void> action;
+
+        /**
+         * @param action The future of the running action
+         * @param forget Run when the action is done, before this future is completed
+         */
+        private void track(CompletableFuture<Void> action, Runnable forget) {
+            this.action = action;
+            action.whenComplete((v, t) -> {
+                forget.run();
+                if (t == null) {
+                    complete(null);
+                } else {
+                    completeExceptionally(t);
+                }
+            });
+            if (isCancelled()) { // cancelled before the action was tracked
+                action.cancel(true);
+            }
         }
-        allFutures.clear();
 
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            CompletableFuture<Void> action = this.action;
+            if (action != null) {
+                action.cancel(mayInterruptIfRunning); // which completes this future
+            }
+            return super.cancel(mayInterruptIfRunning) || isCancelled();
+        }
     }
 
-    private static class ActionDescriptor {
+    private final class ActionDescriptor {
+        private final long id;
         private final Action action;
-        private final Future<Void> future;
+        private final ActionDescriptor parent;
+        private final SchedulingClass schedulingClass;
+        private final long scheduledTime;
+        private volatile boolean started = false;
+        private volatile long startTime;
+        private volatile CompletableFuture<Void> future;
 
-        private ActionDescriptor(Action action, Future<Void> future) {
+        private ActionDescriptor(long id, Action action, ActionDescriptor parent, SchedulingClass schedulingClass, long scheduledTime) {
+            this.id = id;
             this.action = action;
-            this.future = future;
+            this.parent = parent;
+            this.schedulingClass = schedulingClass;
+            this.scheduledTime = scheduledTime;
+        }
+
+        private void start() {
+            startTime = clock.getTime();
+            started = true;
+        }
+
+        private ActionStatus snapshot() {
+            boolean started = this.started;
+            return new ActionStatus(id, action, parent == null ? -1 : parent.id, schedulingClass, scheduledTime, started ? startTime : -1,
+                    started ? State.RUNNING : State.SCHEDULED);
         }
     }
 
+    /**
+     * Given to running actions so that the actions they schedule are tracked as their children
+     */
+    private final class ChildScheduler implements ActionScheduler {
+        private final ActionDescriptor parent;
+
+        private ChildScheduler(ActionDescriptor parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public CompletableFuture<Void> scheduleAction(Action action) {
+            return schedule(action, parent, parent.schedulingClass, false);
+        }
+
+        @Override
+        public CompletableFuture<Void> scheduleAction(Action action, SchedulingClass schedulingClass) {
+            return schedule(action, parent, schedulingClass, false);
+        }
+    }
 }
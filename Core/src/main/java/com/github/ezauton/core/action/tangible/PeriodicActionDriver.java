@@ -0,0 +1,247 @@
+package com.github.ezauton.core.action.tangible;
+
+import com.github.ezauton.core.action.Action;
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.simulation.ActionScheduler;
+import com.github.ezauton.core.utils.Clock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link ActionScheduler} which runs every {@link PeriodicAction} scheduled on it from one driver thread instead
+ * of giving each one its own sleeping thread. Actions with the same period are run back to back in the same wakeup,
+ * and every period group keeps a fixed rate from when it was created, so control loops stay in phase with each other.
+ * <p>
+ * {@link PeriodicAction}s which delay their period after execution (see
+ * {@link PeriodicAction#setPeriodDelayAfterExecution(boolean)}) and all other actions are run the normal, blocking way on
+ * the {@link ExecutorPool}, except {@link ActionGroup}s, which are run with {@link ActionGroup#runAsync(ActionRunInfo)}.
+ * Actions they schedule are scheduled on this driver.
+ * <p>
+ * Since all periodic actions share a thread, their {@code execute()} and {@code isFinished()} must not block.
+ */
+public final class PeriodicActionDriver implements ActionScheduler {
+
+    /**
+     * How long the driver sleeps when it has nothing to run (it is woken early when something is scheduled)
+     */
+    private static final long IDLE_SLEEP_MILLIS = 1_000;
+
+    private final Clock clock;
+    private final ActionRunInfo actionRunInfo;
+    private final Queue<Registration> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, PeriodGroup> groups = new HashMap<>();
+    private final Thread driverThread;
+    private final Object wakeLock = new Object();
+
+    private volatile boolean stopped = false;
+    private boolean sleeping = false;
+
+    /**
+     * @param clock The clock to run actions with
+     */
+    public PeriodicActionDriver(Clock clock) {
+        this.clock = clock;
+        this.actionRunInfo = new ActionRunInfo(clock, this);
+        driverThread = new Thread(this::drive, "PeriodicActionDriver");
+        driverThread.setDaemon(true);
+        driverThread.start();
+    }
+
+    /**
+     * @param action The action to run
+     * @return A future which is completed when the action is finished. Cancelling it stops the action (and, like an
+     * interrupted periodic action, ends it) on the next tick of its period.
+     */
+    @Override
+    public CompletableFuture<Void> scheduleAction(Action action) {
+        if (action instanceof ActionGroup) {
+            return ((ActionGroup) action).runAsync(actionRunInfo);
+        }
+        if (!(action instanceof PeriodicAction) || ((PeriodicAction) action).isPeriodDelayAfterExecution()) {
+            return ActionFuture.submit(ExecutorPool.getInstance(), new ActionCallable(action, actionRunInfo));
+        }
+        if (stopped) {
+            throw new IllegalStateException("The driver has been stopped");
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.add(new Registration((PeriodicAction) action, future));
+        wake();
+        return future;
+    }
+
+    /**
+     * Stop the driver thread. Periodic actions which are still running are cancelled.
+     */
+    public void stop() {
+        stopped = true;
+        wake();
+    }
+
+    /**
+     * @return The thread all periodic actions are run on
+     */
+    public Thread getDriverThread() {
+        return driverThread;
+    }
+
+    private void wake() {
+        synchronized (wakeLock) {
+            if (sleeping) {
+                driverThread.interrupt();
+            }
+        }
+    }
+
+    private void drive() {
+        while (!stopped) {
+            addPending();
+
+            PeriodGroup next = null;
+            for (PeriodGroup group : groups.values()) {
+                if (next == null || group.nextTime < next.nextTime) {
+                    next = group;
+                }
+            }
+
+            long wait = next == null ? IDLE_SLEEP_MILLIS : next.nextTime - clock.getTime();
+            if (wait > 0) {
+                sleep(wait);
+            } else {
+                next.run();
+                if (next.registrations.isEmpty()) {
+                    groups.remove(next.period);
+                }
+            }
+        }
+
+        addPending();
+        for (PeriodGroup group : groups.values()) {
+            for (Registration registration : group.registrations) {
+                registration.future.cancel(true);
+                if (registration.future.isCancelled()) {
+                    registration.finish();
+                }
+            }
+        }
+        groups.clear();
+    }
+
+    /**
+     * Sleep, unless woken early by {@link PeriodicActionDriver#wake()}
+     */
+    private void sleep(long millis) {
+        synchronized (wakeLock) {
+            if (!pending.isEmpty() || stopped) {
+                return;
+            }
+            sleeping = true;
+        }
+        try {
+            clock.sleep(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ignored) {
+            // woken early
+        } finally {
+            synchronized (wakeLock) {
+                sleeping = false;
+                Thread.interrupted(); // do not let a wake up leak into action code
+            }
+        }
+    }
+
+    /**
+     * Start newly scheduled actions and add them to the group of their period
+     */
+    private void addPending() {
+        Registration registration;
+        while ((registration = pending.poll()) != null) {
+            if (registration.future.isDone()) {
+                continue;
+            }
+            PeriodicAction action = registration.action;
+            try {
+                action.start(actionRunInfo);
+            } catch (Exception e) {
+                registration.future.completeExceptionally(e);
+                continue;
+            }
+            long period = action.getPeriod(TimeUnit.MILLISECONDS);
+            groups.computeIfAbsent(period, p -> new PeriodGroup(p, clock.getTime())).registrations.add(registration);
+        }
+    }
+
+    private static final class Registration {
+        private final PeriodicAction action;
+        private final CompletableFuture<Void> future;
+
+        private Registration(PeriodicAction action, CompletableFuture<Void> future) {
+            this.action = action;
+            this.future = future;
+        }
+
+        /**
+         * Run what {@link ActionCallable} runs after an action is done
+         */
+        private void finish() {
+            try {
+                action.end();
+                action.getFinished().forEach(Runnable::run);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * All actions with the same period. They are stepped together at a fixed rate.
+     */
+    private static final class PeriodGroup {
+        private final long period;
+        private final long startTime;
+        private final List<Registration> registrations = new ArrayList<>();
+        private long cycles = 1;
+        private long nextTime;
+
+        private PeriodGroup(long period, long startTime) {
+            this.period = period;
+            this.startTime = startTime;
+            this.nextTime = startTime + period;
+        }
+
+        private void run() {
+            Iterator<Registration> iterator = registrations.iterator();
+            while (iterator.hasNext()) {
+                Registration registration = iterator.next();
+                if (registration.future.isDone()) {
+                    iterator.remove();
+                    if (registration.future.isCancelled()) {
+                        // Like the blocking implementation, an interrupted (cancelled) periodic action still ends
+                        registration.finish();
+                    }
+                    continue;
+                }
+                try {
+                    if (registration.action.step()) {
+                        iterator.remove();
+                        registration.finish();
+                        registration.future.complete(null);
+                    }
+                } catch (Exception e) {
+                    iterator.remove();
+                    registration.future.completeExceptionally(e);
+                }
+            }
+            cycles++;
+            nextTime = startTime + period * cycles;
+        }
+    }
+}
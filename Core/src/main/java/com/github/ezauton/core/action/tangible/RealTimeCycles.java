@@ -0,0 +1,140 @@
+package com.github.ezauton.core.action.tangible;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.simulation.SchedulingClass;
+import com.github.ezauton.core.utils.Clock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link PeriodicAction} in the {@link SchedulingClass#REAL_TIME} lane one cycle at a time, instead of letting
+ * it sleep on a thread between cycles. Each cycle is handed to the lane's {@link DeadlineExecutor} when it is due, with
+ * the start of the cycle after it as its deadline. When more loops are due at once than the lane has threads, the one
+ * which has to be done soonest runs first, and a loop only takes up a thread while a cycle runs.
+ * <p>
+ * Cycles of one action never overlap. Cancelling this future ends the action (like an interrupted periodic action) on
+ * its next cycle. A cycle which is running is not interrupted.
+ */
+final class RealTimeCycles extends CompletableFuture<Void> {
+
+    private final PeriodicAction action;
+    private final ActionRunInfo actionRunInfo;
+    private final DeadlineExecutor lane;
+    private final Clock clock;
+    private final boolean print;
+    private final Runnable onStart;
+    private final long periodNanos;
+    private final long spinBudgetNanos;
+
+    // Only touched by the cycle which is running
+    private long startNanos;
+    private long cycles = 0;
+
+    private RealTimeCycles(PeriodicAction action, ActionRunInfo actionRunInfo, DeadlineExecutor lane, boolean print, Runnable onStart) {
+        this.action = action;
+        this.actionRunInfo = actionRunInfo;
+        this.lane = lane;
+        this.clock = actionRunInfo.getClock();
+        this.print = print;
+        this.onStart = onStart;
+        this.periodNanos = action.getPeriod(TimeUnit.NANOSECONDS);
+        this.spinBudgetNanos = action.getSpinBudget(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param action        The action to run. Its clock must be real-time (see {@link Clock#isRealTime()}).
+     * @param actionRunInfo What to run the action with
+     * @param lane          The real-time lane
+     * @param print         If exceptions thrown by the action should be printed
+     * @param onStart       Run on the lane right before the action is started
+     * @return A future which is completed when the action is finished
+     * @throws RejectedExecutionException If the lane has been shut down
+     */
+    static RealTimeCycles start(PeriodicAction action, ActionRunInfo actionRunInfo, DeadlineExecutor lane, boolean print, Runnable onStart) {
+        RealTimeCycles cycles = new RealTimeCycles(action, actionRunInfo, lane, print, onStart);
+        lane.submitWithDeadline(cycles::first, System.nanoTime() + cycles.periodNanos);
+        return cycles;
+    }
+
+    private void first() {
+        if (isDone()) { // cancelled before it started
+            return;
+        }
+        onStart.run();
+        startNanos = clock.getTimeNanos();
+        try {
+            action.start(actionRunInfo);
+        } catch (Exception e) {
+            fail(e);
+            return;
+        }
+        scheduleNext();
+    }
+
+    private void cycle(long dueNanos) {
+        if (isCancelled()) {
+            try {
+                finish();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        // Spin for the rest of the spin budget
+        while (clock.getTimeNanos() < dueNanos) {
+            if (isCancelled()) {
+                break;
+            }
+        }
+        try {
+            if (action.step()) {
+                finish();
+                complete(null);
+            } else {
+                scheduleNext();
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private void scheduleNext() {
+        long dueNanos = action.isPeriodDelayAfterExecution()
+                ? clock.getTimeNanos() + periodNanos
+                : startNanos + periodNanos * ++cycles;
+        Runnable submit = () -> {
+            try {
+                // The deadline is in System#nanoTime() time
+                long deadlineNanos = System.nanoTime() + dueNanos + periodNanos - clock.getTimeNanos();
+                lane.submitWithDeadline(() -> cycle(dueNanos), deadlineNanos);
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        };
+        long wakeNanos = dueNanos - spinBudgetNanos;
+        if (wakeNanos <= clock.getTimeNanos()) {
+            // Behind schedule, so the next cycle is due right away
+            submit.run();
+        } else {
+            clock.scheduleAtNanos(wakeNanos, submit);
+        }
+    }
+
+    /**
+     * Run what {@link ActionCallable} runs after an action is done
+     */
+    private void finish() throws Exception {
+        action.end();
+        action.getFinished().forEach(Runnable::run);
+    }
+
+    private void fail(Exception e) {
+        if (print) {
+            e.printStackTrace();
+        }
+        completeExceptionally(e);
+    }
+}
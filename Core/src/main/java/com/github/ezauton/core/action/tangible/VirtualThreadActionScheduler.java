@@ -0,0 +1,35 @@
+package com.github.ezauton.core.action.tangible;
+
+import com.github.ezauton.core.simulation.SchedulingClass;
+import com.github.ezauton.core.utils.Clock;
+
+/**
+ * A {@link MainActionScheduler} which runs every action in its own virtual thread when running on Java 21+, so a
+ * blocked action (e.g., a {@link com.github.ezauton.core.action.PeriodicAction} sleeping until its next period) does not
+ * use up a platform thread. Simulations with thousands of concurrent actions then need only a handful of threads.
+ * <p>
+ * On older JVMs, this falls back to the cached pool of {@link ExecutorPool}, i.e., behaves like a
+ * {@link MainActionScheduler}. The {@link SchedulingClass#REAL_TIME} and {@link SchedulingClass#BACKGROUND} lanes
+ * always use platform threads, as virtual threads do not have priorities.
+ * <p>
+ * Note that a virtual thread blocking inside a {@code synchronized} block keeps its platform thread.
+ *
+ * @see ExecutorPool#getVirtualThreadExecutor()
+ */
+public class VirtualThreadActionScheduler extends MainActionScheduler {
+
+    public VirtualThreadActionScheduler(Clock clock) {
+        this(clock, false);
+    }
+
+    public VirtualThreadActionScheduler(Clock clock, boolean print) {
+        super(clock, print, ExecutorPool.getVirtualThreadExecutor());
+    }
+
+    /**
+     * @return If actions are run in virtual threads (false if the JVM does not support them)
+     */
+    public static boolean isVirtual() {
+        return ExecutorPool.hasVirtualThreads();
+    }
+}
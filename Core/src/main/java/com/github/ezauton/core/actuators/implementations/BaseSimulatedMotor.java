@@ -5,8 +5,6 @@ import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
 import com.github.ezauton.core.utils.Clock;
 import com.github.ezauton.core.utils.Stopwatch;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * Describes a simulated motor with an encoder. The motor has infinite acceleration
  */
@@ -54,18 +52,24 @@ public class BaseSimulatedMotor implements VelocityMotor, TranslationalDistanceS
         if (subscribed != null) {
             subscribed.runVelocity(targetVelocity);
         }
-        double popped = stopwatch.pop(TimeUnit.SECONDS);
-        position += velocity * popped;
+        position += velocity * popSeconds();
         this.velocity = targetVelocity;
     }
 
     @Override
     public double getPosition() {
         stopwatch.resetIfNotInit();
-        position += velocity * stopwatch.pop(TimeUnit.SECONDS); // Convert millis to seconds
+        position += velocity * popSeconds();
         return position;
     }
 
+    /**
+     * @return Seconds since the position was last integrated, from nanoseconds so it is not rounded to the millisecond
+     */
+    private double popSeconds() {
+        return stopwatch.popNanos() / 1E9;
+    }
+
     @Override
     public double getVelocity() {
         return velocity;
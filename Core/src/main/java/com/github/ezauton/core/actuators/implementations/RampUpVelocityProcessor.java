@@ -6,8 +6,6 @@ import com.github.ezauton.core.localization.Updateable;
 import com.github.ezauton.core.utils.Clock;
 import com.github.ezauton.core.utils.Stopwatch;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * A velocity processor where the motor has a maximum accceleration
  */
@@ -42,10 +40,11 @@ public class RampUpVelocityProcessor extends VelocityProcessor implements Update
      */
     @Override
     public boolean update() {
+        double dt = accelStopwatch.popNanos() / 1E9;
         if (targetVelocity > lastVelocity) {
-            lastVelocity = Math.min(lastVelocity + maxAccel * accelStopwatch.pop(TimeUnit.SECONDS), targetVelocity); // TODO: make this better and use triangle integral + stopwatch
+            lastVelocity = Math.min(lastVelocity + maxAccel * dt, targetVelocity); // TODO: make this better and use triangle integral + stopwatch
         } else {
-            lastVelocity = Math.max(lastVelocity - maxAccel * accelStopwatch.pop(TimeUnit.SECONDS), targetVelocity);
+            lastVelocity = Math.max(lastVelocity - maxAccel * dt, targetVelocity);
         }
         getToApply().runVelocity(lastVelocity);
         return true;
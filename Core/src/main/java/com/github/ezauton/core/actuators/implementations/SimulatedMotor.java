@@ -2,7 +2,7 @@ package com.github.ezauton.core.actuators.implementations;
 
 import com.github.ezauton.core.actuators.VelocityMotor;
 import com.github.ezauton.core.actuators.VoltageMotor;
-import com.github.ezauton.core.localization.Updateable;
+import com.github.ezauton.core.localization.TickedUpdateable;
 import com.github.ezauton.core.localization.UpdateableGroup;
 import com.github.ezauton.core.localization.sensors.RotationalDistanceSensor;
 import com.github.ezauton.core.utils.Clock;
@@ -10,7 +10,7 @@ import com.github.ezauton.core.utils.Clock;
 /**
  * Unlike {@link BaseSimulatedMotor}, this motor has static friction and finite acceleration
  */
-public class SimulatedMotor implements VelocityMotor, RotationalDistanceSensor, VoltageMotor, Updateable {
+public class SimulatedMotor extends TickedUpdateable implements VelocityMotor, RotationalDistanceSensor, VoltageMotor {
 
     private final BoundedVelocityProcessor motorConstraints;
     private final BaseSimulatedMotor motor;
@@ -51,8 +51,8 @@ public class SimulatedMotor implements VelocityMotor, RotationalDistanceSensor,
     }
 
     @Override
-    public boolean update() {
-        return updateableGroup.update();
+    protected boolean step(long tick) {
+        return updateableGroup.update(tick);
     }
 
     @Override
@@ -0,0 +1,252 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.LoopTimingStats;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.action.tangible.ExecutorPool;
+import com.github.ezauton.core.simulation.ActionScheduler;
+import com.github.ezauton.core.simulation.SchedulingClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Updates {@link Updateable}s in a fixed order of phases every period, so the order between reading sensors,
+ * estimating, planning and driving motors does not depend on how things happen to be nested. Updateables in the same
+ * phase are updated in the order they were added, all with the same tick (see {@link TickedUpdateable}). Runnables added with {@link PeriodicAction#addRunnable(Runnable)} are
+ * run after {@link Phase#RECORD}.
+ * <p>
+ * It is a {@link PeriodicAction}, so its cycles never overlap. Schedule it in the {@link SchedulingClass#REAL_TIME}
+ * lane (see {@link ControlLoop#schedule(ActionScheduler)}) to run each cycle on a high priority thread, and see
+ * {@link PeriodicAction#setSpinBudget(long, TimeUnit)} for precise timing.
+ * <p>
+ * Each phase is timed (in real time, even with a simulated clock), as is the latency from the start of
+ * {@link Phase#SENSE} to the end of {@link Phase#ACTUATE}.
+ */
+public class ControlLoop extends PeriodicAction {
+
+    /**
+     * The phases of a cycle, in the order they are run
+     */
+    public enum Phase {
+        /**
+         * Read sensors
+         */
+        SENSE,
+
+        /**
+         * Update estimators (e.g., localization) from the sensor readings
+         */
+        ESTIMATE,
+
+        /**
+         * Decide what to do (e.g., pure pursuit, PID)
+         */
+        PLAN,
+
+        /**
+         * Drive motors
+         */
+        ACTUATE,
+
+        /**
+         * Log and record what happened
+         */
+        RECORD
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final Map<Phase, List<Updateable>> updateables = new EnumMap<>(Phase.class);
+    private final Set<Phase> parallelPhases = EnumSet.noneOf(Phase.class);
+    private final Map<Phase, LoopTimingStats.Histogram> phaseHistograms = new EnumMap<>(Phase.class);
+    private final LoopTimingStats.Histogram senseToActuateHistogram = new LoopTimingStats.Histogram(1_000, 10);
+    private volatile boolean stopped = false;
+    private LongSupplier nanoTime = System::nanoTime;
+
+    /**
+     * @param period   How often to run a cycle
+     * @param timeUnit The timeunit that period is in
+     */
+    public ControlLoop(long period, TimeUnit timeUnit) {
+        super(period, timeUnit);
+        for (Phase phase : PHASES) {
+            updateables.put(phase, new CopyOnWriteArrayList<>());
+            phaseHistograms.put(phase, new LoopTimingStats.Histogram(1_000, 10));
+        }
+    }
+
+    /**
+     * Create a control loop which runs every 20 ms
+     */
+    public ControlLoop() {
+        this(20, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add updateables to a phase. Can be called while the loop is running, in which case they are updated from the
+     * next cycle on.
+     *
+     * @param phase       The phase to update them in
+     * @param updateables The things to update
+     * @return this
+     */
+    public ControlLoop add(Phase phase, Updateable... updateables) {
+        this.updateables.get(phase).addAll(Arrays.asList(updateables));
+        return this;
+    }
+
+    /**
+     * @param phase      The phase the updateable was added to
+     * @param updateable The updateable to stop updating
+     * @return If it was in the phase
+     */
+    public boolean remove(Phase phase, Updateable updateable) {
+        return updateables.get(phase).remove(updateable);
+    }
+
+    /**
+     * @param phase The phase to get the updateables of
+     * @return The updateables of the phase, in the order they are updated
+     */
+    public List<Updateable> getUpdateables(Phase phase) {
+        return new ArrayList<>(updateables.get(phase));
+    }
+
+    /**
+     * Let the updateables of a phase be updated at the same time, e.g., sensors which are slow to read and do not
+     * depend on each other. The loop still waits for all of them before the next phase starts.
+     *
+     * @param phase    The phase
+     * @param parallel If its updateables are independent of each other and can be updated in parallel
+     * @return this
+     */
+    public ControlLoop setParallel(Phase phase, boolean parallel) {
+        synchronized (parallelPhases) {
+            if (parallel) {
+                parallelPhases.add(phase);
+            } else {
+                parallelPhases.remove(phase);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param phase The phase
+     * @return If its updateables are updated in parallel
+     */
+    public boolean isParallel(Phase phase) {
+        synchronized (parallelPhases) {
+            return parallelPhases.contains(phase);
+        }
+    }
+
+    /**
+     * Schedule this loop in the {@link SchedulingClass#REAL_TIME} lane
+     *
+     * @param actionScheduler The scheduler to run the loop on
+     * @return A future which is completed once the loop is stopped
+     */
+    public CompletableFuture<Void> schedule(ActionScheduler actionScheduler) {
+        return actionScheduler.scheduleAction(this, SchedulingClass.REAL_TIME);
+    }
+
+    /**
+     * Finish the loop after the current cycle
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @param phase The phase
+     * @return How long the phase took each cycle, in microseconds (with 10 µs buckets)
+     */
+    public LoopTimingStats.Histogram getPhaseHistogram(Phase phase) {
+        return phaseHistograms.get(phase);
+    }
+
+    /**
+     * @return How long it took from the start of {@link Phase#SENSE} to the end of {@link Phase#ACTUATE} each cycle,
+     * in microseconds (with 10 µs buckets)
+     */
+    public LoopTimingStats.Histogram getSenseToActuateHistogram() {
+        return senseToActuateHistogram;
+    }
+
+    /**
+     * Time phases with something other than {@link System#nanoTime()}, e.g., a fake one in tests. Must be called
+     * before the loop starts.
+     *
+     * @param nanoTime What to read the time in nanoseconds from
+     * @return this
+     */
+    ControlLoop setNanoTime(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        return this;
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        long tick = TickedUpdateable.nextTick();
+        long senseStart = nanoTime.getAsLong();
+        for (Phase phase : PHASES) {
+            long phaseStart = nanoTime.getAsLong();
+            if (isParallel(phase)) {
+                updateParallel(updateables.get(phase), tick);
+            } else {
+                for (Updateable updateable : updateables.get(phase)) {
+                    updateable.update(tick);
+                }
+            }
+            long phaseEnd = nanoTime.getAsLong();
+            phaseHistograms.get(phase).record((phaseEnd - phaseStart) / 1_000);
+            if (phase == Phase.ACTUATE) {
+                senseToActuateHistogram.record((phaseEnd - senseStart) / 1_000);
+            }
+        }
+        super.execute();
+    }
+
+    /**
+     * Update all but the first updateable on the {@link ExecutorPool} and the first on this thread, then wait for all
+     */
+    private static void updateParallel(List<Updateable> updateables, long tick) throws ExecutionException, InterruptedException {
+        Updateable first = null;
+        List<Future<Boolean>> futures = new ArrayList<>(updateables.size());
+        try {
+            for (Updateable updateable : updateables) { // a snapshot, since the list is copy-on-write
+                if (first == null) {
+                    first = updateable;
+                } else {
+                    futures.add(ExecutorPool.getInstance().submit(() -> updateable.update(tick)));
+                }
+            }
+            if (first != null) {
+                first.update(tick);
+            }
+            for (Future<Boolean> future : futures) {
+                future.get();
+            }
+        } finally {
+            // If something failed or we were interrupted, do not leave updates running into the next phase
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    protected boolean isFinished() {
+        return stopped;
+    }
+}
@@ -0,0 +1,336 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.robot.TankRobotConstants;
+import com.github.ezauton.core.simulation.ActionScheduler;
+import com.github.ezauton.core.simulation.SchedulingClass;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.MathUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Integrates the encoders (and optionally a gyro) of a tank robot on its own fast loop, e.g., at 200 Hz, so the
+ * pose is as accurate as if the whole robot ran that fast while pure pursuit keeps its 20 ms period. Use it anywhere a
+ * {@link TranslationalLocationEstimator} or {@link RotationalLocationEstimator} is expected.
+ * <p>
+ * The pose is published seqlock-style: the loop bumps a sequence number before and after writing a sample, and readers
+ * retry if it changed (or was odd) while they read. Readers never lock or block the loop, and everything they get in
+ * one call (e.g., x and y of {@link OdometryService#estimateLocation()}, or a {@link Pose}) is from the same sample.
+ */
+public class OdometryService extends PeriodicAction implements RotationalLocationEstimator, TranslationalLocationEstimator, TankRobotVelocityEstimator {
+
+    private final TranslationalDistanceSensor left;
+    private final TranslationalDistanceSensor right;
+    private final TankRobotConstants tankRobot;
+    private final RotationalLocationEstimator gyro;
+
+    // Only touched by whoever holds the lock on this, which is the loop except when resetting
+    private double lastPosLeft;
+    private double lastPosRight;
+    private double lastGyroHeading;
+    private double heading;
+    private double x;
+    private double y;
+    private boolean init = false;
+
+    // Published sample. Volatile so a reader cannot see them out of order with the sequence number.
+    private volatile long sequence = 0;
+    private volatile double publishedX;
+    private volatile double publishedY;
+    private volatile double publishedHeading;
+    private volatile double publishedLeftVelocity;
+    private volatile double publishedRightVelocity;
+    private volatile long publishedTime;
+
+    private volatile boolean stopped = false;
+
+    /**
+     * Track the heading with the encoders
+     *
+     * @param period    How often to integrate
+     * @param timeUnit  The timeunit that period is in
+     * @param left      The encoder on the left side of the robot
+     * @param right     The encoder on the right side of the robot
+     * @param tankRobot The structure of the drivetrain
+     */
+    public OdometryService(long period, TimeUnit timeUnit, TranslationalDistanceSensor left, TranslationalDistanceSensor right, TankRobotConstants tankRobot) {
+        this(period, timeUnit, left, right, tankRobot, null);
+    }
+
+    /**
+     * Track the heading with a gyro, which is usually more accurate than the encoders when the wheels slip
+     *
+     * @param period    How often to integrate
+     * @param timeUnit  The timeunit that period is in
+     * @param left      The encoder on the left side of the robot
+     * @param right     The encoder on the right side of the robot
+     * @param tankRobot The structure of the drivetrain
+     * @param gyro      Where to get the heading from. Updated by the loop if it is {@link Updateable}. If null, the
+     *                  encoders are used.
+     */
+    public OdometryService(long period, TimeUnit timeUnit, TranslationalDistanceSensor left, TranslationalDistanceSensor right, TankRobotConstants tankRobot, RotationalLocationEstimator gyro) {
+        super(period, timeUnit);
+        this.left = left;
+        this.right = right;
+        this.tankRobot = tankRobot;
+        this.gyro = gyro;
+    }
+
+    /**
+     * Set the position and heading to 0. Can be called while the loop is running.
+     */
+    public synchronized void reset() {
+        lastPosLeft = left.getPosition();
+        lastPosRight = right.getPosition();
+        if (gyro != null) {
+            updateGyro(TickedUpdateable.nextTick());
+            lastGyroHeading = gyro.estimateHeading();
+        }
+        x = 0;
+        y = 0;
+        heading = 0;
+        init = true;
+        publish(left.getVelocity(), right.getVelocity());
+    }
+
+    /**
+     * Integrate one sample. Called by the loop, but can be called directly to integrate without running the loop.
+     */
+    public synchronized void integrate() {
+        if (!init) {
+            throw new IllegalStateException("Must be initialized! (call reset())");
+        }
+
+        double leftPosition = left.getPosition();
+        double rightPosition = right.getPosition();
+        double dl = leftPosition - lastPosLeft;
+        double dr = rightPosition - lastPosRight;
+        lastPosLeft = leftPosition;
+        lastPosRight = rightPosition;
+
+        if (gyro == null) {
+            ImmutableVector dLocation = MathUtils.Kinematics.getAbsoluteDPosCurve(dl, dr, tankRobot.getLateralWheelDistance(), heading);
+            x += dLocation.get(0);
+            y += dLocation.get(1);
+            heading += MathUtils.Kinematics.getAngularDistance(dl, dr, tankRobot.getLateralWheelDistance());
+        } else {
+            updateGyro(TickedUpdateable.nextTick());
+            double gyroHeading = gyro.estimateHeading();
+            double dHeading = gyroHeading - lastGyroHeading;
+            lastGyroHeading = gyroHeading;
+
+            // Move along the average of the headings at the start and end of the sample
+            double midHeading = heading + dHeading / 2;
+            double distance = (dl + dr) / 2;
+            x -= distance * Math.sin(midHeading); // heading 0 is (0, 1), CCW is positive
+            y += distance * Math.cos(midHeading);
+            heading += dHeading;
+        }
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            throw new IllegalStateException("Location is (" + x + ", " + y + "), which is not finite! dl = " + dl + ", dr = " + dr + ", heading = " + heading);
+        }
+
+        publish(left.getVelocity(), right.getVelocity());
+    }
+
+    private void updateGyro(long tick) {
+        if (gyro instanceof Updateable) {
+            ((Updateable) gyro).update(tick);
+        }
+    }
+
+    /**
+     * Only called with the lock on this, so there is a single writer
+     */
+    private void publish(double leftVelocity, double rightVelocity) {
+        long seq = sequence;
+        sequence = seq + 1; // odd: writing
+        publishedX = x;
+        publishedY = y;
+        publishedHeading = heading;
+        publishedLeftVelocity = leftVelocity;
+        publishedRightVelocity = rightVelocity;
+        publishedTime = clock == null ? 0 : clock.getTime();
+        sequence = seq + 2; // even: done
+    }
+
+    /**
+     * Wait until no sample is being written
+     *
+     * @return The sequence number to compare against after reading
+     */
+    private long beginRead() {
+        long seq;
+        while (((seq = sequence) & 1) != 0) {
+            Thread.yield();
+        }
+        return seq;
+    }
+
+    /**
+     * @return The latest sample, consistent as a whole
+     */
+    public Pose getPose() {
+        Pose pose;
+        long seq;
+        do {
+            seq = beginRead();
+            pose = new Pose(publishedX, publishedY, publishedHeading, publishedLeftVelocity, publishedRightVelocity, publishedTime);
+        } while (sequence != seq);
+        return pose;
+    }
+
+    /**
+     * @return How many samples have been published. Can be used to tell if the pose changed since it was last read.
+     */
+    public long getSampleCount() {
+        return beginRead() / 2;
+    }
+
+    @Override
+    public ImmutableVector estimateLocation() {
+        double x, y;
+        long seq;
+        do {
+            seq = beginRead();
+            x = publishedX;
+            y = publishedY;
+        } while (sequence != seq);
+        return new ImmutableVector(x, y);
+    }
+
+    @Override
+    public double estimateHeading() {
+        return publishedHeading;
+    }
+
+    @Override
+    public ImmutableVector estimateAbsoluteVelocity() {
+        Pose pose = getPose();
+        return MathUtils.Geometry.getVector(pose.getVelocity(), pose.getHeading());
+    }
+
+    @Override
+    public double getLeftTranslationalWheelVelocity() {
+        return publishedLeftVelocity;
+    }
+
+    @Override
+    public double getRightTranslationalWheelVelocity() {
+        return publishedRightVelocity;
+    }
+
+    @Override
+    public double getAvgTranslationalWheelVelocity() {
+        return getPose().getVelocity();
+    }
+
+    /**
+     * Schedule the loop in the {@link SchedulingClass#REAL_TIME} lane
+     *
+     * @param actionScheduler The scheduler to run the loop on
+     * @return A future which is completed once the loop is stopped
+     */
+    public CompletableFuture<Void> schedule(ActionScheduler actionScheduler) {
+        return actionScheduler.scheduleAction(this, SchedulingClass.REAL_TIME);
+    }
+
+    /**
+     * Finish the loop after the current sample
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        integrate();
+        super.execute();
+    }
+
+    @Override
+    protected boolean isFinished() {
+        return stopped;
+    }
+
+    /**
+     * The state of the robot at one sample
+     */
+    public static final class Pose {
+        private final double x;
+        private final double y;
+        private final double heading;
+        private final double leftVelocity;
+        private final double rightVelocity;
+        private final long time;
+
+        Pose(double x, double y, double heading, double leftVelocity, double rightVelocity, long time) {
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+            this.leftVelocity = leftVelocity;
+            this.rightVelocity = rightVelocity;
+            this.time = time;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        /**
+         * @return Heading in radians, CCW is positive
+         */
+        public double getHeading() {
+            return heading;
+        }
+
+        public double getLeftVelocity() {
+            return leftVelocity;
+        }
+
+        public double getRightVelocity() {
+            return rightVelocity;
+        }
+
+        /**
+         * @return Average velocity of both wheels
+         */
+        public double getVelocity() {
+            return (leftVelocity + rightVelocity) / 2;
+        }
+
+        /**
+         * @return When the sample was taken (in milliseconds), according to the clock of the loop. 0 if the loop has
+         * not started yet.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return The location as a vector
+         */
+        public ImmutableVector getLocation() {
+            return new ImmutableVector(x, y);
+        }
+
+        @Override
+        public String toString() {
+            return "Pose{" +
+                    "x=" + x +
+                    ", y=" + y +
+                    ", heading=" + heading +
+                    ", leftVelocity=" + leftVelocity +
+                    ", rightVelocity=" + rightVelocity +
+                    ", time=" + time +
+                    '}';
+        }
+    }
+}
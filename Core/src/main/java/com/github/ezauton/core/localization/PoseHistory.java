@@ -0,0 +1,219 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.Clock;
+
+/**
+ * Remembers where the robot was, so a measurement which arrives late (e.g., a vision target from 80 ms ago) can be
+ * compared to the pose at the time it was taken.
+ * <p>
+ * Holds the last {@code capacity} poses in a ring of primitive arrays, so adding a pose does not allocate. Looking up a
+ * time is a binary search, and poses between two samples are linearly interpolated (headings the short way around,
+ * so the result can be just outside the range the samples are in). Times are in nanoseconds (see
+ * {@link Clock#getTimeNanos()}) and must not go backwards.
+ * <p>
+ * When constructed with estimators, updating it records their current pose, so it can be added to
+ * {@link ControlLoop.Phase#RECORD} (or any {@link UpdateableGroup}).
+ */
+public class PoseHistory extends TickedUpdateable {
+
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    private final Clock clock;
+    private final TranslationalLocationEstimator translationalLocationEstimator;
+    private final RotationalLocationEstimator rotationalLocationEstimator;
+
+    /**
+     * Index the next pose is written to
+     */
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Create an empty history which is only added to with {@link PoseHistory#add(long, double, double, double)}
+     *
+     * @param capacity How many poses to remember
+     */
+    public PoseHistory(int capacity) {
+        this(capacity, null, null, null);
+    }
+
+    /**
+     * Create an empty history which records the estimated pose each update
+     *
+     * @param capacity                       How many poses to remember
+     * @param clock                          Where to get the time of each pose from
+     * @param translationalLocationEstimator Where to get the location from
+     * @param rotationalLocationEstimator    Where to get the heading from
+     */
+    public PoseHistory(int capacity, Clock clock, TranslationalLocationEstimator translationalLocationEstimator, RotationalLocationEstimator rotationalLocationEstimator) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, but is " + capacity);
+        }
+        times = new long[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+        this.clock = clock;
+        this.translationalLocationEstimator = translationalLocationEstimator;
+        this.rotationalLocationEstimator = rotationalLocationEstimator;
+    }
+
+    /**
+     * Record the current pose of the estimators
+     */
+    @Override
+    protected boolean step(long tick) {
+        if (clock == null) {
+            throw new IllegalStateException("No estimators to record from; use add(...) instead");
+        }
+        ImmutableVector location = translationalLocationEstimator.estimateLocation();
+        add(clock.getTimeNanos(), location.get(0), location.get(1), rotationalLocationEstimator.estimateHeading());
+        return true;
+    }
+
+    /**
+     * Remember a pose, forgetting the oldest one if full
+     *
+     * @param timeNanos When the robot was at the pose. Not before the last pose added.
+     * @param x         x coordinate of the location
+     * @param y         y coordinate of the location
+     * @param heading   Heading in radians
+     */
+    public synchronized void add(long timeNanos, double x, double y, double heading) {
+        if (size > 0 && timeNanos < times[physical(size - 1)]) {
+            throw new IllegalArgumentException("Time went backwards: " + timeNanos + " is before " + times[physical(size - 1)]);
+        }
+        times[head] = timeNanos;
+        xs[head] = x;
+        ys[head] = y;
+        headings[head] = heading;
+        head = (head + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Find the pose at a time, without allocating
+     *
+     * @param timeNanos The time
+     * @param out       Where to write x, y and heading (in that order). Should have a length of at least 3.
+     * @return If the time is known. A time before the oldest pose is not, while a time after the newest pose gets the
+     * newest pose.
+     */
+    public synchronized boolean lookup(long timeNanos, double[] out) {
+        if (size == 0 || timeNanos < times[physical(0)]) {
+            return false;
+        }
+
+        // Binary search for the last pose at or before the time
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (times[physical(mid)] <= timeNanos) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int before = physical(low);
+        if (low == size - 1 || times[before] == timeNanos) {
+            out[0] = xs[before];
+            out[1] = ys[before];
+            out[2] = headings[before];
+            return true;
+        }
+        int after = physical(low + 1);
+        double t = (double) (timeNanos - times[before]) / (times[after] - times[before]);
+        out[0] = xs[before] + (xs[after] - xs[before]) * t;
+        out[1] = ys[before] + (ys[after] - ys[before]) * t;
+        // The short way around, so going from 6.2 to 0.1 rad does not spin the other way through pi
+        out[2] = headings[before] + wrap(headings[after] - headings[before]) * t;
+        return true;
+    }
+
+    /**
+     * @return The angle in [-pi, pi)
+     */
+    private static double wrap(double angle) {
+        return angle - 2 * Math.PI * Math.floor((angle + Math.PI) / (2 * Math.PI));
+    }
+
+    /**
+     * @param timeNanos The time
+     * @return The location at the time
+     * @throws IllegalArgumentException If the time is before the oldest pose
+     */
+    public ImmutableVector getLocation(long timeNanos) {
+        double[] pose = lookupOrThrow(timeNanos);
+        return new ImmutableVector(pose[0], pose[1]);
+    }
+
+    /**
+     * @param timeNanos The time
+     * @return The heading at the time
+     * @throws IllegalArgumentException If the time is before the oldest pose
+     */
+    public double getHeading(long timeNanos) {
+        return lookupOrThrow(timeNanos)[2];
+    }
+
+    private double[] lookupOrThrow(long timeNanos) {
+        double[] pose = new double[3];
+        if (!lookup(timeNanos, pose)) {
+            throw new IllegalArgumentException("No pose at " + timeNanos + " ns; the history starts at " + getOldestTime() + " ns");
+        }
+        return pose;
+    }
+
+    /**
+     * @return The time of the oldest pose remembered, or {@link Long#MAX_VALUE} if empty
+     */
+    public synchronized long getOldestTime() {
+        return size == 0 ? Long.MAX_VALUE : times[physical(0)];
+    }
+
+    /**
+     * @return The time of the newest pose, or {@link Long#MIN_VALUE} if empty
+     */
+    public synchronized long getNewestTime() {
+        return size == 0 ? Long.MIN_VALUE : times[physical(size - 1)];
+    }
+
+    /**
+     * @return How many poses are remembered
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return How many poses can be remembered
+     */
+    public int getCapacity() {
+        return times.length;
+    }
+
+    /**
+     * Forget all poses
+     */
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @param index 0 for the oldest pose, size - 1 for the newest
+     * @return Where the pose is in the arrays
+     */
+    private int physical(int index) {
+        int i = head - size + index;
+        return i < 0 ? i + times.length : i;
+    }
+}
@@ -6,15 +6,13 @@ import com.github.ezauton.core.utils.Clock;
 import com.github.ezauton.core.utils.MathUtils;
 import com.github.ezauton.core.utils.Stopwatch;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * Describes an Updateable object that can track the location and heading of the robot using a rotational device
  * which can record angle (i.e. gyro) and a device which can record translational distance (i.e., encoder).
  * <p>
  * This is different from EncoderRotationEstimator in that it uses Simpson's rule to acheive more accurae localization
  */
-public final class SimpsonEncoderRotationEstimator implements RotationalLocationEstimator, TranslationalLocationEstimator, Updateable
+public final class SimpsonEncoderRotationEstimator extends TickedUpdateable implements RotationalLocationEstimator, TranslationalLocationEstimator
 {
 
     private final RotationalLocationEstimator rotationalLocationEstimator;
@@ -25,8 +23,6 @@ public final class SimpsonEncoderRotationEstimator implements RotationalLocation
     private ImmutableVector positionVec;
     private boolean init = false;
 
-    private static final double epsilon = 1e-3; // One millisecond; we can't reasonably expect our clock to have a resolution below 1 ms
-
     /**
      * The velocity vector two iterations ago
      */
@@ -89,11 +85,14 @@ public final class SimpsonEncoderRotationEstimator implements RotationalLocation
 
     /**
      * Update the calculation for the current heading and position. Call this as frequently as possible to ensure optimal results
+     * <p>
+     * The rotational location estimator is updated in the same tick, so if it is also updated elsewhere (and is a
+     * {@link TickedUpdateable}), it is only stepped once.
      *
      * @return True
      */
     @Override
-    public boolean update()
+    protected boolean step(long tick)
     {
         if(!init)
         {
@@ -101,16 +100,17 @@ public final class SimpsonEncoderRotationEstimator implements RotationalLocation
         }
         if(rotationalLocationEstimator instanceof Updateable)
         {
-            ((Updateable) rotationalLocationEstimator).update();
+            ((Updateable) rotationalLocationEstimator).update(tick);
         }
         velocity = velocitySensor.getTranslationalVelocity();
         ImmutableVector velVec = MathUtils.Geometry.getVector(velocity, rotationalLocationEstimator.estimateHeading());
 
-        double currentTime = stopwatch.read(TimeUnit.MICROSECONDS) / 1e6D;
+        // Samples are only skipped if they are at exactly the same time as the last one (e.g., with a millisecond clock)
+        double currentTime = stopwatch.readNanos() / 1e9D;
 
         if(vel1ago != null && vel2ago != null)
         {
-            if(currentTime > vel1ago.getTime() + epsilon)
+            if(currentTime > vel1ago.getTime())
             {
                 dPosVec = new ImmutableVector(0, 0);
 
@@ -145,14 +145,14 @@ public final class SimpsonEncoderRotationEstimator implements RotationalLocation
         {
             if(vel1ago == null)
             {
-                if(vel2ago == null || currentTime > vel2ago.getTime() + epsilon)
+                if(vel2ago == null || currentTime > vel2ago.getTime())
                 {
 //                    System.out.println("vel2ago = " + vel2ago);
 //                    System.out.println("currentTime = " + currentTime);
                     vel1ago = new TimeIndexedVelocityVec(currentTime, velVec);
                 }
             }
-            else if(vel2ago == null)
+            else if(vel2ago == null && currentTime > vel1ago.getTime())
             {
                 vel2ago = vel1ago;
                 vel1ago = new TimeIndexedVelocityVec(currentTime, velVec);
@@ -0,0 +1,81 @@
+package com.github.ezauton.core.localization;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link Updateable} which is stepped at most once per tick. Repeated updates in the same tick return the result
+ * of the first one, so a component can be updated by everything which depends on it without being stepped twice (which
+ * would double the work and, for estimators, corrupt the deltas). The cost of a cycle is then linear in the number of
+ * components, however they are composed.
+ * <p>
+ * {@link TickedUpdateable#update()} starts a new tick, so calling it always steps.
+ */
+public abstract class TickedUpdateable implements Updateable {
+
+    private static final AtomicLong ticks = new AtomicLong();
+
+    private long lastTick = 0;
+    private boolean lastResult;
+
+    /**
+     * @return A new tick, unique across all control loops. Updating everything with the same tick updates each
+     * {@link TickedUpdateable} once.
+     */
+    public static long nextTick() {
+        return ticks.incrementAndGet();
+    }
+
+    /**
+     * @param updateable Something to update at most once per tick
+     * @return The updateable if it is already a {@link TickedUpdateable}, otherwise a wrapper. Everything which updates
+     * it should share the wrapper.
+     */
+    public static TickedUpdateable of(Updateable updateable) {
+        if (updateable instanceof TickedUpdateable) {
+            return (TickedUpdateable) updateable;
+        }
+        return new TickedUpdateable() {
+            @Override
+            protected boolean step(long tick) {
+                return updateable.update(tick);
+            }
+        };
+    }
+
+    /**
+     * Step in a new tick
+     */
+    @Override
+    public boolean update() {
+        return update(nextTick());
+    }
+
+    /**
+     * Step unless already stepped in this tick
+     *
+     * @return The result of the step in this tick
+     */
+    @Override
+    public final synchronized boolean update(long tick) {
+        if (tick == lastTick) {
+            return lastResult;
+        }
+        long previousTick = lastTick;
+        lastTick = tick; // before stepping, so a dependency cycle back to this does not step it again
+        try {
+            lastResult = step(tick);
+        } catch (RuntimeException | Error e) {
+            lastTick = previousTick;
+            throw e;
+        }
+        return lastResult;
+    }
+
+    /**
+     * Actually update. Called at most once per tick.
+     *
+     * @param tick The tick, to pass on to updateables this updates
+     * @return If could update successfully
+     */
+    protected abstract boolean step(long tick);
+}
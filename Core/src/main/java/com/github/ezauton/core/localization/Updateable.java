@@ -8,4 +8,17 @@ public interface Updateable {
      * @return If could update successfully
      */
     boolean update();
+
+    /**
+     * Update as part of a control cycle. Something updated by more than one thing (e.g., a gyro estimator which is in an
+     * {@link UpdateableGroup} and also wrapped by an
+     * {@link com.github.ezauton.core.localization.estimators.EncoderRotationEstimator}) should only be stepped once per
+     * tick, which {@link TickedUpdateable} does. Updateables which update other updateables should pass the tick on.
+     *
+     * @param tick Identifies the control cycle (see {@link TickedUpdateable#nextTick()})
+     * @return If could update successfully
+     */
+    default boolean update(long tick) {
+        return update();
+    }
 }
@@ -5,10 +5,11 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * Describes a group of multiple things that should be updated in unison
+ * Describes a group of multiple things that should be updated in unison. Everything is updated with the same tick, so
+ * a {@link TickedUpdateable} which is also updated by something else in the group is only stepped once.
  */
 //TODO: Suggestion -- Implement List<Updateable>?
-public class UpdateableGroup implements Updateable {
+public class UpdateableGroup extends TickedUpdateable {
 
     private final List<Updateable> updateables;
 
@@ -34,10 +35,10 @@ public class UpdateableGroup implements Updateable {
      */
     //TODO: Perhaps should return a parallel list of which updateables succeeded and which failed, alternatively return true if all succeeded
     @Override
-    public boolean update() {
+    protected boolean step(long tick) {
         boolean updated = false;
         for (Updateable updateable : updateables) {
-            if (updateable.update()) {
+            if (updateable.update(tick)) {
                 updated = true;
             }
         }
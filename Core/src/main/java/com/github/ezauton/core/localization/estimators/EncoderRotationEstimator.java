@@ -1,6 +1,7 @@
 package com.github.ezauton.core.localization.estimators;
 
 import com.github.ezauton.core.localization.RotationalLocationEstimator;
+import com.github.ezauton.core.localization.TickedUpdateable;
 import com.github.ezauton.core.localization.TranslationalLocationEstimator;
 import com.github.ezauton.core.localization.Updateable;
 import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
@@ -11,7 +12,7 @@ import com.github.ezauton.core.utils.MathUtils;
  * Describes an Updateable object that can track the location and heading of the robot using a rotational device
  * which can record angle (i.e. gyro) and a device which can record translational distance (i.e., encoder).
  */
-public final class EncoderRotationEstimator implements RotationalLocationEstimator, TranslationalLocationEstimator, Updateable {
+public final class EncoderRotationEstimator extends TickedUpdateable implements RotationalLocationEstimator, TranslationalLocationEstimator {
 
     private final RotationalLocationEstimator rotationalLocationEstimator;
     private final TranslationalDistanceSensor distanceSensor;
@@ -69,16 +70,19 @@ public final class EncoderRotationEstimator implements RotationalLocationEstimat
 
     /**
      * Update the calculation for the current heading and position. Call this as frequently as possible to ensure optimal results
+     * <p>
+     * The rotational location estimator is updated in the same tick, so if it is also updated elsewhere (and is a
+     * {@link TickedUpdateable}), it is only stepped once.
      *
      * @return True
      */
     @Override
-    public boolean update() {
+    protected boolean step(long tick) {
         if (!init) {
             throw new IllegalArgumentException("Must be initialized! (call reset())");
         }
         if (rotationalLocationEstimator instanceof Updateable) {
-            ((Updateable) rotationalLocationEstimator).update();
+            ((Updateable) rotationalLocationEstimator).update(tick);
         }
         velocity = distanceSensor.getVelocity();
         dPos = distanceSensor.getPosition() - lastPosition;
@@ -0,0 +1,264 @@
+package com.github.ezauton.core.localization.estimators;
+
+import com.github.ezauton.core.localization.RotationalLocationEstimator;
+import com.github.ezauton.core.localization.TankRobotVelocityEstimator;
+import com.github.ezauton.core.localization.TickedUpdateable;
+import com.github.ezauton.core.localization.TranslationalLocationEstimator;
+import com.github.ezauton.core.localization.Updateable;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.robot.TankRobotConstants;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.MathUtils;
+
+/**
+ * Estimates the pose of a tank robot by fusing its encoders and a gyro with an extended Kalman filter. The encoders
+ * predict how the robot moved, and the gyro corrects the heading (and, through the covariance, the location). When the
+ * wheels slip, the gyro wins; when the gyro drifts slowly, the encoders keep it honest.
+ * <p>
+ * The state is (x, y, heading) and its covariance is a 3x3 matrix, both kept in fields, so updating does not allocate
+ * and is cheap enough to run at several hundred Hz.
+ */
+public final class TankRobotEkfEstimator extends TickedUpdateable implements RotationalLocationEstimator, TranslationalLocationEstimator, TankRobotVelocityEstimator {
+
+    private final TranslationalDistanceSensor left;
+    private final TranslationalDistanceSensor right;
+    private final TankRobotConstants tankRobot;
+    private final RotationalLocationEstimator gyro;
+
+    private double encoderVariance = 1E-3;
+    private double slipVariance = 1E-6;
+    private double gyroVariance = 1E-4;
+
+    private double x;
+    private double y;
+    private double heading;
+
+    // Covariance, row major
+    private final double[] p = new double[9];
+    // Scratch for the prediction
+    private final double[] fp = new double[9];
+
+    private double lastPosLeft;
+    private double lastPosRight;
+    private double lastGyroHeading;
+    private double gyroHeading;
+    private boolean init = false;
+
+    /**
+     * @param left      A reference to the encoder on the left side of the robot
+     * @param right     A reference to the encoder on the right side of the robot
+     * @param tankRobot A reference to an object containing data about the structure of the drivetrain
+     * @param gyro      An object that can estimate our current heading (e.g., a gyro). Updated in the same tick if it
+     *                  is {@link Updateable}. Only changes in its heading are used, so it does not need to be reset.
+     */
+    public TankRobotEkfEstimator(TranslationalDistanceSensor left, TranslationalDistanceSensor right, TankRobotConstants tankRobot, RotationalLocationEstimator gyro) {
+        this.left = left;
+        this.right = right;
+        this.tankRobot = tankRobot;
+        this.gyro = gyro;
+    }
+
+    /**
+     * @param encoderVariance How much the encoders are trusted: the variance of a wheel's distance per unit it travelled
+     * @param slipVariance    Variance added to the location and heading every update, for things the encoders cannot
+     *                        see (e.g., being pushed)
+     * @param gyroVariance    How much the gyro is trusted: the variance of a heading reading, in radians squared
+     * @return this
+     */
+    public TankRobotEkfEstimator setNoise(double encoderVariance, double slipVariance, double gyroVariance) {
+        if (encoderVariance < 0 || slipVariance < 0 || gyroVariance <= 0) {
+            throw new IllegalArgumentException("Variances must not be negative, and the gyro variance must be positive");
+        }
+        this.encoderVariance = encoderVariance;
+        this.slipVariance = slipVariance;
+        this.gyroVariance = gyroVariance;
+        return this;
+    }
+
+    /**
+     * Reset the heading and position to 0, and the uncertainty to nothing
+     */
+    public void reset() {
+        lastPosLeft = left.getPosition();
+        lastPosRight = right.getPosition();
+        updateGyro(nextTick());
+        lastGyroHeading = gyro.estimateHeading();
+        gyroHeading = 0;
+        x = 0;
+        y = 0;
+        heading = 0;
+        for (int i = 0; i < 9; i++) {
+            p[i] = 0;
+        }
+        init = true;
+    }
+
+    @Override
+    public double estimateHeading() {
+        return heading;
+    }
+
+    @Override
+    public ImmutableVector estimateLocation() {
+        return new ImmutableVector(x, y);
+    }
+
+    /**
+     * @return The current velocity vector of the robot in 2D space.
+     */
+    @Override
+    public ImmutableVector estimateAbsoluteVelocity() {
+        return MathUtils.Geometry.getVector(getAvgTranslationalWheelVelocity(), heading);
+    }
+
+    @Override
+    public double getLeftTranslationalWheelVelocity() {
+        return left.getVelocity();
+    }
+
+    @Override
+    public double getRightTranslationalWheelVelocity() {
+        return right.getVelocity();
+    }
+
+    /**
+     * @param row 0 for x, 1 for y, 2 for heading
+     * @param col 0 for x, 1 for y, 2 for heading
+     * @return An entry of the covariance of the estimate
+     */
+    public double getCovariance(int row, int col) {
+        return p[row * 3 + col];
+    }
+
+    /**
+     * Predict with the encoders, then correct with the gyro
+     *
+     * @return True
+     */
+    @Override
+    protected boolean step(long tick) {
+        if (!init) {
+            throw new IllegalArgumentException("Must be initialized! (call reset())");
+        }
+        updateGyro(tick);
+
+        double leftPosition = left.getPosition();
+        double rightPosition = right.getPosition();
+        double dl = leftPosition - lastPosLeft;
+        double dr = rightPosition - lastPosRight;
+        lastPosLeft = leftPosition;
+        lastPosRight = rightPosition;
+
+        predict(dl, dr);
+
+        // Only use changes, unwrapped, so a gyro on [0, 2pi) or one which was not reset works too
+        double reading = gyro.estimateHeading();
+        gyroHeading += wrap(reading - lastGyroHeading);
+        lastGyroHeading = reading;
+        correct(gyroHeading);
+
+        if (!Double.isFinite(x) || !Double.isFinite(y) || !Double.isFinite(heading)) {
+            throw new IllegalStateException("Pose is (" + x + ", " + y + ", " + heading + "), which is not finite! dl = " + dl + ", dr = " + dr);
+        }
+        return true;
+    }
+
+    /**
+     * Move the state along the arc the wheels drove, and grow the covariance: P = F P F^T + G M G^T + Q
+     */
+    private void predict(double dl, double dr) {
+        double l = tankRobot.getLateralWheelDistance();
+        double d = (dl + dr) / 2;
+        double dTheta = (dr - dl) / l;
+        double mid = heading + dTheta / 2;
+        double sin = Math.sin(mid);
+        double cos = Math.cos(mid);
+
+        // heading 0 is (0, 1), CCW is positive
+        x -= d * sin;
+        y += d * cos;
+        heading += dTheta;
+
+        // F = [[1, 0, f02], [0, 1, f12], [0, 0, 1]]
+        double f02 = -d * cos;
+        double f12 = -d * sin;
+
+        // FP
+        for (int col = 0; col < 3; col++) {
+            fp[col] = p[col] + f02 * p[6 + col];
+            fp[3 + col] = p[3 + col] + f12 * p[6 + col];
+            fp[6 + col] = p[6 + col];
+        }
+        // (FP)F^T
+        for (int row = 0; row < 3; row++) {
+            int r = row * 3;
+            p[r] = fp[r] + fp[r + 2] * f02;
+            p[r + 1] = fp[r + 1] + fp[r + 2] * f12;
+            p[r + 2] = fp[r + 2];
+        }
+
+        // Noise of each wheel is proportional to how far it went. G is how the state changes with dl and dr.
+        double varLeft = encoderVariance * Math.abs(dl);
+        double varRight = encoderVariance * Math.abs(dr);
+        double g0l = -sin / 2 + d * cos / (2 * l);
+        double g0r = -sin / 2 - d * cos / (2 * l);
+        double g1l = cos / 2 + d * sin / (2 * l);
+        double g1r = cos / 2 - d * sin / (2 * l);
+        double g2l = -1 / l;
+        double g2r = 1 / l;
+
+        p[0] += g0l * g0l * varLeft + g0r * g0r * varRight + slipVariance;
+        p[4] += g1l * g1l * varLeft + g1r * g1r * varRight + slipVariance;
+        p[8] += g2l * g2l * varLeft + g2r * g2r * varRight + slipVariance;
+        double p01 = g0l * g1l * varLeft + g0r * g1r * varRight;
+        double p02 = g0l * g2l * varLeft + g0r * g2r * varRight;
+        double p12 = g1l * g2l * varLeft + g1r * g2r * varRight;
+        p[1] += p01;
+        p[3] += p01;
+        p[2] += p02;
+        p[6] += p02;
+        p[5] += p12;
+        p[7] += p12;
+    }
+
+    /**
+     * Correct with a heading measurement: H = [0, 0, 1], so K = P[:, 2] / (P[2][2] + R) and P = P - K P[2, :]
+     */
+    private void correct(double measuredHeading) {
+        double s = p[8] + gyroVariance;
+        double k0 = p[2] / s;
+        double k1 = p[5] / s;
+        double k2 = p[8] / s;
+
+        double innovation = measuredHeading - heading;
+        x += k0 * innovation;
+        y += k1 * innovation;
+        heading += k2 * innovation;
+
+        double p20 = p[6];
+        double p21 = p[7];
+        double p22 = p[8];
+        p[0] -= k0 * p20;
+        p[1] -= k0 * p21;
+        p[2] -= k0 * p22;
+        p[3] -= k1 * p20;
+        p[4] -= k1 * p21;
+        p[5] -= k1 * p22;
+        p[6] -= k2 * p20;
+        p[7] -= k2 * p21;
+        p[8] -= k2 * p22;
+    }
+
+    private void updateGyro(long tick) {
+        if (gyro instanceof Updateable) {
+            ((Updateable) gyro).update(tick);
+        }
+    }
+
+    /**
+     * @return The angle on [-pi, pi)
+     */
+    private static double wrap(double angle) {
+        return angle - 2 * Math.PI * Math.floor((angle + Math.PI) / (2 * Math.PI));
+    }
+}
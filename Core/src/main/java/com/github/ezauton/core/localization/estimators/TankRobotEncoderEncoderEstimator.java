@@ -2,8 +2,8 @@ package com.github.ezauton.core.localization.estimators;
 
 import com.github.ezauton.core.localization.RotationalLocationEstimator;
 import com.github.ezauton.core.localization.TankRobotVelocityEstimator;
+import com.github.ezauton.core.localization.TickedUpdateable;
 import com.github.ezauton.core.localization.TranslationalLocationEstimator;
-import com.github.ezauton.core.localization.Updateable;
 import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
 import com.github.ezauton.core.robot.TankRobotConstants;
 import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
@@ -12,7 +12,7 @@ import com.github.ezauton.core.utils.MathUtils;
 /**
  * Describes an object that can estimate the heading and absolute position of the robot solely using the encoders
  */
-public final class TankRobotEncoderEncoderEstimator implements RotationalLocationEstimator, TranslationalLocationEstimator, TankRobotVelocityEstimator, Updateable {
+public final class TankRobotEncoderEncoderEstimator extends TickedUpdateable implements RotationalLocationEstimator, TranslationalLocationEstimator, TankRobotVelocityEstimator {
 
     private final TankRobotConstants tankRobot;
     private final TranslationalDistanceSensor left;
@@ -64,7 +64,7 @@ public final class TankRobotEncoderEncoderEstimator implements RotationalLocatio
      * @return True
      */
     @Override
-    public boolean update() {
+    protected boolean step(long tick) {
         if (!init) {
             throw new IllegalArgumentException("Must be initialized! (call reset())");
         }
@@ -0,0 +1,144 @@
+package com.github.ezauton.core.localization.sensors;
+
+import com.github.ezauton.core.localization.ControlLoop;
+import com.github.ezauton.core.localization.TickedUpdateable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Makes sensors read their hardware at most once per control cycle. Sensors on the CAN bus (e.g.,
+ * {@code MotorControllers.fromCTRE}, {@code Gyros.fromNavx}) go through JNI and the bus on every read, while a cycle
+ * reads the same value many times from estimators, recorders, etc.
+ * <p>
+ * Wrap each sensor with {@link SensorCache#cached(TranslationalDistanceSensor)} (or one of the overloads) and read the
+ * wrapper instead. The first read of a value in a cycle reads the sensor, and the rest of the cycle is served that
+ * snapshot. A new cycle starts whenever this is updated, so add it to {@link ControlLoop.Phase#SENSE} or update it at
+ * the start of each cycle. Until then, readings do not change!
+ */
+public class SensorCache extends TickedUpdateable {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Start a new cycle
+     */
+    @Override
+    protected boolean step(long tick) {
+        invalidate();
+        return true;
+    }
+
+    /**
+     * Make the next read of every value read its sensor, e.g., after resetting an encoder mid-cycle
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return How many reads were served from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return How many reads read a sensor
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Set the hit and miss counters back to 0
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @param sensor The sensor to read at most once per cycle
+     * @return A sensor which reads position and velocity from the cache
+     */
+    public TranslationalDistanceSensor cached(TranslationalDistanceSensor sensor) {
+        CachedValue position = new CachedValue(sensor::getPosition);
+        CachedValue velocity = new CachedValue(sensor::getVelocity);
+        return new TranslationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return position.get();
+            }
+
+            @Override
+            public double getVelocity() {
+                return velocity.get();
+            }
+        };
+    }
+
+    /**
+     * @param sensor The sensor to read at most once per cycle
+     * @return A sensor which reads position and velocity from the cache
+     */
+    public RotationalDistanceSensor cached(RotationalDistanceSensor sensor) {
+        CachedValue position = new CachedValue(sensor::getPosition);
+        CachedValue velocity = new CachedValue(sensor::getVelocity);
+        return new RotationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return position.get();
+            }
+
+            @Override
+            public double getVelocity() {
+                return velocity.get();
+            }
+        };
+    }
+
+    /**
+     * @param tachometer The sensor to read at most once per cycle
+     * @return A sensor which reads velocity from the cache
+     */
+    public Tachometer cached(Tachometer tachometer) {
+        return new CachedValue(tachometer::getVelocity)::get;
+    }
+
+    /**
+     * @param compass The sensor to read at most once per cycle
+     * @return A sensor which reads the heading from the cache
+     */
+    public Compass cached(Compass compass) {
+        return new CachedValue(compass::getDegrees)::get;
+    }
+
+    /**
+     * One value of a sensor, e.g., the position of an encoder
+     */
+    private class CachedValue {
+        private final DoubleSupplier source;
+        private long sampledGeneration = -1;
+        private double value;
+
+        CachedValue(DoubleSupplier source) {
+            this.source = source;
+        }
+
+        synchronized double get() {
+            long current = generation.get(); // before reading, so an invalidation during the read is not lost
+            if (sampledGeneration == current) {
+                hits.increment();
+                return value;
+            }
+            misses.increment();
+            value = source.getAsDouble();
+            sampledGeneration = current;
+            return value;
+        }
+    }
+}
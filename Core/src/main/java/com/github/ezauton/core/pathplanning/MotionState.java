@@ -1,10 +1,5 @@
 package com.github.ezauton.core.pathplanning;
 
-import com.github.ezauton.core.utils.MathUtils;
-
-import java.util.Collections;
-import java.util.Set;
-
 /**
  * Contains the pose of the robot at a certain time and distance. This class provides useful tools
  * for extrapolating future/previous MotionStates based on distances/times.
@@ -66,20 +61,48 @@ public class MotionState {
      * @return The future Motion State given a pos
      */
     public MotionState extrapolatePos(double pos) {
-        return extrapolateTime(timeByPos(position));
+        return extrapolateTime(timeByPos(pos));
     }
 
     /**
+     * Solves position + speed * dt + 1/2 * acceleration * dt^2 = pos for the first dt >= 0, without allocating
+     *
      * @param position
-     * @return The time it will be given a position by extrapolation
+     * @return The time it will be given a position by extrapolation, or NaN if it is never reached
      */
     public double timeByPos(double position) {
-        Set<Double> solutions = MathUtils.Algebra.quadratic(1 / 2D * acceleration, speed, this.position - position);
-        solutions.removeIf(val -> val < 0);
-        if (solutions.size() == 0) {
+        double a = acceleration / 2;
+        double b = speed;
+        double c = this.position - position;
+
+        if (a == 0) { // not a quadratic
+            if (b == 0) {
+                return c == 0 ? time : Double.NaN;
+            }
+            double dt = -c / b;
+            return dt >= 0 ? dt + time : Double.NaN;
+        }
+
+        double discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) {
+            return Double.NaN;
+        }
+        // Avoid subtracting nearly equal numbers, see https://en.wikipedia.org/wiki/Loss_of_significance
+        double q = -(b + Math.copySign(Math.sqrt(discriminant), b)) / 2;
+        double root1 = q / a;
+        double root2 = q == 0 ? root1 : c / q;
+
+        double dt;
+        if (root1 >= 0 && root2 >= 0) {
+            dt = Math.min(root1, root2);
+        } else if (root1 >= 0) {
+            dt = root1;
+        } else if (root2 >= 0) {
+            dt = root2;
+        } else {
             return Double.NaN;
         }
-        return Collections.min(solutions) + time;
+        return dt + time;
     }
 
 }
@@ -17,7 +17,26 @@ public class PP_PathGenerator implements Serializable {
         this.ppWaypoints = ppWaypoints;
     }
 
+    /**
+     * Generate a path of {@link PathSegmentInterpolated}, which samples the speed profile of each segment every dt
+     *
+     * @param dt How often to sample
+     * @return The path
+     */
     public Path generate(double dt) {
+        return generate(false, dt);
+    }
+
+    /**
+     * Generate a path of {@link ProfiledPathSegment}, which calculates speeds exactly instead of sampling them
+     *
+     * @return The path
+     */
+    public Path generate() {
+        return generate(true, 0);
+    }
+
+    private Path generate(boolean profiled, double dt) {
         List<PathSegment> pathSegments = new ArrayList<>();
         double addedDistance = 0;
         for (int i = 0; i < ppWaypoints.length - 1; i++) {
@@ -25,19 +44,20 @@ public class PP_PathGenerator implements Serializable {
             PPWaypoint to = ppWaypoints[i + 1];
 
             //TODO: Update from RobotCode2018 style pathsegments
-            LinearPathSegment pathSegment;
-            if (i == 0) {
-                double beginningSpeed = from.getSpeed() == 0 ? to.getSpeed() : from.getSpeed();
+            boolean beginning = i == 0;
+            boolean finish = i == ppWaypoints.length - 2;
+            double beginningSpeed = beginning && from.getSpeed() == 0 ? to.getSpeed() : from.getSpeed();
 
-
-                pathSegment = new PathSegmentInterpolated(
-                        from.getLocation(), to.getLocation(), i == ppWaypoints.length - 2, true, addedDistance,
-                        beginningSpeed, to.getSpeed(), dt,
+            LinearPathSegment pathSegment;
+            if (profiled) {
+                pathSegment = new ProfiledPathSegment(
+                        from.getLocation(), to.getLocation(), finish, beginning, addedDistance,
+                        beginningSpeed, to.getSpeed(),
                         from.getAcceleration(), from.getDeceleration());
             } else {
                 pathSegment = new PathSegmentInterpolated(
-                        from.getLocation(), to.getLocation(), i == ppWaypoints.length - 2, false, addedDistance,
-                        from.getSpeed(), to.getSpeed(), dt,
+                        from.getLocation(), to.getLocation(), finish, beginning, addedDistance,
+                        beginningSpeed, to.getSpeed(), dt,
                         from.getAcceleration(), from.getDeceleration());
             }
             addedDistance += pathSegment.getLength();
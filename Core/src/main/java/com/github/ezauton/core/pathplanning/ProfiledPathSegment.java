@@ -0,0 +1,130 @@
+package com.github.ezauton.core.pathplanning;
+
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.MathUtils;
+
+/**
+ * A linear path segment with a trapezoidal speed profile. It has the same profile as
+ * {@link PathSegmentInterpolated}: when speeding up, it accelerates from the start until it reaches the end speed and
+ * then cruises; when slowing down, it cruises and then decelerates to reach the end speed right at the end.
+ * <p>
+ * Instead of stepping through time and interpolating a table, speed and time for a distance are calculated directly
+ * from v^2 = v0^2 + 2ad, so they are exact, take O(1) and the segment takes no memory for its profile.
+ */
+public class ProfiledPathSegment extends LinearPathSegment {
+
+    private double speedStart;
+    private double speedStop;
+    private double maxAccel;
+    private double maxDecel;
+
+    /**
+     * Where the ramp between speedStart and speedStop starts and ends, relative to the start of the segment
+     */
+    private double rampStart;
+    private double rampEnd;
+
+    /**
+     * @param from          Starting location of the path segment
+     * @param to            Ending location of the path segment
+     * @param finish        If this is the last path segment
+     * @param beginning     If this is the first path segment
+     * @param distanceStart Distance along the path from the beginning to <code>from</code>
+     * @param speedStart    Target speed to go at the start of the path
+     * @param speedStop     Target speed to go at the end of the path
+     * @param maxAccel      Acceleration to speed up with
+     * @param maxDecel      Deceleration to slow down with (the sign is ignored)
+     * @throws IllegalStateException If the segment is too short to reach speedStop
+     */
+    public ProfiledPathSegment(ImmutableVector from, ImmutableVector to, boolean finish, boolean beginning, double distanceStart, double speedStart, double speedStop, double maxAccel, double maxDecel) {
+        super(from, to, finish, beginning, distanceStart);
+        this.speedStart = speedStart;
+        this.speedStop = speedStop;
+        this.maxAccel = Math.abs(maxAccel);
+        this.maxDecel = Math.abs(maxDecel);
+
+        double length = getLength();
+        if (speedStart < speedStop) {
+            rampStart = 0;
+            rampEnd = (speedStop * speedStop - speedStart * speedStart) / (2 * this.maxAccel);
+            if (rampEnd > length + MathUtils.EPSILON) {
+                double velLeft = speedStop - Math.sqrt(speedStart * speedStart + 2 * this.maxAccel * length);
+                String msg = String.format("Acceleration value too low to execute trajectory from %s To: %s. At max accelerate still needed to accelerate: %.2f", getFrom(), getTo(), velLeft);
+                throw new IllegalStateException(msg);
+            }
+            rampEnd = Math.min(rampEnd, length); // round off
+        } else if (speedStart > speedStop) {
+            rampEnd = length;
+            rampStart = length - (speedStart * speedStart - speedStop * speedStop) / (2 * this.maxDecel);
+            if (rampStart < -MathUtils.EPSILON) {
+                double velLeft = speedStart - Math.sqrt(speedStop * speedStop + 2 * this.maxDecel * length);
+                String msg = String.format("Deceleration (magnitude) value too low to execute trajectory from %s to %s. At max deceleration still needed to decelerate: %.2f", getFrom(), getTo(), velLeft);
+                throw new IllegalStateException(msg);
+            }
+            rampStart = Math.max(rampStart, 0); // round off
+        } else {
+            rampStart = 0;
+            rampEnd = 0;
+        }
+    }
+
+    private ProfiledPathSegment() {
+    }
+
+    /**
+     * @param absoluteDistance Distance along the path. Clamped to the segment.
+     * @return The target speed at the distance
+     */
+    @Override
+    public double getSpeed(double absoluteDistance) {
+        double relativeDistance = clamp(getRelativeDistance(absoluteDistance));
+        if (relativeDistance <= rampStart) {
+            return speedStart;
+        }
+        if (relativeDistance >= rampEnd) {
+            return speedStop;
+        }
+        if (speedStart < speedStop) {
+            return Math.sqrt(speedStart * speedStart + 2 * maxAccel * relativeDistance);
+        }
+        return Math.sqrt(speedStop * speedStop + 2 * maxDecel * (getLength() - relativeDistance));
+    }
+
+    /**
+     * @param absoluteDistance Distance along the path. Clamped to the segment.
+     * @return How long it takes to get from the start of the segment to the distance when following the profile.
+     * Infinite if the robot has to get there at a speed of 0.
+     */
+    public double getTime(double absoluteDistance) {
+        double relativeDistance = clamp(getRelativeDistance(absoluteDistance));
+
+        // Cruise before the ramp
+        double beforeRamp = Math.min(relativeDistance, rampStart);
+        double time = beforeRamp > 0 ? beforeRamp / speedStart : 0;
+
+        // Ramp, where the speed changes linearly with time
+        if (relativeDistance > rampStart && rampEnd > rampStart) {
+            double rampSpeed = getSpeed(getAbsoluteDistanceStart() + Math.min(relativeDistance, rampEnd));
+            double accel = speedStart < speedStop ? maxAccel : maxDecel;
+            time += Math.abs(rampSpeed - speedStart) / accel;
+        }
+
+        // Cruise after the ramp
+        double afterRamp = relativeDistance - Math.max(rampEnd, rampStart);
+        if (afterRamp > 0) {
+            time += afterRamp / speedStop;
+        }
+        return time;
+    }
+
+    /**
+     * @return How long it takes to drive the whole segment
+     */
+    public double getDuration() {
+        return getTime(getAbsoluteDistanceEnd());
+    }
+
+    private double clamp(double relativeDistance) {
+        return Math.max(0, Math.min(getLength(), relativeDistance));
+    }
+}
@@ -7,10 +7,25 @@ import com.github.ezauton.core.utils.InterpolationMap;
 import com.github.ezauton.core.utils.MathUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class QuinticSpline implements MathUtils.Geometry.ParametricFunction {
     private static final double FEET_PER_SUBDIVISION = 1 / 3D;
+
+    /**
+     * Nodes and weights of 5 point Gauss–Legendre quadrature on [-1, 1], which is exact for polynomials up to degree 9
+     */
+    private static final double[] GAUSS_NODES = {-0.9061798459386640, -0.5384693101056831, 0, 0.5384693101056831, 0.9061798459386640};
+    private static final double[] GAUSS_WEIGHTS = {0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891};
+
+    /**
+     * The arc length table starts with this many intervals of t, and splits them until halves add up to the whole
+     */
+    private static final int ARC_LENGTH_INTERVALS = 4;
+    private static final double ARC_LENGTH_TOLERANCE = 1E-10;
+    private static final int ARC_LENGTH_MAX_DEPTH = 16;
+    private static final int NEWTON_ITERATIONS = 8;
     private final ImmutableVector first;
     private final ImmutableVector last;
 
@@ -47,6 +62,11 @@ public class QuinticSpline implements MathUtils.Geometry.ParametricFunction {
      */
     private final ImmutableVector f;
 
+    /**
+     * Arc length from t = 0 to each of tableTs
+     */
+    private final double[] tableTs;
+    private final double[] tableLengths;
 
     public QuinticSpline(ImmutableVector first, ImmutableVector last, ImmutableVector firstSlope, ImmutableVector lastSlope) {
         this.first = first;
@@ -85,6 +105,21 @@ public class QuinticSpline implements MathUtils.Geometry.ParametricFunction {
         // p_0
         f = first;
 
+        List<Double> ts = new ArrayList<>();
+        List<Double> lengths = new ArrayList<>();
+        ts.add(0D);
+        lengths.add(0D);
+        for (int i = 0; i < ARC_LENGTH_INTERVALS; i++) {
+            double lower = (double) i / ARC_LENGTH_INTERVALS;
+            double upper = (double) (i + 1) / ARC_LENGTH_INTERVALS;
+            addArcLengths(lower, upper, gaussLegendre(lower, upper), 0, ts, lengths);
+        }
+        tableTs = new double[ts.size()];
+        tableLengths = new double[ts.size()];
+        for (int i = 0; i < tableTs.length; i++) {
+            tableTs[i] = ts.get(i);
+            tableLengths[i] = lengths.get(i);
+        }
     }
 
     public QuinticSpline(ImmutableVector first, ImmutableVector last, double firstTheta, double lastTheta) {
@@ -173,11 +208,118 @@ public class QuinticSpline implements MathUtils.Geometry.ParametricFunction {
     }
 
     public double getDistanceLeft(ImmutableVector point) {
-        return (getArcLength(0, 1) - getArcLength(0, getT(point, 0, 1)));
+        return getLength() - getArcLength(getT(point, 0, 1));
     }
 
     public double getLength() {
-        return getArcLength(0, 1);
+        return tableLengths[tableLengths.length - 1];
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return The arc length from t = 0 to t
+     */
+    public double getArcLength(double t) {
+        t = Math.max(0, Math.min(1, t));
+        int i = tableIndex(tableTs, t);
+        return tableLengths[i] + gaussLegendre(tableTs[i], t);
+    }
+
+    /**
+     * Calculated from the arc length table instead of by adding up small steps.
+     *
+     * @param delta Ignored
+     */
+    @Override
+    public double getArcLength(double lowerBound, double upperBound, double delta) {
+        return getArcLength(upperBound) - getArcLength(lowerBound);
+    }
+
+    /**
+     * @param arcLength Arc length from t = 0. Clamped to the spline.
+     * @return The t at which the arc length from t = 0 is arcLength
+     */
+    public double getTFromArcLength(double arcLength) {
+        if (arcLength <= 0) {
+            return 0;
+        }
+        if (arcLength >= getLength()) {
+            return 1;
+        }
+        int i = tableIndex(tableLengths, arcLength);
+        double lower = tableTs[i];
+        double upper = tableTs[i + 1];
+
+        // Start from linear interpolation in the table, then Newton's method, as d(arc length)/dt is the speed
+        double t = lower + (upper - lower) * (arcLength - tableLengths[i]) / (tableLengths[i + 1] - tableLengths[i]);
+        for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+            double error = tableLengths[i] + gaussLegendre(lower, t) - arcLength;
+            double speed = getSpeed(t);
+            if (Math.abs(error) < ARC_LENGTH_TOLERANCE || speed == 0) {
+                break;
+            }
+            t = Math.max(lower, Math.min(upper, t - error / speed));
+        }
+        return t;
+    }
+
+    /**
+     * Calculated from the arc length table instead of by walking along the spline. The result is clamped to the end of
+     * the spline.
+     *
+     * @param delta Ignored
+     */
+    @Override
+    public ImmutableVector fromArcLength(double lowerBound, double arcLength, double delta) {
+        return get(getTFromArcLength(getArcLength(lowerBound) + arcLength));
+    }
+
+    /**
+     * Find the closest point on the spline to a point with Newton's method, starting from the closest point in the arc
+     * length table.
+     *
+     * @param point      The point, which does not need to be on the spline
+     * @param lowerBound The lowest t to look at
+     * @param upperBound The highest t to look at
+     * @return The t of the closest point
+     */
+    @Override
+    public double getT(ImmutableVector point, double lowerBound, double upperBound) {
+        double px = point.get(0);
+        double py = point.get(1);
+
+        double t = lowerBound;
+        double closest = MathUtils.pow2(getX(t) - px) + MathUtils.pow2(getY(t) - py);
+        for (int i = 0; i <= tableTs.length; i++) {
+            double tableT = i < tableTs.length ? tableTs[i] : upperBound;
+            if (tableT <= lowerBound || tableT > upperBound) {
+                continue;
+            }
+            double dist2 = MathUtils.pow2(getX(tableT) - px) + MathUtils.pow2(getY(tableT) - py);
+            if (dist2 < closest) {
+                closest = dist2;
+                t = tableT;
+            }
+        }
+
+        // Find where d/dt (distance^2) / 2 = (p(t) - point) . p'(t) is 0
+        for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+            double dx = getX(t) - px;
+            double dy = getY(t) - py;
+            double xPrime = getDX(t);
+            double yPrime = getDY(t);
+            double derivative = dx * xPrime + dy * yPrime;
+            double secondDerivative = xPrime * xPrime + yPrime * yPrime + dx * getDDX(t) + dy * getDDY(t);
+            if (secondDerivative <= 0) {
+                break;
+            }
+            double step = derivative / secondDerivative;
+            t = Math.max(lowerBound, Math.min(upperBound, t - step));
+            if (Math.abs(step) < 1E-12) {
+                break;
+            }
+        }
+        return t;
     }
 
     public String toString() {
@@ -205,6 +347,100 @@ public class QuinticSpline implements MathUtils.Geometry.ParametricFunction {
         return MathUtils.pow5(t) * a.get(1) + MathUtils.pow4(t) * b.get(1) + MathUtils.pow3(t) * c.get(1) + MathUtils.pow2(t) * d.get(1) + t * e.get(1) + f.get(1);
     }
 
+    /**
+     * @param t:[0,1]
+     * @return dx/dt
+     */
+    public double getDX(double t) {
+        return 5 * MathUtils.pow4(t) * a.get(0) + 4 * MathUtils.pow3(t) * b.get(0) + 3 * MathUtils.pow2(t) * c.get(0) + 2 * t * d.get(0) + e.get(0);
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return dy/dt
+     */
+    public double getDY(double t) {
+        return 5 * MathUtils.pow4(t) * a.get(1) + 4 * MathUtils.pow3(t) * b.get(1) + 3 * MathUtils.pow2(t) * c.get(1) + 2 * t * d.get(1) + e.get(1);
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return d^2x/dt^2
+     */
+    public double getDDX(double t) {
+        return 20 * MathUtils.pow3(t) * a.get(0) + 12 * MathUtils.pow2(t) * b.get(0) + 6 * t * c.get(0) + 2 * d.get(0);
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return d^2y/dt^2
+     */
+    public double getDDY(double t) {
+        return 20 * MathUtils.pow3(t) * a.get(1) + 12 * MathUtils.pow2(t) * b.get(1) + 6 * t * c.get(1) + 2 * d.get(1);
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return |dp/dt|
+     */
+    public double getSpeed(double t) {
+        return Math.hypot(getDX(t), getDY(t));
+    }
+
+    /**
+     * @param t:[0,1]
+     * @return Signed curvature (1 / radius of the turn) at t, positive when turning counterclockwise
+     */
+    public double getCurvature(double t) {
+        double dx = getDX(t);
+        double dy = getDY(t);
+        double speed = Math.hypot(dx, dy);
+        return (dx * getDDY(t) - dy * getDDX(t)) / (speed * speed * speed);
+    }
+
+    /**
+     * @return The arc length from lower to upper
+     */
+    private double gaussLegendre(double lower, double upper) {
+        double halfWidth = (upper - lower) / 2;
+        double middle = (upper + lower) / 2;
+        double sum = 0;
+        for (int i = 0; i < GAUSS_NODES.length; i++) {
+            sum += GAUSS_WEIGHTS[i] * getSpeed(middle + halfWidth * GAUSS_NODES[i]);
+        }
+        return sum * halfWidth;
+    }
+
+    /**
+     * Add upper (and a point in the middle) to the arc length table, splitting the interval if it is not accurate enough
+     */
+    private void addArcLengths(double lower, double upper, double whole, int depth, List<Double> ts, List<Double> lengths) {
+        double middle = (lower + upper) / 2;
+        double left = gaussLegendre(lower, middle);
+        double right = gaussLegendre(middle, upper);
+        if (Math.abs(left + right - whole) > ARC_LENGTH_TOLERANCE && depth < ARC_LENGTH_MAX_DEPTH) {
+            addArcLengths(lower, middle, left, depth + 1, ts, lengths);
+            addArcLengths(middle, upper, right, depth + 1, ts, lengths);
+            return;
+        }
+        double start = lengths.get(lengths.size() - 1);
+        ts.add(middle);
+        lengths.add(start + left);
+        ts.add(upper);
+        lengths.add(start + left + right);
+    }
+
+    /**
+     * @return The index of the last value at or before the value, but not the last index
+     */
+    private static int tableIndex(double[] table, double value) {
+        int i = Arrays.binarySearch(table, value);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return Math.max(0, Math.min(table.length - 2, i));
+    }
+
     public ImmutableVector getLastSlope() {
         return lastSlope;
     }
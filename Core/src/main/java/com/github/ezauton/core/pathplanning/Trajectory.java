@@ -0,0 +1,208 @@
+package com.github.ezauton.core.pathplanning;
+
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A path sampled along its length, with when and how fast the robot should be at each sample. Made by
+ * {@link TrajectoryGenerator}.
+ * <p>
+ * Between two samples the robot moves in a straight line with constant acceleration.
+ */
+public class Trajectory implements Serializable {
+
+    private final double[] distances;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] curvatures;
+    private final double[] velocities;
+    private final double[] times;
+
+    /**
+     * Acceleration from each sample to the next. The last is 0.
+     */
+    private final double[] accelerations;
+
+    Trajectory(double[] distances, double[] xs, double[] ys, double[] headings, double[] curvatures, double[] velocities) {
+        this.distances = distances;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.curvatures = curvatures;
+        this.velocities = velocities;
+
+        int size = distances.length;
+        times = new double[size];
+        accelerations = new double[size];
+        for (int i = 1; i < size; i++) {
+            double ds = distances[i] - distances[i - 1];
+            double speedSum = velocities[i - 1] + velocities[i];
+            times[i] = times[i - 1] + (ds == 0 ? 0 : 2 * ds / speedSum);
+            accelerations[i - 1] = ds == 0 ? 0 : (velocities[i] * velocities[i] - velocities[i - 1] * velocities[i - 1]) / (2 * ds);
+        }
+    }
+
+    /**
+     * @return The number of samples
+     */
+    public int size() {
+        return distances.length;
+    }
+
+    /**
+     * @return How long it takes to drive the trajectory
+     */
+    public double getDuration() {
+        return times[times.length - 1];
+    }
+
+    /**
+     * @return The length of the trajectory
+     */
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    public double getTime(int i) {
+        return times[i];
+    }
+
+    public double getDistance(int i) {
+        return distances[i];
+    }
+
+    public double getVelocity(int i) {
+        return velocities[i];
+    }
+
+    /**
+     * @return The acceleration from sample i to the next one
+     */
+    public double getAcceleration(int i) {
+        return accelerations[i];
+    }
+
+    /**
+     * @return The signed curvature at sample i, positive when turning counterclockwise
+     */
+    public double getCurvature(int i) {
+        return curvatures[i];
+    }
+
+    /**
+     * @return The direction of travel at sample i, in radians counterclockwise from the y axis (so 0 is +y)
+     */
+    public double getHeading(int i) {
+        return headings[i];
+    }
+
+    public ImmutableVector getLocation(int i) {
+        return new ImmutableVector(xs[i], ys[i]);
+    }
+
+    /**
+     * @param time Time since the start of the trajectory. Clamped to the trajectory.
+     * @return How far along the trajectory the robot should be
+     */
+    public double getDistanceAtTime(double time) {
+        time = clampTime(time);
+        int i = indexAtTime(time);
+        double dt = time - times[i];
+        return distances[i] + velocities[i] * dt + accelerations[i] * dt * dt / 2;
+    }
+
+    /**
+     * @param time Time since the start of the trajectory. Clamped to the trajectory.
+     * @return How fast the robot should be going
+     */
+    public double getVelocityAtTime(double time) {
+        time = clampTime(time);
+        int i = indexAtTime(time);
+        return velocities[i] + accelerations[i] * (time - times[i]);
+    }
+
+    /**
+     * @param time Time since the start of the trajectory. Clamped to the trajectory.
+     * @return Where the robot should be
+     */
+    public ImmutableVector getLocationAtTime(double time) {
+        time = clampTime(time);
+        int i = indexAtTime(time);
+        if (i == size() - 1) {
+            return getLocation(i);
+        }
+        double ds = distances[i + 1] - distances[i];
+        double fraction = ds == 0 ? 0 : (getDistanceAtTime(time) - distances[i]) / ds;
+        return new ImmutableVector(xs[i] + (xs[i + 1] - xs[i]) * fraction, ys[i] + (ys[i + 1] - ys[i]) * fraction);
+    }
+
+    /**
+     * @param distance Distance along the trajectory. Clamped to the trajectory.
+     * @return How fast the robot should be going
+     */
+    public double getVelocityAtDistance(double distance) {
+        int i = Arrays.binarySearch(distances, distance);
+        if (i >= 0) {
+            return velocities[i];
+        }
+        i = -i - 2; // the sample before
+        if (i < 0) {
+            return velocities[0];
+        }
+        if (i >= size() - 1) {
+            return velocities[size() - 1];
+        }
+        // v^2 = v0^2 + 2ad
+        return Math.sqrt(Math.max(0, velocities[i] * velocities[i] + 2 * accelerations[i] * (distance - distances[i])));
+    }
+
+    /**
+     * Create a path for Pure Pursuit that goes through the samples at their speeds. Like
+     * {@link PP_PathGenerator#generate()}, if the trajectory starts at rest, the first segment starts at the speed of the
+     * second sample so the robot gets going.
+     *
+     * @return A path of {@link ProfiledPathSegment}s, one between each pair of samples
+     */
+    public Path toPath() {
+        List<PathSegment> pathSegments = new ArrayList<>(size() - 1);
+        double addedDistance = 0;
+        for (int i = 0; i < size() - 1; i++) {
+            double ds = distances[i + 1] - distances[i];
+            if (ds == 0) {
+                continue;
+            }
+            boolean beginning = pathSegments.isEmpty();
+            boolean finish = i == size() - 2;
+            double speedStart = beginning && velocities[i] == 0 ? velocities[i + 1] : velocities[i];
+            double speedStop = velocities[i + 1];
+
+            // The samples are exactly reachable, so the needed acceleration is also what the segment is allowed
+            double accel = Math.abs(speedStop * speedStop - speedStart * speedStart) / (2 * ds);
+            ProfiledPathSegment pathSegment = new ProfiledPathSegment(getLocation(i), getLocation(i + 1), finish, beginning, addedDistance,
+                    speedStart, speedStop, accel, -accel);
+            addedDistance += pathSegment.getLength();
+            pathSegments.add(pathSegment);
+        }
+        return Path.fromSegments(pathSegments);
+    }
+
+    private double clampTime(double time) {
+        return Math.max(0, Math.min(getDuration(), time));
+    }
+
+    /**
+     * @return The last sample at or before the time
+     */
+    private int indexAtTime(double time) {
+        int i = Arrays.binarySearch(times, time);
+        if (i < 0) {
+            i = -i - 2; // the sample before
+        }
+        return Math.max(0, Math.min(size() - 1, i));
+    }
+}
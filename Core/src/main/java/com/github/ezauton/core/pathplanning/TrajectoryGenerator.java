@@ -0,0 +1,131 @@
+package com.github.ezauton.core.pathplanning;
+
+import java.util.List;
+
+/**
+ * Generates the fastest {@link Trajectory} along {@link QuinticSpline}s that stays within global limits for speed,
+ * acceleration and centripetal acceleration. Unlike {@link PP_PathGenerator}, speeds are not given per waypoint; the
+ * robot slows down ahead of tight curves on its own.
+ * <p>
+ * The splines are sampled about every {@link #setSpacing(double) spacing} ft. Each sample is limited to the max
+ * speed, and to sqrt(max centripetal acceleration / curvature) in curves. A forward pass then limits each sample to
+ * what the robot can accelerate to from the one before, and a backward pass to what it can slow down from in time for
+ * the one after. Generation takes time linear in the length of the path.
+ */
+public class TrajectoryGenerator {
+
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double maxDeceleration;
+    private final double maxCentripetalAcceleration;
+    private double spacing = 1 / 12D;
+
+    /**
+     * @param maxVelocity                Max speed of the robot
+     * @param maxAcceleration            Max acceleration of the robot
+     * @param maxDeceleration            Max deceleration of the robot (the sign is ignored)
+     * @param maxCentripetalAcceleration Max acceleration towards the center of turns, i.e. v^2 * curvature
+     */
+    public TrajectoryGenerator(double maxVelocity, double maxAcceleration, double maxDeceleration, double maxCentripetalAcceleration) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0 || maxDeceleration == 0 || maxCentripetalAcceleration <= 0) {
+            throw new IllegalArgumentException("Limits must be non-zero (and positive, except for deceleration)");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxDeceleration = Math.abs(maxDeceleration);
+        this.maxCentripetalAcceleration = maxCentripetalAcceleration;
+    }
+
+    /**
+     * @param spacing About how far apart samples should be. The default is an inch.
+     * @return this
+     */
+    public TrajectoryGenerator setSpacing(double spacing) {
+        if (spacing <= 0) {
+            throw new IllegalArgumentException("Spacing must be positive");
+        }
+        this.spacing = spacing;
+        return this;
+    }
+
+    /**
+     * Generate a trajectory that starts and ends at rest
+     *
+     * @param splines The splines to drive along, each starting where the one before ends
+     * @return The trajectory
+     */
+    public Trajectory generate(List<QuinticSpline> splines) {
+        return generate(splines, 0, 0);
+    }
+
+    /**
+     * @param splines       The splines to drive along, each starting where the one before ends
+     * @param startVelocity How fast the robot is going at the start
+     * @param endVelocity   How fast the robot should be going at the end. It may not be reachable, in which case the
+     *                      robot ends as close to it as it can.
+     * @return The trajectory
+     */
+    public Trajectory generate(List<QuinticSpline> splines, double startVelocity, double endVelocity) {
+        if (splines.isEmpty()) {
+            throw new IllegalArgumentException("Trajectory must have at least one spline");
+        }
+
+        int[] sampleCounts = new int[splines.size()];
+        int size = 1;
+        for (int s = 0; s < splines.size(); s++) {
+            sampleCounts[s] = Math.max(1, (int) Math.ceil(splines.get(s).getLength() / spacing));
+            size += sampleCounts[s];
+        }
+
+        double[] distances = new double[size];
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] headings = new double[size];
+        double[] curvatures = new double[size];
+        double[] velocities = new double[size];
+
+        // Sample, with each sample limited by the max speed and by curvature
+        int i = 0;
+        for (int s = 0; s < splines.size(); s++) {
+            QuinticSpline spline = splines.get(s);
+            double sampleLength = spline.getLength() / sampleCounts[s];
+            // The first sample of a spline is the last of the one before
+            for (int k = s == 0 ? 0 : 1; k <= sampleCounts[s]; k++) {
+                // Evenly spaced along the spline, not in t, which bunches up where the spline is slow
+                double t = k == sampleCounts[s] ? 1 : spline.getTFromArcLength(k * sampleLength);
+                xs[i] = spline.getX(t);
+                ys[i] = spline.getY(t);
+                // 0 is +y, like the rest of ezAuton
+                headings[i] = Math.atan2(-spline.getDX(t), spline.getDY(t));
+                curvatures[i] = spline.getCurvature(t);
+                if (i > 0) {
+                    distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+                }
+
+                double curvature = Math.abs(curvatures[i]);
+                velocities[i] = curvature > 0 ? Math.min(maxVelocity, Math.sqrt(maxCentripetalAcceleration / curvature)) : maxVelocity;
+                i++;
+            }
+        }
+
+        // Forward pass: v^2 = v0^2 + 2ad
+        velocities[0] = Math.min(velocities[0], startVelocity);
+        for (i = 1; i < size; i++) {
+            double ds = distances[i] - distances[i - 1];
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i - 1] * velocities[i - 1] + 2 * maxAcceleration * ds));
+        }
+
+        // Backward pass
+        velocities[size - 1] = Math.min(velocities[size - 1], endVelocity);
+        for (i = size - 2; i >= 0; i--) {
+            double ds = distances[i + 1] - distances[i];
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i + 1] * velocities[i + 1] + 2 * maxDeceleration * ds));
+        }
+
+        if (velocities[0] < startVelocity) {
+            throw new IllegalArgumentException(String.format("Cannot start at %.2f; at most %.2f", startVelocity, velocities[0]));
+        }
+
+        return new Trajectory(distances, xs, ys, headings, curvatures, velocities);
+    }
+}
@@ -2,15 +2,29 @@ package com.github.ezauton.core.simulation;
 
 import com.github.ezauton.core.action.Action;
 
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An interface which is used to schedule an action in a certain way. Nice for simulations.
  */
 public interface ActionScheduler {
     /**
-     * @param action
-     * @return the action
+     * @param action The action to run
+     * @return A future which is completed when the action is finished. Cancelling it stops the action. Being a
+     * {@link CompletableFuture}, callbacks can be attached instead of blocking on it (see
+     * {@link com.github.ezauton.core.action.ActionGroup#runAsync(com.github.ezauton.core.action.ActionRunInfo)}).
      */
-    Future<Void> scheduleAction(Action action);
+    CompletableFuture<Void> scheduleAction(Action action);
+
+    /**
+     * Schedule an action in a certain lane. Schedulers which do not have lanes run it like
+     * {@link ActionScheduler#scheduleAction(Action)}.
+     *
+     * @param action          The action to run
+     * @param schedulingClass How urgently the action should be run
+     * @return A future which is completed when the action is finished. Cancelling it stops the action.
+     */
+    default CompletableFuture<Void> scheduleAction(Action action, SchedulingClass schedulingClass) {
+        return scheduleAction(action);
+    }
 }
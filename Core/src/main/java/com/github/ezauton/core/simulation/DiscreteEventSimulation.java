@@ -0,0 +1,318 @@
+package com.github.ezauton.core.simulation;
+
+import com.github.ezauton.core.action.Action;
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.DelayedAction;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.utils.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A simulator which runs everything on one thread from a queue of events ordered by virtual time. Unlike
+ * {@link ModernSimulatedClock}, there is no thread per action and no handoff between threads, so simulations run as
+ * fast as the actions themselves can execute.
+ * <p>
+ * Events at the same time are run in the order they were scheduled (FIFO). {@link PeriodicAction}s, {@link DelayedAction}s
+ * and {@link ActionGroup}s are driven by events. Any other action is run to completion as soon as it is scheduled, and
+ * so must not block (calling {@link DiscreteEventSimulation#sleep(long, TimeUnit)} throws an {@link IllegalStateException}).
+ * <p>
+ * This class is not thread safe. Everything must be scheduled from the thread that calls
+ * {@link DiscreteEventSimulation#runSimulation(long, TimeUnit)} (or before the simulation is started).
+ */
+public final class DiscreteEventSimulation implements Clock, ActionScheduler {
+
+    /**
+     * How many events to process between checks of the real-time timeout
+     */
+    private static final int TIMEOUT_CHECK_INTERVAL = 1024;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final List<Action> actions = new ArrayList<>();
+    private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    private final ActionRunInfo actionRunInfo = new ActionRunInfo(this, this);
+
+    private long currentTime = 0;
+    private long sequence = 0;
+    private Thread eventThread;
+
+    @Override
+    public long getTime() {
+        return currentTime;
+    }
+
+    /**
+     * Schedule a runnable. Runnables scheduled for the same time are run in the order they were scheduled. A time
+     * before the current time is treated as the current time.
+     *
+     * @param millis   The timestamp at which the runnable should be run
+     * @param runnable The thing to run
+     */
+    @Override
+    public void scheduleAt(long millis, Runnable runnable) {
+        events.add(new Event(Math.max(millis, currentTime), sequence++, runnable));
+    }
+
+    /**
+     * Not supported, as blocking would block the whole simulation. Use a {@link PeriodicAction} or
+     * {@link Clock#scheduleAt(long, Runnable)} instead.
+     *
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void sleep(long dt, TimeUnit timeUnit) {
+        throw new IllegalStateException("A DiscreteEventSimulation runs on a single thread and cannot sleep. Use a PeriodicAction or scheduleAt instead");
+    }
+
+    public Clock getClock() {
+        return this;
+    }
+
+    /**
+     * Add an action to be started when the simulation is run
+     *
+     * @param action The action to run
+     * @return this
+     */
+    public DiscreteEventSimulation add(Action action) {
+        actions.add(action);
+        return this;
+    }
+
+    /**
+     * Schedule an action. If called from inside the simulation, the action is started immediately. Otherwise, it is
+     * started at the current time once the simulation runs.
+     *
+     * @param action The action to run
+     * @return A future which is completed when the action is finished. Cancelling it stops the action.
+     */
+    @Override
+    public CompletableFuture<Void> scheduleAction(Action action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (Thread.currentThread() == eventThread) {
+            start(action, future);
+        } else {
+            scheduleNow(() -> start(action, future));
+        }
+        return future;
+    }
+
+    /**
+     * Run all added actions and scheduled runnables until there is nothing left to run
+     *
+     * @param timeout  The amount of <b>real</b> time that you want your simulation to cap out at.
+     * @param timeUnit The timeunit that the timeout is in
+     * @throws TimeoutException   If the simulation did not finish in time
+     * @throws ExecutionException If an added action threw an exception
+     */
+    public void runSimulation(long timeout, TimeUnit timeUnit) throws TimeoutException, ExecutionException {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+
+        for (Action action : actions) {
+            futures.add(scheduleAction(action));
+        }
+        actions.clear();
+
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        eventThread = Thread.currentThread();
+        try {
+            int processed = 0;
+            while (!events.isEmpty()) {
+                Event event = events.poll();
+                currentTime = event.time;
+                event.runnable.run();
+
+                if (++processed % TIMEOUT_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    throw new TimeoutException("Simulation ran out of time.");
+                }
+            }
+        } finally {
+            eventThread = null;
+        }
+
+        for (CompletableFuture<Void> future : futures) {
+            Throwable cause = getFailure(future);
+            if (cause != null) {
+                throw new ExecutionException("An action threw an exception", cause);
+            }
+        }
+        futures.clear();
+    }
+
+    private void start(Action action, CompletableFuture<Void> future) {
+        if (future.isDone()) { // cancelled before it started
+            return;
+        }
+        if (action instanceof PeriodicAction) {
+            new PeriodicTask((PeriodicAction) action, future).start();
+        } else if (action instanceof DelayedAction) {
+            startDelayed((DelayedAction) action, future);
+        } else if (action instanceof ActionGroup) {
+            CompletableFuture<Void> groupFuture = ((ActionGroup) action).runAsync(actionRunInfo);
+            future.whenComplete((v, t) -> {
+                if (future.isCancelled()) {
+                    groupFuture.cancel(true);
+                }
+            });
+            groupFuture.whenComplete((v, t) -> {
+                Throwable cause = getFailure(groupFuture);
+                if (cause != null) {
+                    future.completeExceptionally(cause);
+                } else {
+                    future.complete(null);
+                }
+            });
+        } else {
+            try {
+                action.run(actionRunInfo);
+                finish(action, future);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void startDelayed(DelayedAction action, CompletableFuture<Void> future) {
+        // Like the threaded implementation, an interrupted (cancelled) delayed action still ends
+        future.whenComplete((v, t) -> {
+            if (future.isCancelled()) {
+                endQuietly(action);
+            }
+        });
+        scheduleIn(action.getDelay(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS, () -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                action.timeUp();
+                finish(action, future);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Run what {@link com.github.ezauton.core.action.tangible.ActionCallable} runs after an action is done and complete
+     * the future
+     */
+    private void finish(Action action, CompletableFuture<Void> future) throws Exception {
+        action.end();
+        action.getFinished().forEach(Runnable::run);
+        future.complete(null);
+    }
+
+    private void endQuietly(Action action) {
+        try {
+            action.end();
+            action.getFinished().forEach(Runnable::run);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The exception the future was completed with, or null if it completed normally or was cancelled
+     */
+    private static Throwable getFailure(CompletableFuture<Void> future) {
+        if (!future.isCompletedExceptionally() || future.isCancelled()) {
+            return null;
+        }
+        try {
+            future.getNow(null);
+        } catch (CompletionException e) {
+            return e.getCause();
+        } catch (CancellationException ignored) {
+        }
+        return null;
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long sequence;
+        private final Runnable runnable;
+
+        private Event(long time, long sequence, Runnable runnable) {
+            this.time = time;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int timeComparison = Long.compare(time, other.time);
+            return timeComparison != 0 ? timeComparison : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Drives a {@link PeriodicAction} with the same timing as {@link PeriodicAction#run(ActionRunInfo)}
+     */
+    private final class PeriodicTask implements Runnable {
+        private final PeriodicAction action;
+        private final CompletableFuture<Void> future;
+        private final long period;
+        private long startTime;
+        private long cycles;
+
+        private PeriodicTask(PeriodicAction action, CompletableFuture<Void> future) {
+            this.action = action;
+            this.future = future;
+            this.period = action.getPeriod(TimeUnit.MILLISECONDS);
+        }
+
+        private void start() {
+            // Like the threaded implementation, an interrupted (cancelled) periodic action still ends
+            future.whenComplete((v, t) -> {
+                if (future.isCancelled()) {
+                    endQuietly(action);
+                }
+            });
+            startTime = currentTime;
+            try {
+                action.start(actionRunInfo);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            scheduleNext();
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (action.step()) {
+                    finish(action, future);
+                    return;
+                }
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            scheduleNext();
+        }
+
+        private void scheduleNext() {
+            cycles++;
+            if (action.isPeriodDelayAfterExecution()) {
+                scheduleAt(currentTime + period, this);
+            } else {
+                scheduleAt(startTime + period * cycles, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.ezauton.core.simulation;
+
+/**
+ * How urgently an action should be run, used by schedulers which can run actions in separate lanes, so that e.g. a
+ * path regeneration cannot delay the drivetrain control loop.
+ *
+ * @see ActionScheduler#scheduleAction(com.github.ezauton.core.action.Action, SchedulingClass)
+ */
+public enum SchedulingClass {
+    /**
+     * Control loops. They run on a few high priority threads, the most urgent cycle first.
+     */
+    REAL_TIME,
+
+    /**
+     * Everything else. The default.
+     */
+    NORMAL,
+
+    /**
+     * Work which can wait, e.g., recorder flushes or logging. Run on a few low priority threads, earliest deadline
+     * first.
+     */
+    BACKGROUND
+}
@@ -2,6 +2,8 @@ package com.github.ezauton.core.simulation;
 
 import com.github.ezauton.core.actuators.VelocityMotor;
 import com.github.ezauton.core.actuators.implementations.SimulatedMotor;
+import com.github.ezauton.core.localization.ControlLoop;
+import com.github.ezauton.core.localization.TickedUpdateable;
 import com.github.ezauton.core.localization.Updateable;
 import com.github.ezauton.core.localization.UpdateableGroup;
 import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
@@ -92,12 +94,24 @@ public class SimulatedTankRobot implements TankRobotConstants, Updateable {
         return lateralWheelDistance;
     }
 
+    /**
+     * Update this robot from a control loop instead of with {@link SimulatedTankRobot#update()}: the default location
+     * estimator in {@link ControlLoop.Phase#ESTIMATE} and the motors in {@link ControlLoop.Phase#ACTUATE}
+     *
+     * @param controlLoop The loop to add this robot to
+     */
+    public void addTo(ControlLoop controlLoop) {
+        controlLoop.add(ControlLoop.Phase.ESTIMATE, defaultLocationEstimator);
+        controlLoop.add(ControlLoop.Phase.ACTUATE, left, right);
+    }
+
     @Override
     public boolean update() {
 //        long read = stopwatch.read(TimeUnit.SECONDS);
 //        log.append(read).append(", ").append(leftTDS.getVelocity()).append(", ").append(rightTDS.getVelocity()).append("\n");
-        toUpdate.update();
-        defaultLocationEstimator.update();
+        long tick = TickedUpdateable.nextTick();
+        toUpdate.update(tick);
+        defaultLocationEstimator.update(tick);
         return true;
     }
 }
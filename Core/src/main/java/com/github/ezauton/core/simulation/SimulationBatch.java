@@ -0,0 +1,245 @@
+package com.github.ezauton.core.simulation;
+
+import com.github.ezauton.core.action.Action;
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.BackgroundAction;
+import com.github.ezauton.core.localization.TranslationalLocationEstimator;
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.PathSegment;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs many simulations at once, e.g., for Monte Carlo runs or sweeping lookahead and acceleration constants.
+ * <p>
+ * Every run gets its own {@link DiscreteEventSimulation} (and thus its own virtual clock and scheduler), so runs do not
+ * share any state unless the {@link ScenarioFactory} makes them. Runs are spread over a {@link ForkJoinPool}.
+ */
+public final class SimulationBatch {
+
+    private final ScenarioFactory scenarioFactory;
+    private final ForkJoinPool pool;
+    private long samplePeriodMillis = 20;
+
+    /**
+     * Create a batch which runs on the common {@link ForkJoinPool} (one thread per core)
+     *
+     * @param scenarioFactory Creates the scenario for each run
+     */
+    public SimulationBatch(ScenarioFactory scenarioFactory) {
+        this(scenarioFactory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param scenarioFactory Creates the scenario for each run
+     * @param pool            The pool to run simulations on
+     */
+    public SimulationBatch(ScenarioFactory scenarioFactory, ForkJoinPool pool) {
+        this.scenarioFactory = scenarioFactory;
+        this.pool = pool;
+    }
+
+    /**
+     * @param samplePeriod How often (in simulated time) the robot location is compared against the path
+     * @param timeUnit     The timeunit that samplePeriod is in
+     * @return this
+     */
+    public SimulationBatch setSamplePeriod(long samplePeriod, TimeUnit timeUnit) {
+        if (samplePeriod <= 0) {
+            throw new IllegalArgumentException("samplePeriod must be positive");
+        }
+        this.samplePeriodMillis = timeUnit.toMillis(samplePeriod);
+        return this;
+    }
+
+    /**
+     * Run the scenarios and block until all are done
+     *
+     * @param runs     How many runs there should be. The factory is called once with each index in [0, runs).
+     * @param timeout  The amount of <b>real</b> time each run can take
+     * @param timeUnit The timeunit that the timeout is in
+     * @return A summary of each run, indexed by run
+     * @throws TimeoutException   If a run did not finish in time
+     * @throws ExecutionException If a run threw an exception
+     */
+    public List<RunSummary> run(int runs, long timeout, TimeUnit timeUnit) throws TimeoutException, ExecutionException {
+        List<ForkJoinTask<RunSummary>> tasks = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            final int run = i;
+            tasks.add(pool.submit(() -> runOne(run, timeout, timeUnit)));
+        }
+
+        List<RunSummary> summaries = new ArrayList<>(runs);
+        try {
+            for (ForkJoinTask<RunSummary> task : tasks) {
+                summaries.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting for simulations", e);
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) e.getCause();
+            }
+            if (e.getCause() instanceof ExecutionException) {
+                throw (ExecutionException) e.getCause();
+            }
+            throw e;
+        }
+        return summaries;
+    }
+
+    private RunSummary runOne(int run, long timeout, TimeUnit timeUnit) throws TimeoutException, ExecutionException {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation();
+        Scenario scenario = scenarioFactory.create(run, simulation);
+
+        CrossTrackSampler sampler = new CrossTrackSampler(scenario);
+        BackgroundAction sampleAction = new BackgroundAction(samplePeriodMillis, TimeUnit.MILLISECONDS, sampler::sample);
+
+        long[] finishTime = new long[1];
+        Action action = scenario.getAction().onFinish(() -> finishTime[0] = simulation.getTime());
+
+        simulation.add(new ActionGroup()
+                .with(sampleAction)
+                .addSequential(action));
+        simulation.runSimulation(timeout, timeUnit);
+
+        sampler.sample();
+        double finalPoseError = scenario.getLocationEstimator().estimateLocation().dist(scenario.getPath().getEnd());
+        return new RunSummary(run, finalPoseError, sampler.maxCrossTrackError, finishTime[0]);
+    }
+
+    /**
+     * Creates a new {@link Scenario} for every run
+     */
+    @FunctionalInterface
+    public interface ScenarioFactory {
+        /**
+         * Note: this may be called from multiple threads at once. Anything stateful (robots, paths, movement
+         * strategies...) must be created new for every run.
+         *
+         * @param run   The index of the run
+         * @param clock The virtual clock of this run, which should be given to everything time-dependent
+         * @return The scenario to run
+         */
+        Scenario create(int run, Clock clock);
+    }
+
+    /**
+     * What is run in each simulation and how to measure it
+     */
+    public static final class Scenario {
+        private final Action action;
+        private final Path path;
+        private final TranslationalLocationEstimator locationEstimator;
+
+        /**
+         * @param action            The action to run, e.g., a group of a {@link com.github.ezauton.core.action.PurePursuitAction}
+         *                          with background actions updating the robot. The run ends when this action ends.
+         * @param path              The path the robot should follow
+         * @param locationEstimator Where the robot is
+         */
+        public Scenario(Action action, Path path, TranslationalLocationEstimator locationEstimator) {
+            this.action = action;
+            this.path = path;
+            this.locationEstimator = locationEstimator;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public TranslationalLocationEstimator getLocationEstimator() {
+            return locationEstimator;
+        }
+    }
+
+    /**
+     * The result of a single run
+     */
+    public static final class RunSummary {
+        private final int run;
+        private final double finalPoseError;
+        private final double maxCrossTrackError;
+        private final long finishTime;
+
+        RunSummary(int run, double finalPoseError, double maxCrossTrackError, long finishTime) {
+            this.run = run;
+            this.finalPoseError = finalPoseError;
+            this.maxCrossTrackError = maxCrossTrackError;
+            this.finishTime = finishTime;
+        }
+
+        /**
+         * @return The index of the run
+         */
+        public int getRun() {
+            return run;
+        }
+
+        /**
+         * @return The distance between where the robot ended up and the end of the path
+         */
+        public double getFinalPoseError() {
+            return finalPoseError;
+        }
+
+        /**
+         * @return The largest distance between the robot and the path that was sampled
+         */
+        public double getMaxCrossTrackError() {
+            return maxCrossTrackError;
+        }
+
+        /**
+         * @return The simulated time (ms) at which the action finished
+         */
+        public long getFinishTime() {
+            return finishTime;
+        }
+
+        @Override
+        public String toString() {
+            return "RunSummary{" +
+                    "run=" + run +
+                    ", finalPoseError=" + finalPoseError +
+                    ", maxCrossTrackError=" + maxCrossTrackError +
+                    ", finishTime=" + finishTime +
+                    '}';
+        }
+    }
+
+    private static final class CrossTrackSampler {
+        private final List<PathSegment> segments;
+        private final TranslationalLocationEstimator locationEstimator;
+        private double maxCrossTrackError = 0;
+
+        private CrossTrackSampler(Scenario scenario) {
+            this.segments = scenario.getPath().getPathSegments();
+            this.locationEstimator = scenario.getLocationEstimator();
+        }
+
+        private void sample() {
+            ImmutableVector location = locationEstimator.estimateLocation();
+            double crossTrackError = Double.POSITIVE_INFINITY;
+            for (PathSegment segment : segments) {
+                crossTrackError = Math.min(crossTrackError, segment.getClosestPoint(location).dist(location));
+            }
+            maxCrossTrackError = Math.max(maxCrossTrackError, crossTrackError);
+        }
+    }
+}
@@ -4,13 +4,24 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Describes a Clock. The clock can be real or simulated. The purpose of a clock is to support a {@link Stopwatch}
+ * <p>
+ * Clocks which only keep milliseconds get the nanosecond methods for free. Clocks which can do better (e.g.,
+ * {@link RealClock}) override them.
  */
 public interface Clock {
     /**
-     * @return The current time as read by the clock in seconds
+     * @return The current time as read by the clock in milliseconds
      */
     long getTime();
 
+    /**
+     * @return The current time as read by the clock in nanoseconds, on the same timeline as {@link Clock#getTime()}.
+     * Should be monotonic.
+     */
+    default long getTimeNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(getTime());
+    }
+
 
     /**
      * Schedule an activity to run some amount of time in the future
@@ -22,6 +33,17 @@ public interface Clock {
      */
     void scheduleAt(long millis, Runnable runnable);
 
+    /**
+     * Schedule an activity to run at a time in nanoseconds (see {@link Clock#getTimeNanos()}). By default, the time is
+     * rounded up to the next millisecond so the runnable is never run early.
+     *
+     * @param nanos    The timestamp at which the runnable should be run
+     * @param runnable The thing to run
+     */
+    default void scheduleAtNanos(long nanos, Runnable runnable) {
+        scheduleAt(-Math.floorDiv(-nanos, 1_000_000L), runnable);
+    }
+
     /**
      * Schedule a runnable to be run `dt` `timeUnit`s in the future
      * <p>
@@ -34,13 +56,22 @@ public interface Clock {
      * @param runnable The thing that should happen
      */
     default void scheduleIn(long dt, TimeUnit timeUnit, Runnable runnable) {
-        scheduleAt(getTime() + timeUnit.toMillis(dt), runnable);
+        scheduleAtNanos(getTimeNanos() + timeUnit.toNanos(dt), runnable);
     }
 
     default void scheduleNow(Runnable runnable) {
         scheduleAt(getTime(), runnable);
     }
 
+    /**
+     * @return If time moves by itself, so it can be waited for by spinning (see
+     * {@link com.github.ezauton.core.action.PeriodicAction#setSpinBudget(long, TimeUnit)}). False by default, as a
+     * simulated clock only moves when slept on or told to.
+     */
+    default boolean isRealTime() {
+        return false;
+    }
+
     /**
      * Locks current thread for specified time
      *
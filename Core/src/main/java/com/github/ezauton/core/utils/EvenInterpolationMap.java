@@ -1,7 +1,7 @@
 package com.github.ezauton.core.utils;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * An interpolation map that has even symmetry https://en.wikipedia.org/wiki/Even_and_odd_functions
@@ -21,7 +21,15 @@ public class EvenInterpolationMap extends InterpolationMap {
         if (m == null) {
             return;
         }
-        m.entrySet().stream().filter(Objects::nonNull).forEach(e -> put(e.getKey(), e.getValue()));
+        // Mirror first, so the base class can insert everything at once
+        Map<Double, Double> mirrored = new LinkedHashMap<>();
+        m.forEach((key, value) -> {
+            if (key != null && value != null) {
+                mirrored.put(-key, value);
+            }
+            mirrored.put(key, value);
+        });
+        super.putAll(mirrored);
     }
 
     @Override
@@ -1,10 +1,7 @@
 package com.github.ezauton.core.utils;
 
-import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
-
 import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Make a new interpolating map. You need 2 key/value pairs to interpolate properly.
@@ -13,24 +10,39 @@ import java.util.stream.Collectors;
  * and linear regression is used to find the pairs you didn't explicitly put in.
  * <p>
  * If the key is outside the bounds, the first/last value is returned
+ * <p>
+ * Pairs are kept sorted in primitive arrays, so {@link InterpolationMap#get(double)} is a binary search which does not
+ * box or allocate. Iterating over the map goes through the keys in order.
  *
  * @author ritikmishra
  */
-public class
-InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializable //TODO: Remove redundant methods defined in HashMap, also maybe extends HashMap<Double, Double>?
-{
+public class InterpolationMap extends AbstractMap<Double, Double> implements MathUtils.Integrable, Serializable {
+
+    /**
+     * The underlying mechanism through which we store values: keys (sorted as by {@link Double#compare(double, double)})
+     * and their values, in the first {@link InterpolationMap#size} elements
+     */
+    private double[] keys = new double[8];
+    private double[] values = new double[8];
+    private int size = 0;
+
+    /**
+     * Changed on every structural modification, so iterators can fail fast
+     */
+    private transient int modCount = 0;
 
     /**
-     * The underlying mechanism through which we store values
+     * The area from the first key to each key, for {@link InterpolationMap#integrate(double, double)}. Computed when
+     * first needed after a change, and null until then. A new array is built and then published in one write, so a
+     * reader never sees one which is half filled.
      */
-    private Map<Double, Double> table;
+    private transient volatile double[] areas;
 
     /**
      * @param firstKey   The first key to put into the hash table.
      * @param firstValue The first value to put into the hash table.
      */
     public InterpolationMap(Double firstKey, Double firstValue) {
-        table = new HashMap<>();
         put(firstKey, firstValue);
     }
 
@@ -57,23 +69,76 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        table.entrySet()
-                .stream()
-                .sorted(Comparator.comparingDouble(Entry::getKey))
-                .forEach(doubleDoubleEntry -> stringBuilder.append("\n" + doubleDoubleEntry.getKey() + ": " + doubleDoubleEntry.getValue()));
+        for (int i = 0; i < size; i++) {
+            stringBuilder.append("\n").append(keys[i]).append(": ").append(values[i]);
+        }
         return stringBuilder.toString();
     }
 
+    /**
+     * Maps are equal if they have exactly the same pairs. Keys are compared exactly, not interpolated, so two maps
+     * which only agree through interpolation are not equal.
+     *
+     * @param o Some object
+     * @return If it is a map with the same pairs
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof InterpolationMap) {
+            InterpolationMap other = (InterpolationMap) o;
+            if (size != other.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (Double.compare(keys[i], other.keys[i]) != 0 || Double.compare(values[i], other.values[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!(o instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> other = (Map<?, ?>) o;
+        if (size != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Double key = keys[i];
+            if (!Double.valueOf(values[i]).equals(other.get(key)) || !other.containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The sum of the hash codes of the pairs, as for any {@link Map}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += Double.hashCode(keys[i]) ^ Double.hashCode(values[i]);
+        }
+        return hash;
+    }
+
     /**
      * @return
      * @deprecated needs testing
      */
     public InterpolationMap inverse() //TODO: test inverse()
     {
-        Map<Double, Double> mapInversed =
-                table.entrySet()
-                        .stream()
-                        .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+        Map<Double, Double> mapInversed = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (mapInversed.put(values[i], keys[i]) != null) {
+                throw new IllegalStateException("Duplicate key " + values[i]);
+            }
+        }
         return new InterpolationMap(mapInversed);
     }
 
@@ -82,7 +147,7 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public int size() {
-        return table.size();
+        return size;
     }
 
     /**
@@ -90,7 +155,7 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public boolean isEmpty() {
-        return table.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -99,7 +164,7 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public boolean containsKey(Object key) {
-        return table.containsKey(key);
+        return key instanceof Double && indexOf((Double) key) >= 0;
     }
 
     /**
@@ -108,7 +173,16 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public boolean containsValue(Object value) {
-        return table.containsValue(value);
+        if (!(value instanceof Double)) {
+            return false;
+        }
+        double v = (Double) value;
+        for (int i = 0; i < size; i++) {
+            if (Double.compare(values[i], v) == 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -133,10 +207,25 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public Double put(Double key, Double value) {
-        if (table == null) {
-            table = new HashMap<>();
+        checkPair(key, value);
+        int index = indexOf(key);
+        if (index >= 0) {
+            double old = values[index];
+            values[index] = value;
+            areas = null;
+            return old;
         }
-        return table.put(key, value);
+
+        int insertion = -(index + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+        System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+        keys[insertion] = key;
+        values[insertion] = value;
+        size++;
+        modCount++;
+        areas = null;
+        return null;
     }
 
     /**
@@ -147,7 +236,16 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public Double remove(Object key) {
-        return table.remove(key);
+        if (!(key instanceof Double)) {
+            return null;
+        }
+        int index = indexOf((Double) key);
+        if (index < 0) {
+            return null;
+        }
+        double old = values[index];
+        removeAt(index);
+        return old;
     }
 
     /**
@@ -157,10 +255,31 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public void putAll(Map<? extends Double, ? extends Double> m) {
-        if (table == null) {
-            table = new HashMap<>();
+        if (m.size() <= 1) {
+            m.forEach(this::put);
+            return;
+        }
+
+        // Sort once instead of inserting one by one
+        TreeMap<Double, Double> merged = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            merged.put(keys[i], values[i]);
         }
-        table.putAll(m);
+        for (Entry<? extends Double, ? extends Double> entry : m.entrySet()) {
+            checkPair(entry.getKey(), entry.getValue());
+            merged.put(entry.getKey(), entry.getValue());
+        }
+
+        ensureCapacity(merged.size());
+        int i = 0;
+        for (Entry<Double, Double> entry : merged.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        size = i;
+        modCount++;
+        areas = null;
     }
 
     /**
@@ -168,31 +287,33 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public void clear() {
-        table.clear();
+        size = 0;
+        modCount++;
+        areas = null;
     }
 
     /**
-     * @return All the keys for which we have a defined value
+     * @return Every defined key-value pair, in order of their keys. Also backs {@link InterpolationMap#keySet()} and
+     * {@link InterpolationMap#values()}.
      */
     @Override
-    public Set<Double> keySet() {
-        return table.keySet();
-    }
+    public Set<Entry<Double, Double>> entrySet() {
+        return new AbstractSet<Entry<Double, Double>>() {
+            @Override
+            public Iterator<Entry<Double, Double>> iterator() {
+                return new EntryIterator();
+            }
 
-    /**
-     * @return All the values that are defined in the table.
-     */
-    @Override
-    public Collection<Double> values() {
-        return table.values();
-    }
+            @Override
+            public int size() {
+                return size;
+            }
 
-    /**
-     * @return Every defined key-value pair
-     */
-    @Override
-    public Set<Entry<Double, Double>> entrySet() {
-        return table.entrySet();
+            @Override
+            public void clear() {
+                InterpolationMap.this.clear();
+            }
+        };
     }
 
     /**
@@ -202,58 +323,53 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      * @return The estimated value of "f(key)"
      */
     public Double get(Double key) {
-        Set<Double> keyset = table.keySet();
+        return get(key.doubleValue());
+    }
 
-        if (keyset.size() == 1) {
-            return table.get(keyset.toArray()[0]);
+    /**
+     * Use linear regression to estimate what your "f(x)" will give when evaluated at `key`, without boxing
+     * <p>
+     * The segment to interpolate on is found comparing keys as floats, as it always has been.
+     *
+     * @param key The x to evaluate "f(x)" at
+     * @return The estimated value of "f(key)"
+     * @throws IllegalStateException If the map is empty
+     */
+    public double get(double key) {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot interpolate an empty map");
         }
 
-        Double upperBound = null;
-        Double lowerBound = null;
-
-
-        ArrayList<Double> keys = new ArrayList<>(keyset);
-        keys.sort(Comparator.comparingDouble(a -> (double) a));
-
-        int i = 0;
-
-        for (Double keyOn : keys) {
-            if (key.floatValue() < keyOn.floatValue()) {
-                upperBound = keyOn;
-                if (i > 0) {
-                    lowerBound = keys.get(i - 1);
-                }
-                break;
-            }
-            i++;
-        }
+        int upper = upperBound((float) key);
 
-        if (upperBound == null) // i.e all the keys are smaller than the value we want to grab
+        if (upper == size) // i.e all the keys are smaller than the value we want to grab
         {
-            return table.get(keys.get(keys.size() - 1)); // evaluateY the f(x) for the biggest x. we can't do real interpolation
-        } else if (lowerBound == null) // i.e all the keys are bigger than the value we want to grab
+            return values[size - 1]; // evaluateY the f(x) for the biggest x. we can't do real interpolation
+        } else if (upper == 0) // i.e all the keys are bigger than the value we want to grab
         {
-            return table.get(keys.get(0)); // evaluateY the f(x) for the smallest x. we can't do real interpolation.
+            return values[0]; // evaluateY the f(x) for the smallest x. we can't do real interpolation.
         } else // we can do real interpolation
         {
-            double dx = upperBound - lowerBound;
-            double dy = table.get(upperBound) - table.get(lowerBound);
+            int lower = upper - 1;
+            double dx = keys[upper] - keys[lower];
+            double dy = values[upper] - values[lower];
 
             double slope = dy / dx; // remember? rise over run. change in y over change in x.
 
             // the following equation comes from the point slope form of a line
             // reminder: it's y - y1 = m (x - x1)
             // here, m is slope
-            // upperBound is x1
-            // table.evaluateY(upperBound) is y1
-            return ((slope * key) - (slope * upperBound)) + table.get(upperBound);
+            // keys[upper] is x1
+            // values[upper] is y1
+            return ((slope * key) - (slope * keys[upper])) + values[upper];
         }
     }
 
     /**
      * Use if you know what you're doing. Does useful stuff like turn pos into vel or accel into vel
      * <p>
-     * Ensure a < b.
+     * The area up to each key is computed once (and again after the map changes), so an integral is two binary
+     * searches. If a > b, the area is negative.
      *
      * @param a Beginning of integration range
      * @param b End of integration range
@@ -261,56 +377,202 @@ InterpolationMap implements Map<Double, Double>, MathUtils.Integrable, Serializa
      */
     @Override
     public double integrate(double a, double b) {
-        List<MathUtils.Geometry.LineR2> lines = new ArrayList<>();
-        double integralTotal = 0;
+        if (size == 0) throw new IllegalArgumentException("Data points must not be empty");
+        return areaTo(b) - areaTo(a);
+    }
+
+    /**
+     * @param x Where to integrate to
+     * @return The area under the "curve" from the first key to x, negative if x is before the first key
+     */
+    private double areaTo(double x) {
+        double[] areas = this.areas;
+        if (areas == null) {
+            areas = computeAreas();
+            this.areas = areas;
+        }
+        // Before the first and after the last point, the value is constant
+        if (x <= keys[0]) {
+            return values[0] * (x - keys[0]);
+        }
+        int last = size - 1;
+        if (x >= keys[last]) {
+            return areas[last] + values[last] * (x - keys[last]);
+        }
 
-        List<Double> dataPoints = new ArrayList<>(keySet());
+        // keys[i] <= x < keys[i + 1]; add the trapezoid from keys[i] to x
+        int i = upperBound(x) - 1;
+        double slope = (values[i + 1] - values[i]) / (keys[i + 1] - keys[i]);
+        double y = values[i] + slope * (x - keys[i]);
+        return areas[i] + (values[i] + y) / 2 * (x - keys[i]);
+    }
 
-        dataPoints.sort(null);
+    /**
+     * Sum the trapezoids between each pair of keys
+     *
+     * @return The area from the first key to each key
+     */
+    private double[] computeAreas() {
+        double[] areas = new double[size];
+        for (int i = 1; i < size; i++) {
+            areas[i] = areas[i - 1] + (values[i - 1] + values[i]) / 2 * (keys[i] - keys[i - 1]);
+        }
+        return areas;
+    }
 
-        if (dataPoints.isEmpty()) throw new IllegalArgumentException("Data points must not be empty");
-        if (dataPoints.size() == 1) {
-            lines.add(new MathUtils.Geometry.LineR2(new ImmutableVector((float) a, get(a).floatValue()),
-                    new ImmutableVector((float) b, get(b).floatValue())));
-        } else {
-            Double firstX = dataPoints.get(0);
-            Double lastX = dataPoints.get(dataPoints.size() - 1);
+    /**
+     * @param key The exact key
+     * @return Its index, or (-(insertion point) - 1) if it is not a key
+     */
+    private int indexOf(double key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
 
-            if (a < firstX - 1E-6) {
-                integralTotal += get(firstX) * (firstX - a);
+    /**
+     * @return The index of the first key which is bigger than the key, or size if there is none
+     */
+    private int upperBound(double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] > key) {
+                high = mid;
+            } else {
+                low = mid + 1;
             }
-            if (b > lastX + 1E-6) {
-                integralTotal += get(lastX) * (b - lastX);
+        }
+        return low;
+    }
+
+    /**
+     * Like {@link InterpolationMap#upperBound(double)}, but comparing as floats. Keys which are equal as floats do not
+     * start a new segment, which keeps lookups next to nearly duplicate keys stable.
+     */
+    private int upperBound(float key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if ((float) keys[mid] > key) {
+                high = mid;
+            } else {
+                low = mid + 1;
             }
+        }
+        return low;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        modCount++;
+        areas = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+    }
 
-            for (int i = 1; i < dataPoints.size(); i++) {
-                double x1, x2;
+    private static void checkPair(Double key, Double value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Keys and values must not be null");
+        }
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Keys must not be NaN");
+        }
+    }
 
-                x1 = dataPoints.get(i - 1);
-                x2 = dataPoints.get(i);
+    private class EntryIterator implements Iterator<Entry<Double, Double>> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
 
-                // front of line within range or back of line within range
-                if (x1 < b && x2 > a) {
-                    x1 = Math.max(a, x1);
-                    x2 = Math.min(b, x2);
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
 
-                    // use "entire" line
-                    lines.add(new MathUtils.Geometry.LineR2(new ImmutableVector((float) x1, get(x1)),
-                            new ImmutableVector((float) x2, get(x2))));
-                }
+        @Override
+        public Entry<Double, Double> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
             }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new IndexEntry(last);
+        }
 
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
         }
+    }
 
-        lines.sort(Comparator.comparingDouble(line -> line.x1));
+    /**
+     * An entry which writes through to the map, as long as the map is not structurally modified
+     */
+    private class IndexEntry implements Entry<Double, Double> {
+        private final int index;
+        private final double key;
 
+        IndexEntry(int index) {
+            this.index = index;
+            this.key = keys[index];
+        }
 
-        for (MathUtils.Geometry.LineR2 line : lines) {
-            if (!Double.isFinite(line.slope)) continue; // fixes floating-point NaN issues with integrating
-            integralTotal += line.integrate();
+        @Override
+        public Double getKey() {
+            return key;
         }
-        return integralTotal;
 
+        @Override
+        public Double getValue() {
+            return values[index];
+        }
 
+        @Override
+        public Double setValue(Double value) {
+            checkPair(key, value);
+            double old = values[index];
+            values[index] = value;
+            areas = null;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && getValue().equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
     }
 }
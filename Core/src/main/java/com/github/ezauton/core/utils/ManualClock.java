@@ -1,5 +1,6 @@
 package com.github.ezauton.core.utils;
 
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 import java.util.TreeMap;
@@ -7,11 +8,13 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * ⏰ A clock where the time is manually changed.
+ *
+ * @see VirtualClock for fast-forwarding actions which sleep on the clock
  */
 public class ManualClock implements Clock {
 
     private final TreeMap<Long, Queue<Runnable>> timeToRunnableMap = new TreeMap<>();
-    private long time = 0;
+    private volatile long time = 0;
 
 
     public ManualClock() {
@@ -60,9 +63,10 @@ public class ManualClock implements Clock {
         return time;
     }
 
-    public void setTime(long time) {
+    public synchronized void setTime(long time) {
         while (!timeToRunnableMap.isEmpty() && timeToRunnableMap.firstKey() <= time) {
             Map.Entry<Long, Queue<Runnable>> entry = timeToRunnableMap.pollFirstEntry();
+            this.time = Math.max(this.time, entry.getKey()); // runnables see the time they were scheduled for
             Queue<Runnable> queue = entry.getValue();
             queue.removeIf(runnable -> {
                 runnable.run();
@@ -70,26 +74,33 @@ public class ManualClock implements Clock {
             });
         }
         this.time = time;
+        notifyAll(); // wake sleepers
     }
 
     /**
-     * @param millis   The amount of milliseconds to be run in the future
+     * @param millis   The timestamp at which the runnable should be run. If it is now, the runnable is run right away.
+     *                 Otherwise, it is run when the time is set to (or past) it.
      * @param runnable The thing to run
-     * @return
-     * @deprecated Does not currently return a Future
      */
     @Override
-    public void scheduleAt(long millis, Runnable runnable) {
+    public synchronized void scheduleAt(long millis, Runnable runnable) {
         if (millis < getTime()) {
             throw new IllegalArgumentException("You are scheduling a task for before the current time!");
         }
-        if (millis == getTime()) runnable.run();
+        if (millis == getTime()) {
+            runnable.run();
+            return;
+        }
+        timeToRunnableMap.computeIfAbsent(millis, t -> new LinkedList<>()).add(runnable);
     }
 
+    /**
+     * Block until another thread sets the time past the deadline
+     */
     @Override
-    public void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
-        long startTime = getTime();
-        while (startTime + timeUnit.toMillis(dt) < getTime()) {
+    public synchronized void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
+        long wakeTime = getTime() + timeUnit.toMillis(dt);
+        while (getTime() < wakeTime) {
             wait();
         }
     }
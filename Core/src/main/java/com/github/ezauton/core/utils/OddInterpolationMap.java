@@ -1,5 +1,6 @@
 package com.github.ezauton.core.utils;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -20,7 +21,15 @@ public class OddInterpolationMap extends InterpolationMap {
         if (m == null) {
             return;
         }
-        m.forEach(this::put);
+        // Mirror first, so the base class can insert everything at once
+        Map<Double, Double> mirrored = new LinkedHashMap<>();
+        m.forEach((key, value) -> {
+            if (key != null && value != null) {
+                mirrored.put(-key, -value);
+            }
+            mirrored.put(key, value);
+        });
+        super.putAll(mirrored);
     }
 
     @Override
@@ -1,42 +1,76 @@
 package com.github.ezauton.core.utils;
 
-import java.time.Instant;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
  * A clock which represents the real world time. ⏱
+ * <p>
+ * Time is read from {@link System#nanoTime()}, offset so that it starts at the epoch time when the clock is created.
+ * Unlike {@link System#currentTimeMillis()}, it does not jump when the system time is adjusted.
  */
 public final class RealClock implements Clock {
     public static final RealClock CLOCK = new RealClock();
-    private final ScheduledExecutorService executorService;
+    private final ScheduledThreadPoolExecutor executorService;
 
+    /**
+     * Added to {@link System#nanoTime()} to get epoch nanoseconds
+     */
+    private final long epochOffsetNanos;
 
     private RealClock() {
-        executorService = Executors.newScheduledThreadPool(1, Thread::new);
+        executorService = new ScheduledThreadPoolExecutor(1, (ThreadFactory) Thread::new);
+        executorService.setRemoveOnCancelPolicy(true); // so cancelled runnables do not pile up
+        epochOffsetNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
     }
 
     @Override
     public long getTime() {
-        return System.currentTimeMillis();
+        return Math.floorDiv(getTimeNanos(), 1_000_000L);
     }
 
     @Override
-    public void scheduleAt(long millis, Runnable runnable) {
-        Instant scheduleTime = Instant.ofEpochMilli(millis);
-        Instant now = Instant.now();
+    public long getTimeNanos() {
+        return System.nanoTime() + epochOffsetNanos;
+    }
 
-        if (scheduleTime.isBefore(now)) {
+    @Override
+    public void scheduleAt(long millis, Runnable runnable) {
+        if (millis < getTime()) {
             throw new IllegalArgumentException("You are scheduling a task for before the current time!");
         }
+        scheduleAtNanos(TimeUnit.MILLISECONDS.toNanos(millis), runnable);
+    }
 
-        long dt = scheduleTime.toEpochMilli() - now.toEpochMilli();
-        executorService.schedule(runnable, dt, TimeUnit.MILLISECONDS);
+    /**
+     * @param nanos    The timestamp at which the runnable should be run. If it has just passed, the runnable is run
+     *                 right away.
+     * @param runnable The thing to run
+     */
+    @Override
+    public void scheduleAtNanos(long nanos, Runnable runnable) {
+        scheduleNanos(nanos, runnable);
+    }
+
+    /**
+     * @param nanos    The timestamp at which the runnable should be run. If it has just passed, the runnable is run
+     *                 right away.
+     * @param runnable The thing to run
+     * @return A future which can be used to cancel the runnable
+     */
+    public ScheduledFuture<?> scheduleNanos(long nanos, Runnable runnable) {
+        return executorService.schedule(runnable, Math.max(nanos - getTimeNanos(), 0), TimeUnit.NANOSECONDS);
     }
 
     @Override
     public void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
-        Thread.sleep(timeUnit.toMillis(dt));
+        timeUnit.sleep(dt);
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return true;
     }
 }
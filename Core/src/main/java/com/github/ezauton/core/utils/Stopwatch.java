@@ -5,19 +5,22 @@ import java.util.concurrent.TimeUnit;
 /**
  * A handy stopwatch for recording time in seconds since it was last polled. Requires a ⏱ {@link Clock} to keep track
  * of time.
+ * <p>
+ * Time is kept in nanoseconds (see {@link Clock#getTimeNanos()}), so with a real clock, fractional results like
+ * {@link Stopwatch#pop(TimeUnit)} are not rounded to the millisecond.
  */
 public class Stopwatch {
 
     protected final Clock clock;
-    protected long millis = -1;
+    protected long nanos;
+    private boolean init = false;
 
     public Stopwatch(Clock clock) {
         this.clock = clock;
     }
 
     public void init() {
-        millis = clock.getTime();
-
+        reset();
     }
 
     /**
@@ -26,9 +29,7 @@ public class Stopwatch {
      * @return The value of the stopwatch (ms)
      */
     public double pop() {
-        double readVal = read();
-        reset();
-        return readVal;
+        return pop(TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -38,7 +39,19 @@ public class Stopwatch {
      * @return Value of stopwatch (in specified timeunit)
      */
     public double pop(TimeUnit timeUnit) {
-        return pop() / timeUnit.toMillis(1);
+        return (double) popNanos() / timeUnit.toNanos(1);
+    }
+
+    /**
+     * Read and reset
+     *
+     * @return The value of the stopwatch (ns)
+     */
+    public long popNanos() {
+        long now = clock.getTimeNanos();
+        long readVal = now - checkInit();
+        nanos = now;
+        return readVal;
     }
 
     public Clock getClock() {
@@ -51,19 +64,33 @@ public class Stopwatch {
      * @return The value of the stopwatch (ms)
      */
     public long read() {
-        if (!isInit()) throw new IllegalArgumentException("Stopwatch must be initialized to use");
-        return clock.getTime() - millis;
+        return read(TimeUnit.MILLISECONDS);
     }
 
     public long read(TimeUnit timeUnit) {
-        return timeUnit.convert(read(), TimeUnit.MILLISECONDS);
+        return timeUnit.convert(readNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Read without resetting
+     *
+     * @return The value of the stopwatch (ns)
+     */
+    public long readNanos() {
+        return clock.getTimeNanos() - checkInit();
+    }
+
+    private long checkInit() {
+        if (!isInit()) throw new IllegalArgumentException("Stopwatch must be initialized to use");
+        return nanos;
     }
 
     /**
      * Reset without reading
      */
     public Stopwatch reset() {
-        millis = clock.getTime();
+        nanos = clock.getTimeNanos();
+        init = true;
         return this;
     }
 
@@ -71,7 +98,7 @@ public class Stopwatch {
      * @return If this stopwatch is initialized
      */
     public boolean isInit() {
-        return millis != -1;
+        return init;
     }
 
     /**
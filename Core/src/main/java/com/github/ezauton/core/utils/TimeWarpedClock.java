@@ -9,13 +9,13 @@ public class TimeWarpedClock implements Clock {
     private final double speedMultiplier;
     private final RealClock realClock;
     private long startTime;
-    private long timeStartedAt;
+    private long timeStartedAtNanos;
 
     public TimeWarpedClock(double speedMultiplier, long startTime) {
         realClock = RealClock.CLOCK;
         this.speedMultiplier = speedMultiplier;
         this.startTime = startTime;
-        timeStartedAt = System.currentTimeMillis();
+        timeStartedAtNanos = realClock.getTimeNanos();
     }
 
     public TimeWarpedClock(double speedMultiplier) {
@@ -32,18 +32,33 @@ public class TimeWarpedClock implements Clock {
 
     @Override
     public long getTime() {
-        long realDt = realClock.getTime() - timeStartedAt;
-        return (long) (realDt * speedMultiplier + startTime);
+        return Math.floorDiv(getTimeNanos(), 1_000_000L);
+    }
+
+    @Override
+    public long getTimeNanos() {
+        long realDt = realClock.getTimeNanos() - timeStartedAtNanos;
+        return (long) (realDt * speedMultiplier) + TimeUnit.MILLISECONDS.toNanos(startTime);
     }
 
     @Override
     public void scheduleAt(long millis, Runnable runnable) {
-        double realDt = (millis - getTime()) / speedMultiplier;
-        realClock.scheduleIn((long) realDt, TimeUnit.MILLISECONDS, runnable);
+        scheduleAtNanos(TimeUnit.MILLISECONDS.toNanos(millis), runnable);
+    }
+
+    @Override
+    public void scheduleAtNanos(long nanos, Runnable runnable) {
+        double realDt = (nanos - getTimeNanos()) / speedMultiplier;
+        realClock.scheduleIn((long) realDt, TimeUnit.NANOSECONDS, runnable);
     }
 
     @Override
     public void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
-        Thread.sleep((long) (timeUnit.toMillis(dt) / speedMultiplier));
+        TimeUnit.NANOSECONDS.sleep((long) (timeUnit.toNanos(dt) / speedMultiplier));
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return true;
     }
 }
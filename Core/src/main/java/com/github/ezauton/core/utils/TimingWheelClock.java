@@ -0,0 +1,340 @@
+package com.github.ezauton.core.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A real-time clock which schedules runnables on a hashed timing wheel instead of a {@link java.util.concurrent.ScheduledExecutorService}.
+ * <p>
+ * Scheduling and cancelling are O(1) and lock-free. A single worker thread wakes every tick, runs everything due in
+ * the current bucket and goes back to sleep, so the cost of a tick does not depend on how many runnables are scheduled
+ * for later. Runnables scheduled for a time which has already passed are run on the next tick instead of throwing.
+ * <p>
+ * Runnables are run at most one tick late (plus however late the worker thread wakes up) and on the worker thread, so
+ * they should be short.
+ *
+ * @see <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf">Hashed and Hierarchical Timing Wheels</a>
+ */
+public final class TimingWheelClock implements Clock {
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_SHUTDOWN = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    private final Thread workerThread;
+
+    /**
+     * Epoch millis and {@link System#nanoTime()} at the same instant, used to convert between the two
+     */
+    private final long startMillis;
+    private final long startNanos;
+
+    /**
+     * Create a clock with a 1 ms tick and 512 buckets
+     */
+    public TimingWheelClock() {
+        this(1, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * @param tickDuration  The resolution of the clock. Runnables are run on the first tick at or after their time.
+     * @param timeUnit      The timeunit that tickDuration is in
+     * @param ticksPerWheel How many buckets the wheel has. Rounded up to a power of 2. Runnables scheduled further than
+     *                      one revolution in the future are kept in the bucket and skipped on earlier revolutions.
+     */
+    public TimingWheelClock(long tickDuration, TimeUnit timeUnit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^30]");
+        }
+        tickNanos = timeUnit.toNanos(tickDuration);
+
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = wheel.length - 1;
+
+        startMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+
+        workerThread = new Thread(new Worker(), "TimingWheelClock");
+        workerThread.setDaemon(true);
+    }
+
+    @Override
+    public long getTime() {
+        return Math.floorDiv(getTimeNanos(), 1_000_000L);
+    }
+
+    /**
+     * @return Epoch nanoseconds, read from {@link System#nanoTime()} so it does not jump when the system time is adjusted
+     */
+    @Override
+    public long getTimeNanos() {
+        return startMillis * 1_000_000L + (System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Schedule a runnable. If the time has already passed, it will be run on the next tick.
+     *
+     * @param millis   The timestamp at which the runnable should be run
+     * @param runnable The thing to run
+     */
+    @Override
+    public void scheduleAt(long millis, Runnable runnable) {
+        schedule(millis, runnable);
+    }
+
+    /**
+     * Schedule a runnable. If the time has already passed, it will be run on the next tick.
+     *
+     * @param millis   The timestamp at which the runnable should be run
+     * @param runnable The thing to run
+     * @return A handle which can be used to cancel the runnable
+     */
+    public Timeout schedule(long millis, Runnable runnable) {
+        return scheduleNanos(millis * 1_000_000L, runnable);
+    }
+
+    @Override
+    public void scheduleAtNanos(long nanos, Runnable runnable) {
+        scheduleNanos(nanos, runnable);
+    }
+
+    /**
+     * Schedule a runnable. If the time has already passed, it will be run on the next tick.
+     *
+     * @param nanos    The timestamp at which the runnable should be run (see {@link TimingWheelClock#getTimeNanos()})
+     * @param runnable The thing to run
+     * @return A handle which can be used to cancel the runnable
+     */
+    public Timeout scheduleNanos(long nanos, Runnable runnable) {
+        if (runnable == null) {
+            throw new NullPointerException("runnable");
+        }
+        startWorker();
+        Timeout timeout = new Timeout(this, nanos - startMillis * 1_000_000L, runnable);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
+        timeUnit.sleep(dt);
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return true;
+    }
+
+    /**
+     * Stop the worker thread. Runnables which have not been run yet never will be.
+     */
+    public void stop() {
+        if (workerState.getAndSet(WORKER_SHUTDOWN) == WORKER_STARTED) {
+            workerThread.interrupt();
+        }
+    }
+
+    private void startWorker() {
+        int state = workerState.get();
+        if (state == WORKER_INIT) {
+            if (workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+                workerThread.start();
+            }
+        } else if (state == WORKER_SHUTDOWN) {
+            throw new IllegalStateException("Cannot schedule on a stopped TimingWheelClock");
+        }
+    }
+
+    /**
+     * A handle to a scheduled runnable
+     */
+    public static final class Timeout {
+        private static final int STATE_INIT = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+
+        private final TimingWheelClock clock;
+        private final long deadlineNanos;
+        private final Runnable runnable;
+        private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+        // Only accessed by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(TimingWheelClock clock, long deadlineNanos, Runnable runnable) {
+            this.clock = clock;
+            this.deadlineNanos = deadlineNanos;
+            this.runnable = runnable;
+        }
+
+        /**
+         * Prevent the runnable from running (if it has not yet run)
+         *
+         * @return If the runnable was cancelled by this call
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_INIT, STATE_CANCELLED)) {
+                return false;
+            }
+            clock.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        /**
+         * @return If the runnable has been run
+         */
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(STATE_INIT, STATE_EXPIRED)) {
+                return;
+            }
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of {@link Timeout}s, so removing a cancelled one is O(1). Only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+        private void expire(long deadlineNanos) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                if (timeout.remainingRounds <= 0 && timeout.deadlineNanos <= deadlineNanos) {
+                    Timeout next = remove(timeout);
+                    timeout.expire();
+                    timeout = next;
+                } else if (timeout.isCancelled()) {
+                    timeout = remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private long tick;
+
+        @Override
+        public void run() {
+            while (workerState.get() == WORKER_STARTED) {
+                long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    break;
+                }
+                processCancelled();
+                transferPending();
+                wheel[(int) (tick & mask)].expire(deadline);
+                tick++;
+            }
+        }
+
+        /**
+         * @return The time (relative to the start, in nanos) of the tick which was waited for, or -1 if shut down
+         */
+        private long waitForNextTick() {
+            long deadline = tickNanos * (tick + 1);
+            while (true) {
+                long current = System.nanoTime() - startNanos;
+                long sleepNanos = deadline - current;
+                if (sleepNanos <= 0) {
+                    return current;
+                }
+                LockSupport.parkNanos(this, sleepNanos);
+                if (Thread.interrupted() && workerState.get() == WORKER_SHUTDOWN) {
+                    return -1;
+                }
+            }
+        }
+
+        private void transferPending() {
+            Timeout timeout;
+            while ((timeout = pending.poll()) != null) {
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                long calculated = Math.max(timeout.deadlineNanos, 0) / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+
+                // Late (or due this tick): put it in the current bucket so it is run right away
+                long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+
+        private void processCancelled() {
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.ezauton.core.utils;
+
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A clock where time only moves when told to, for fast-forwarding tests of multithreaded actions.
+ * <p>
+ * {@link VirtualClock#scheduleAt(long, Runnable)} queues runnables in time order and {@link VirtualClock#sleep(long, TimeUnit)}
+ * parks the calling thread until the virtual time reaches its deadline. {@link VirtualClock#advanceTo(long)} and
+ * {@link VirtualClock#advanceUntilIdle()} then jump from event to event, so an hour of sleeping takes no real time.
+ * <p>
+ * Events are handled one at a time, in time order (and FIFO for the same time). Runnables are run on the advancing
+ * thread. For a sleeping thread, the advancing thread wakes it and then waits until it sleeps on this clock again,
+ * blocks on something else or terminates before handling the next event, so threads never race each other and results
+ * are deterministic. Threads started by a woken thread are not waited for until they first sleep, so start actions
+ * before advancing (see {@link VirtualClock#awaitSleeping(int, long, TimeUnit)}).
+ */
+public final class VirtualClock implements Clock {
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final Set<Thread> sleeping = new HashSet<>();
+
+    private volatile long time;
+    private long sequence = 0;
+    private volatile Thread advancingThread;
+
+    /**
+     * Create a clock which starts at 0
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * @param startTime The time the clock starts at
+     */
+    public VirtualClock(long startTime) {
+        this.time = startTime;
+    }
+
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Queue a runnable to be run by {@link VirtualClock#advanceTo(long)} on the advancing thread. A time before the current
+     * time is treated as the current time.
+     *
+     * @param millis   The timestamp at which the runnable should be run
+     * @param runnable The thing to run
+     */
+    @Override
+    public void scheduleAt(long millis, Runnable runnable) {
+        synchronized (lock) {
+            events.add(new Event(Math.max(millis, time), sequence++, runnable, null));
+        }
+    }
+
+    /**
+     * Park the calling thread until the clock is advanced past the deadline
+     *
+     * @throws IllegalStateException If called from the advancing thread (e.g., in a scheduled runnable), which would
+     *                               never wake up
+     */
+    @Override
+    public void sleep(long dt, TimeUnit timeUnit) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        if (current == advancingThread) {
+            throw new IllegalStateException("Cannot sleep on the thread advancing the clock. Use scheduleAt instead");
+        }
+        long millis = timeUnit.toMillis(dt);
+        if (millis <= 0) {
+            return;
+        }
+        Event event;
+        synchronized (lock) {
+            event = new Event(time + millis, sequence++, null, current);
+            events.add(event);
+            sleeping.add(current);
+            lock.notifyAll();
+        }
+        // Parked outside of the lock, so a virtual thread does not keep its platform thread while it sleeps
+        try {
+            while (!event.woken) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                if (!event.woken) {
+                    events.remove(event);
+                    sleeping.remove(current);
+                }
+            }
+            throw e;
+        } finally {
+            synchronized (lock) {
+                event.resumed = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Handle every event up to the time and then set the clock to it
+     *
+     * @param millis The time to advance to
+     */
+    public void advanceTo(long millis) {
+        advance(millis, false);
+    }
+
+    /**
+     * @param dt       How much to advance the clock by
+     * @param timeUnit The timeunit that dt is in
+     */
+    public void advanceBy(long dt, TimeUnit timeUnit) {
+        advanceTo(time + timeUnit.toMillis(dt));
+    }
+
+    /**
+     * Handle events until there are none left. The clock is left at the time of the last event. Does not return if
+     * something keeps scheduling events (e.g., a periodic action which never finishes).
+     *
+     * @return The time of the clock
+     */
+    public long advanceUntilIdle() {
+        advance(Long.MAX_VALUE, true);
+        return time;
+    }
+
+    /**
+     * Wait (in real time) until some number of threads are sleeping on this clock, e.g., until just-scheduled actions have
+     * started
+     *
+     * @param threads  How many threads should be sleeping
+     * @param timeout  The longest to wait
+     * @param timeUnit The timeunit that the timeout is in
+     * @return If that many threads are sleeping
+     */
+    public boolean awaitSleeping(int threads, long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        synchronized (lock) {
+            while (sleeping.size() < threads) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return How many threads are sleeping on this clock
+     */
+    public int getSleepingCount() {
+        synchronized (lock) {
+            return sleeping.size();
+        }
+    }
+
+    /**
+     * @return How many runnables and sleeping threads are waiting for the clock
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return events.size();
+        }
+    }
+
+    private void advance(long target, boolean untilIdle) {
+        Thread current = Thread.currentThread();
+        synchronized (lock) {
+            if (advancingThread != null) {
+                throw new IllegalStateException("The clock is already being advanced");
+            }
+            advancingThread = current;
+        }
+        try {
+            while (true) {
+                Event event;
+                synchronized (lock) {
+                    event = events.peek();
+                    if (event == null || event.time > target) {
+                        if (!untilIdle) {
+                            time = Math.max(time, target);
+                        }
+                        return;
+                    }
+                    events.poll();
+                    time = event.time;
+                    if (event.sleeper != null) {
+                        sleeping.remove(event.sleeper);
+                        event.woken = true;
+                        LockSupport.unpark(event.sleeper);
+                    }
+                }
+                if (event.sleeper == null) {
+                    event.runnable.run();
+                } else {
+                    awaitQuiescence(event);
+                }
+            }
+        } finally {
+            advancingThread = null;
+        }
+    }
+
+    /**
+     * Wait until a woken thread sleeps on this clock again, waits on something else or terminates
+     */
+    private void awaitQuiescence(Event event) {
+        Thread thread = event.sleeper;
+        synchronized (lock) {
+            while (true) {
+                if (event.resumed) {
+                    if (sleeping.contains(thread)) {
+                        return;
+                    }
+                    Thread.State state = thread.getState();
+                    if (state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING || state == Thread.State.TERMINATED) {
+                        return;
+                    }
+                }
+                try {
+                    lock.wait(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long sequence;
+        private final Runnable runnable;
+        private final Thread sleeper;
+
+        // Set under the lock
+        private volatile boolean woken = false;
+        private boolean resumed = false;
+
+        private Event(long time, long sequence, Runnable runnable, Thread sleeper) {
+            this.time = time;
+            this.sequence = sequence;
+            this.runnable = runnable;
+            this.sleeper = sleeper;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int timeComparison = Long.compare(time, other.time);
+            return timeComparison != 0 ? timeComparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
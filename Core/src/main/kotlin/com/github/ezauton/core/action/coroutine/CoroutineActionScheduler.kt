@@ -0,0 +1,67 @@
+package com.github.ezauton.core.action.coroutine
+
+import com.github.ezauton.core.utils.Clock
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancelChildren
+import java.util.concurrent.CompletableFuture
+import kotlin.coroutines.CoroutineContext
+
+/**
+ * Runs [SuspendingAction]s as coroutines. Actions only use a thread of the dispatcher while they are doing
+ * something, so thousands of them can share a few threads.
+ *
+ * With a simulated clock (e.g., [com.github.ezauton.core.utils.VirtualClock]), use [Dispatchers.Unconfined]. Actions
+ * are then resumed on the thread advancing the clock and run until their next delay before the clock moves on, which
+ * makes the simulation deterministic.
+ *
+ * @param clock   The clock which delays are measured with
+ * @param context Where actions run. By default, [Dispatchers.Default], which has one thread per core.
+ */
+class CoroutineActionScheduler @JvmOverloads constructor(
+        val clock: Clock,
+        context: CoroutineContext = Dispatchers.Default
+) {
+    private val job = SupervisorJob()
+    private val scope = CoroutineScope(context + job)
+
+    /**
+     * Run an action. One action failing does not affect the others.
+     *
+     * @return A future which is completed when the action is finished. Cancelling it cancels the coroutine, which
+     * stops at its next suspension point.
+     */
+    fun scheduleAction(action: SuspendingAction): CompletableFuture<Void> {
+        val future = CompletableFuture<Void>()
+        // async instead of launch so failures end up in the future instead of the default exception handler
+        val deferred = scope.async { action.run(ActionContext(clock, this)) }
+        deferred.invokeOnCompletion { cause ->
+            when (cause) {
+                null -> future.complete(null)
+                is CancellationException -> future.cancel(false)
+                else -> future.completeExceptionally(cause)
+            }
+        }
+        future.whenComplete { _, _ ->
+            if (future.isCancelled) {
+                deferred.cancel()
+            }
+        }
+        return future
+    }
+
+    /**
+     * Cancel all running actions. The scheduler can still be used after.
+     */
+    fun killAll() {
+        job.cancelChildren()
+    }
+
+    /**
+     * @return How many actions are running
+     */
+    fun getRunningCount() = job.children.count()
+}
@@ -0,0 +1,163 @@
+package com.github.ezauton.core.action.coroutine
+
+import com.github.ezauton.core.action.ActionGroup
+import com.github.ezauton.core.utils.Clock
+import com.github.ezauton.core.utils.RealClock
+import com.github.ezauton.core.utils.TimingWheelClock
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.yield
+import java.util.concurrent.TimeUnit
+import kotlin.coroutines.resume
+
+/**
+ * An action which is a suspend function. Unlike an [com.github.ezauton.core.action.Action], it does not hold a
+ * thread while it waits: [ActionContext.delay] suspends until the [Clock] reaches the deadline, so thousands of them
+ * can run on a small dispatcher.
+ *
+ * Cancellation is cooperative. It takes effect right away at a suspension point (e.g., a delay) instead of relying on
+ * a thread being interrupted, and `finally` blocks run like they would for any coroutine.
+ */
+interface SuspendingAction {
+    suspend fun run(context: ActionContext)
+}
+
+/**
+ * Create a [SuspendingAction] from a suspending block
+ */
+fun suspendingAction(block: suspend ActionContext.() -> Unit): SuspendingAction = object : SuspendingAction {
+    override suspend fun run(context: ActionContext) = context.block()
+}
+
+/**
+ * What a [SuspendingAction] runs with: the [clock] to measure time with and a [CoroutineScope] to launch children in
+ */
+class ActionContext(val clock: Clock, scope: CoroutineScope) : CoroutineScope by scope {
+
+    /**
+     * Suspend until the clock has moved forward by [dt]
+     */
+    suspend fun delay(dt: Long, timeUnit: TimeUnit) = clock.delay(dt, timeUnit)
+
+    /**
+     * Run [block] every [period] until it returns false. Like a [com.github.ezauton.core.action.PeriodicAction],
+     * cycles are scheduled relative to when the loop started, so a slow cycle is caught up on instead of pushing back
+     * every cycle after it.
+     */
+    suspend fun periodic(period: Long, timeUnit: TimeUnit, block: suspend () -> Boolean) {
+        val periodNanos = timeUnit.toNanos(period)
+        require(periodNanos > 0) { "period must be positive" }
+        val start = clock.timeNanos
+        var cycles = 0L
+        while (block()) {
+            cycles++
+            clock.delayUntilNanos(start + periodNanos * cycles)
+        }
+    }
+
+    /**
+     * Run another action as part of this one and wait for it to finish
+     */
+    suspend fun runAction(action: SuspendingAction) = action.run(this)
+}
+
+/**
+ * Suspend until this clock has moved forward by [dt]. The coroutine is resumed by a runnable scheduled on the clock,
+ * so with a simulated clock, the delay ends when the clock is advanced.
+ */
+suspend fun Clock.delay(dt: Long, timeUnit: TimeUnit) {
+    delayUntilNanos(timeNanos + timeUnit.toNanos(dt))
+}
+
+/**
+ * Suspend until this clock reaches a time in nanoseconds (see [Clock.getTimeNanos]). A cancelled delay is taken off a
+ * [RealClock] or [TimingWheelClock] right away. Other clocks cannot cancel a scheduled runnable, so there it stays
+ * scheduled until its time, but does nothing then.
+ */
+suspend fun Clock.delayUntilNanos(nanos: Long) {
+    if (nanos <= timeNanos) {
+        yield() // still a suspension point, so a busy loop can be cancelled
+        return
+    }
+    suspendCancellableCoroutine<Unit> { continuation ->
+        val resume = Runnable {
+            if (continuation.isActive) {
+                continuation.resume(Unit)
+            }
+        }
+        when (this) {
+            is RealClock -> {
+                val future = scheduleNanos(nanos, resume)
+                continuation.invokeOnCancellation { future.cancel(false) }
+            }
+            is TimingWheelClock -> {
+                val timeout = scheduleNanos(nanos, resume)
+                continuation.invokeOnCancellation { timeout.cancel() }
+            }
+            else -> scheduleAtNanos(nanos, resume)
+        }
+    }
+}
+
+/**
+ * A group of [SuspendingAction]s, composed like an [ActionGroup] but run with structured concurrency. The group is a
+ * coroutine scope: it finishes when all of its children have, and if a child fails, the rest are cancelled and the
+ * group fails too.
+ *
+ * - Sequential actions run one after another in the group's coroutine.
+ * - Parallel actions are launched and end in their own time.
+ * - With actions are launched and cancelled when the next sequential action finishes.
+ */
+class SuspendingActionGroup : SuspendingAction {
+    private val actions = mutableListOf<Pair<SuspendingAction, ActionGroup.Type>>()
+
+    fun addSequential(action: SuspendingAction) = add(action, ActionGroup.Type.SEQUENTIAL)
+
+    fun addParallel(action: SuspendingAction) = add(action, ActionGroup.Type.PARALLEL)
+
+    fun with(action: SuspendingAction) = add(action, ActionGroup.Type.WITH)
+
+    private fun add(action: SuspendingAction, type: ActionGroup.Type): SuspendingActionGroup {
+        actions.add(action to type)
+        return this
+    }
+
+    override suspend fun run(context: ActionContext) = coroutineScope {
+        val groupContext = ActionContext(context.clock, this)
+        val withs = mutableListOf<Job>()
+        for ((action, type) in actions) {
+            when (type) {
+                ActionGroup.Type.SEQUENTIAL -> {
+                    action.run(groupContext)
+                    withs.forEach { it.cancel() }
+                    withs.clear()
+                }
+                ActionGroup.Type.PARALLEL -> launch { action.run(ActionContext(context.clock, this)) }
+                ActionGroup.Type.WITH -> withs.add(launch { action.run(ActionContext(context.clock, this)) })
+            }
+        }
+    }
+
+    companion object {
+        @JvmStatic
+        fun ofSequentials(vararg actions: SuspendingAction) = SuspendingActionGroup().apply { actions.forEach { addSequential(it) } }
+
+        @JvmStatic
+        fun ofParallels(vararg actions: SuspendingAction) = SuspendingActionGroup().apply { actions.forEach { addParallel(it) } }
+    }
+}
+
+/**
+ * Build a [SuspendingActionGroup], e.g.,
+ * ```
+ * actionGroup {
+ *     with(intake)
+ *     addSequential(driveToBall)
+ *     addSequential(shoot)
+ * }
+ * ```
+ */
+fun actionGroup(build: SuspendingActionGroup.() -> Unit) = SuspendingActionGroup().apply(build)
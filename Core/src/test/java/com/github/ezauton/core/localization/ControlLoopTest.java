@@ -0,0 +1,124 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import com.github.ezauton.core.simulation.SimulatedTankRobot;
+import com.github.ezauton.core.utils.ManualClock;
+import com.github.ezauton.core.utils.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControlLoopTest {
+
+    @Test
+    public void testPhaseOrder() throws Exception {
+        List<String> log = new ArrayList<>();
+        ControlLoop loop = new ControlLoop();
+        loop.addRunnable(() -> log.add("runnable"));
+        loop.add(ControlLoop.Phase.RECORD, logging(log, "record"));
+        loop.add(ControlLoop.Phase.ACTUATE, logging(log, "actuate"));
+        loop.add(ControlLoop.Phase.PLAN, logging(log, "plan"));
+        loop.add(ControlLoop.Phase.ESTIMATE, logging(log, "estimate"));
+        loop.add(ControlLoop.Phase.SENSE, logging(log, "sense 1"), logging(log, "sense 2"));
+
+        loop.start(new ActionRunInfo(new ManualClock(), null));
+        assertEquals(Arrays.asList("sense 1", "sense 2", "estimate", "plan", "actuate", "record", "runnable"), log);
+
+        Updateable removed = loop.getUpdateables(ControlLoop.Phase.SENSE).get(0);
+        assertTrue(loop.remove(ControlLoop.Phase.SENSE, removed));
+        log.clear();
+        assertFalse(loop.step());
+        assertEquals(Arrays.asList("sense 2", "estimate", "plan", "actuate", "record", "runnable"), log);
+
+        loop.stop();
+        assertTrue(loop.step());
+        assertEquals(2, loop.getPhaseHistogram(ControlLoop.Phase.SENSE).getCount());
+        assertEquals(2, loop.getSenseToActuateHistogram().getCount());
+    }
+
+    @Test
+    public void testParallelPhase() throws Exception {
+        // Only finishes if all four are updated at the same time
+        CyclicBarrier barrier = new CyclicBarrier(4);
+        Updateable sensor = () -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return true;
+        };
+        List<String> log = new ArrayList<>();
+        ControlLoop loop = new ControlLoop()
+                .add(ControlLoop.Phase.SENSE, sensor, sensor, sensor, sensor)
+                .add(ControlLoop.Phase.ESTIMATE, logging(log, "estimate"))
+                .setParallel(ControlLoop.Phase.SENSE, true);
+        assertTrue(loop.isParallel(ControlLoop.Phase.SENSE));
+
+        loop.start(new ActionRunInfo(new ManualClock(), null));
+        assertEquals(Arrays.asList("estimate"), log);
+        assertEquals(0, barrier.getNumberWaiting());
+
+        ControlLoop failing = new ControlLoop()
+                .add(ControlLoop.Phase.SENSE, logging(log, "ok"), () -> {
+                    throw new IllegalStateException("sensor unplugged");
+                })
+                .setParallel(ControlLoop.Phase.SENSE, true);
+        Exception e = assertThrows(Exception.class, () -> failing.start(new ActionRunInfo(new ManualClock(), null)));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testPhaseTiming() throws Exception {
+        // Only moves when planning, by 2 ms
+        long[] nanos = {0};
+        ControlLoop loop = new ControlLoop()
+                .add(ControlLoop.Phase.PLAN, () -> {
+                    nanos[0] += 2_000_000;
+                    return true;
+                })
+                .setNanoTime(() -> nanos[0]);
+        loop.start(new ActionRunInfo(new ManualClock(), null));
+        assertFalse(loop.step());
+
+        assertEquals(2, loop.getPhaseHistogram(ControlLoop.Phase.PLAN).getCount());
+        assertEquals(2_000, loop.getPhaseHistogram(ControlLoop.Phase.PLAN).getMin());
+        assertEquals(2_000, loop.getSenseToActuateHistogram().getMax());
+        assertEquals(0, loop.getPhaseHistogram(ControlLoop.Phase.RECORD).getMax());
+    }
+
+    @Test
+    public void testRunsSimulatedRobot() throws Exception {
+        VirtualClock clock = new VirtualClock();
+        SimulatedTankRobot robot = new SimulatedTankRobot(1, clock, 40, 0.3, 16);
+        robot.getDefaultLocEstimator().reset();
+
+        ControlLoop loop = new ControlLoop(5, TimeUnit.MILLISECONDS);
+        robot.addTo(loop);
+        // Setting the velocity restarts the ramp up, and time does not move within a simulated cycle, so set it once
+        robot.run(1, 1);
+
+        CompletableFuture<Void> future = loop.schedule(new MainActionScheduler(clock));
+        assertTrue(clock.awaitSleeping(1, 1, TimeUnit.SECONDS));
+        clock.advanceBy(500, TimeUnit.MILLISECONDS);
+        loop.stop();
+        clock.advanceUntilIdle();
+        future.get(1, TimeUnit.SECONDS);
+
+        // At 0, 5, ..., 500 ms
+        assertEquals(101, loop.getTimesRun());
+        assertTrue(robot.getDefaultLocEstimator().estimateLocation().get(1) > 0);
+    }
+
+    private static Updateable logging(List<String> log, String name) {
+        return () -> log.add(name);
+    }
+}
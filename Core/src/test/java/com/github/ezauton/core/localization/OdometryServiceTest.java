@@ -0,0 +1,128 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.simulation.SimulatedTankRobot;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OdometryServiceTest {
+
+    @Test
+    public void testMatchesEncoderEstimator() throws Exception {
+        ManualClock clock = new ManualClock();
+        SimulatedTankRobot robot = new SimulatedTankRobot(1, clock, 40, 0.3, 16);
+        TankRobotEncoderEncoderEstimator estimator = robot.getDefaultLocEstimator();
+        estimator.reset();
+
+        OdometryService odometry = new OdometryService(5, TimeUnit.MILLISECONDS, robot.getLeftDistanceSensor(), robot.getRightDistanceSensor(), robot);
+        odometry.reset();
+        odometry.start(new ActionRunInfo(clock, null));
+        long samples = odometry.getSampleCount();
+
+        robot.run(1, 2);
+        for (int i = 0; i < 100; i++) {
+            clock.addTime(5, TimeUnit.MILLISECONDS);
+            robot.update();
+            odometry.step();
+        }
+        assertEquals(samples + 100, odometry.getSampleCount());
+
+        ImmutableVector expected = estimator.estimateLocation();
+        OdometryService.Pose pose = odometry.getPose();
+        assertEquals(expected.get(0), pose.getX(), 1E-6);
+        assertEquals(expected.get(1), pose.getY(), 1E-6);
+        assertEquals(estimator.estimateHeading(), odometry.estimateHeading(), 1E-6);
+        assertEquals(1.5, pose.getVelocity(), 1E-6);
+        assertEquals(clock.getTime(), pose.getTime());
+        assertTrue(expected.dist(odometry.estimateLocation()) < 1E-6);
+
+        odometry.stop();
+        assertTrue(odometry.step());
+    }
+
+    @Test
+    public void testGyroHeading() {
+        double[] position = {0};
+        TranslationalDistanceSensor encoder = new TranslationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return position[0];
+            }
+
+            @Override
+            public double getVelocity() {
+                return 1;
+            }
+        };
+        double[] gyroHeading = {1};
+        OdometryService odometry = new OdometryService(5, TimeUnit.MILLISECONDS, encoder, encoder, () -> 1, () -> gyroHeading[0]);
+        odometry.reset();
+
+        // Turn in place, then drive 2 forward facing left
+        gyroHeading[0] += Math.PI / 2;
+        odometry.integrate();
+        position[0] = 2;
+        odometry.integrate();
+
+        assertEquals(Math.PI / 2, odometry.estimateHeading(), 1E-6);
+        assertEquals(-2, odometry.getPose().getX(), 1E-6);
+        assertEquals(0, odometry.getPose().getY(), 1E-6);
+
+        assertThrows(IllegalStateException.class, new OdometryService(5, TimeUnit.MILLISECONDS, encoder, encoder, () -> 1)::integrate);
+    }
+
+    @Test
+    public void testConsistentSnapshots() throws Exception {
+        // Drive diagonally, so x and y of any single sample are equal
+        AtomicLong position = new AtomicLong();
+        TranslationalDistanceSensor encoder = new TranslationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return position.get();
+            }
+
+            @Override
+            public double getVelocity() {
+                return position.get();
+            }
+        };
+        double[] gyroHeading = {0};
+        OdometryService odometry = new OdometryService(5, TimeUnit.MILLISECONDS, encoder, encoder, () -> 1, () -> gyroHeading[0]);
+        odometry.reset();
+        gyroHeading[0] = -Math.PI / 4;
+        odometry.integrate();
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                position.incrementAndGet();
+                odometry.integrate();
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        long reads = 0;
+        while (!done.get()) {
+            OdometryService.Pose pose = odometry.getPose();
+            assertEquals(pose.getX(), pose.getY(), 1E-6 * Math.max(1, pose.getX()));
+            assertEquals(pose.getLeftVelocity() * Math.sqrt(0.5), pose.getX(), 1E-6 * Math.max(1, pose.getX()));
+
+            ImmutableVector location = odometry.estimateLocation();
+            assertEquals(location.get(0), location.get(1), 1E-6 * Math.max(1, location.get(0)));
+            reads++;
+        }
+        writer.join();
+        assertTrue(reads > 0);
+        assertEquals(200_000 * Math.sqrt(0.5), odometry.getPose().getX(), 1E-3);
+    }
+}
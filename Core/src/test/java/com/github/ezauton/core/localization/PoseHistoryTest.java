@@ -0,0 +1,108 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoseHistoryTest {
+
+    @Test
+    public void testInterpolation() {
+        PoseHistory history = new PoseHistory(4);
+        double[] pose = new double[3];
+        assertFalse(history.lookup(0, pose));
+
+        history.add(100, 0, 0, 0);
+        history.add(200, 10, 20, 1);
+        history.add(200, 12, 20, 1);
+        history.add(400, 12, 0, 3);
+
+        assertTrue(history.lookup(150, pose));
+        assertArrayEquals(new double[]{5, 10, 0.5}, pose, 1E-9);
+
+        // Duplicate times resolve to the newest
+        assertTrue(history.lookup(200, pose));
+        assertArrayEquals(new double[]{12, 20, 1}, pose, 1E-9);
+
+        assertTrue(history.lookup(350, pose));
+        assertArrayEquals(new double[]{12, 5, 2.5}, pose, 1E-9);
+
+        // After the newest pose, use the newest pose
+        assertTrue(history.lookup(1_000, pose));
+        assertArrayEquals(new double[]{12, 0, 3}, pose, 1E-9);
+
+        assertFalse(history.lookup(99, pose));
+        assertThrows(IllegalArgumentException.class, () -> history.getLocation(99));
+        assertThrows(IllegalArgumentException.class, () -> history.add(399, 0, 0, 0));
+    }
+
+    @Test
+    public void testWrapsAround() {
+        PoseHistory history = new PoseHistory(8);
+        for (int i = 0; i < 21; i++) {
+            history.add(i * 10, i, -i, i / 10D);
+        }
+        assertEquals(8, history.size());
+        assertEquals(130, history.getOldestTime());
+        assertEquals(200, history.getNewestTime());
+
+        assertFalse(history.lookup(125, new double[3]));
+        for (long t = 130; t <= 200; t++) {
+            assertEquals(t / 10D, history.getLocation(t).get(0), 1E-9);
+            assertEquals(-t / 10D, history.getLocation(t).get(1), 1E-9);
+            assertEquals(t / 100D, history.getHeading(t), 1E-9);
+        }
+
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(Long.MAX_VALUE, history.getOldestTime());
+    }
+
+    @Test
+    public void testHeadingShortWayAround() {
+        PoseHistory history = new PoseHistory(4);
+        history.add(0, 0, 0, 6.2);
+        history.add(100, 0, 0, 0.1);
+        history.add(200, 0, 0, 6.2);
+
+        // 0.1 is 0.1 + 2 pi - 6.2 (about 0.18) counterclockwise of 6.2, not 6.1 clockwise
+        double step = 0.1 + 2 * Math.PI - 6.2;
+        assertEquals(6.2 + step / 2, history.getHeading(50), 1E-9);
+        assertEquals(0.1 - step / 4, history.getHeading(125), 1E-9);
+        assertEquals(0.1, history.getHeading(100), 1E-9);
+    }
+
+    @Test
+    public void testRecordsEstimators() {
+        ManualClock clock = new ManualClock();
+        double[] location = {0, 0};
+        TranslationalLocationEstimator estimator = new TranslationalLocationEstimator() {
+            @Override
+            public ImmutableVector estimateLocation() {
+                return new ImmutableVector(location);
+            }
+
+            @Override
+            public ImmutableVector estimateAbsoluteVelocity() {
+                return ImmutableVector.origin(2);
+            }
+        };
+        PoseHistory history = new PoseHistory(100, clock, estimator, () -> location[0] / 2);
+
+        for (int i = 0; i < 10; i++) {
+            location[0] = i;
+            history.update();
+            clock.addTime(20, TimeUnit.MILLISECONDS);
+        }
+
+        assertEquals(10, history.size());
+        assertEquals(new ImmutableVector(4.5, 0), history.getLocation(TimeUnit.MILLISECONDS.toNanos(90)));
+        assertEquals(2.25, history.getHeading(TimeUnit.MILLISECONDS.toNanos(90)), 1E-9);
+
+        assertThrows(IllegalStateException.class, new PoseHistory(1)::update);
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.localization.sensors.Compass;
+import com.github.ezauton.core.localization.sensors.SensorCache;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.utils.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SensorCacheTest {
+
+    @Test
+    public void testReadOncePerCycle() {
+        AtomicInteger reads = new AtomicInteger();
+        TranslationalDistanceSensor sensor = new TranslationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return reads.incrementAndGet();
+            }
+
+            @Override
+            public double getVelocity() {
+                reads.incrementAndGet();
+                return -1;
+            }
+        };
+
+        SensorCache cache = new SensorCache();
+        TranslationalDistanceSensor cached = cache.cached(sensor);
+        cache.update();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, cached.getPosition(), 1E-6);
+        }
+        assertEquals(1, reads.get());
+        assertEquals(-1, cached.getVelocity(), 1E-6);
+        assertEquals(2, reads.get());
+        assertEquals(4, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        cache.update();
+        assertEquals(3, cached.getPosition(), 1E-6);
+
+        cache.invalidate();
+        assertEquals(4, cached.getPosition(), 1E-6);
+        assertEquals(4, cache.getMisses());
+
+        cache.resetCounters();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testControlLoopSamplesEachCycle() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Compass compass = () -> reads.incrementAndGet() * 10;
+
+        SensorCache cache = new SensorCache();
+        Compass cached = cache.cached(compass);
+        double[] seen = new double[2];
+        ControlLoop loop = new ControlLoop()
+                .add(ControlLoop.Phase.SENSE, cache)
+                .add(ControlLoop.Phase.ESTIMATE, () -> {
+                    seen[0] = cached.getDegrees();
+                    return true;
+                })
+                .add(ControlLoop.Phase.RECORD, () -> {
+                    seen[1] = cached.getRadians();
+                    return true;
+                });
+
+        loop.start(new ActionRunInfo(new ManualClock(), null));
+        loop.step();
+        assertEquals(2, reads.get());
+        assertEquals(20, seen[0], 1E-6);
+        assertEquals(Math.toRadians(20), seen[1], 1E-6);
+        assertEquals(2, cache.getHits());
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.localization.estimators.TankRobotEkfEstimator;
+import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
+import com.github.ezauton.core.localization.sensors.TranslationalDistanceSensor;
+import com.github.ezauton.core.robot.TankRobotConstants;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TankRobotEkfEstimatorTest {
+
+    private static final TankRobotConstants ROBOT = () -> 2;
+
+    // The true state of the robot, and what its sensors say
+    private double x, y, heading;
+    private double leftDistance, rightDistance;
+    private double leftSlip = 1;
+    private double gyroNoise = 0;
+    private boolean gyroWraps = false;
+    private final Random random = new Random(5254);
+
+    private final TranslationalDistanceSensor left = distanceSensor(true);
+    private final TranslationalDistanceSensor right = distanceSensor(false);
+    private final RotationalLocationEstimator gyro = () -> {
+        double reading = heading + random.nextGaussian() * gyroNoise;
+        return gyroWraps ? reading - 2 * Math.PI * Math.floor(reading / (2 * Math.PI)) : reading;
+    };
+
+    @Test
+    public void testPerfectSensors() {
+        TankRobotEkfEstimator ekf = new TankRobotEkfEstimator(left, right, ROBOT, gyro);
+        ekf.reset();
+
+        // Only off by moving along chords instead of arcs
+        drive(ekf, 500, 0.01, 0.02);
+        assertEquals(x, ekf.estimateLocation().get(0), 1E-4);
+        assertEquals(y, ekf.estimateLocation().get(1), 1E-4);
+        assertEquals(heading, ekf.estimateHeading(), 1E-9);
+        assertTrue(ekf.getCovariance(0, 0) > 0);
+        assertEquals(ekf.getCovariance(0, 2), ekf.getCovariance(2, 0), 1E-12);
+    }
+
+    @Test
+    public void testBeatsEncodersWhenSlipping() {
+        leftSlip = 1.05;
+        gyroNoise = 0.01;
+        TankRobotEkfEstimator ekf = new TankRobotEkfEstimator(left, right, ROBOT, gyro).setNoise(1E-3, 1E-6, gyroNoise * gyroNoise);
+        TankRobotEncoderEncoderEstimator encoders = new TankRobotEncoderEncoderEstimator(left, right, ROBOT);
+        ekf.reset();
+        encoders.reset();
+
+        UpdateableGroup both = new UpdateableGroup(ekf, encoders);
+        for (int i = 0; i < 1_000; i++) {
+            step(0.01, 0.012);
+            both.update();
+        }
+
+        ImmutableVector truth = new ImmutableVector(x, y);
+        double ekfError = truth.dist(ekf.estimateLocation());
+        double encoderError = truth.dist(encoders.estimateLocation());
+        assertTrue(ekfError < encoderError / 2, "EKF error " + ekfError + " vs encoder error " + encoderError);
+        assertEquals(heading, ekf.estimateHeading(), 0.05);
+        assertTrue(Math.abs(heading - encoders.estimateHeading()) > 0.1);
+    }
+
+    @Test
+    public void testWrappingGyro() {
+        gyroWraps = true;
+        TankRobotEkfEstimator ekf = new TankRobotEkfEstimator(left, right, ROBOT, gyro);
+        ekf.reset();
+
+        // Spin in place for a bit more than two turns
+        drive(ekf, 1_000, -0.015, 0.015);
+        assertTrue(heading > 4 * Math.PI);
+        assertEquals(heading, ekf.estimateHeading(), 1E-6);
+        assertThrows(IllegalArgumentException.class, new TankRobotEkfEstimator(left, right, ROBOT, gyro)::update);
+    }
+
+    private void drive(Updateable estimator, int steps, double dl, double dr) {
+        for (int i = 0; i < steps; i++) {
+            step(dl, dr);
+            estimator.update();
+        }
+    }
+
+    /**
+     * Move the wheels by dl and dr along an arc
+     */
+    private void step(double dl, double dr) {
+        double d = (dl + dr) / 2;
+        double dTheta = (dr - dl) / ROBOT.getLateralWheelDistance();
+        if (Math.abs(dTheta) < 1E-12) {
+            x -= d * Math.sin(heading);
+            y += d * Math.cos(heading);
+        } else {
+            double r = d / dTheta;
+            x += r * (Math.cos(heading + dTheta) - Math.cos(heading));
+            y += r * (Math.sin(heading + dTheta) - Math.sin(heading));
+        }
+        heading += dTheta;
+        leftDistance += dl * leftSlip;
+        rightDistance += dr;
+    }
+
+    private TranslationalDistanceSensor distanceSensor(boolean isLeft) {
+        return new TranslationalDistanceSensor() {
+            @Override
+            public double getPosition() {
+                return isLeft ? leftDistance : rightDistance;
+            }
+
+            @Override
+            public double getVelocity() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.ezauton.core.localization;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.actuators.implementations.BaseSimulatedMotor;
+import com.github.ezauton.core.localization.estimators.EncoderRotationEstimator;
+import com.github.ezauton.core.utils.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickedUpdateableTest {
+
+    @Test
+    public void testSharedEstimatorSteppedOnce() {
+        ManualClock clock = new ManualClock();
+        CountingGyro gyro = new CountingGyro();
+        BaseSimulatedMotor encoder = new BaseSimulatedMotor(clock);
+        EncoderRotationEstimator estimator = new EncoderRotationEstimator(gyro, encoder);
+        estimator.reset();
+
+        // The gyro is updated by the group and by the estimator
+        UpdateableGroup group = new UpdateableGroup(gyro, estimator);
+        for (int i = 0; i < 10; i++) {
+            group.update();
+        }
+        assertEquals(10, gyro.steps);
+
+        // Without a tick, each update is its own cycle
+        estimator.update();
+        gyro.update();
+        assertEquals(12, gyro.steps);
+    }
+
+    @Test
+    public void testCachedResult() {
+        AtomicInteger steps = new AtomicInteger();
+        TickedUpdateable ticked = TickedUpdateable.of(() -> steps.incrementAndGet() % 2 == 1);
+        assertSame(ticked, TickedUpdateable.of(ticked));
+
+        long tick = TickedUpdateable.nextTick();
+        assertTrue(ticked.update(tick));
+        assertTrue(ticked.update(tick));
+        assertEquals(1, steps.get());
+
+        assertFalse(ticked.update(TickedUpdateable.nextTick()));
+        assertEquals(2, steps.get());
+    }
+
+    @Test
+    public void testFailedStepIsRetried() {
+        AtomicInteger steps = new AtomicInteger();
+        TickedUpdateable ticked = TickedUpdateable.of(() -> {
+            if (steps.incrementAndGet() == 1) {
+                throw new IllegalStateException("sensor unplugged");
+            }
+            return true;
+        });
+
+        long tick = TickedUpdateable.nextTick();
+        assertThrows(IllegalStateException.class, () -> ticked.update(tick));
+        assertTrue(ticked.update(tick));
+        assertEquals(2, steps.get());
+    }
+
+    @Test
+    public void testControlLoopStepsOncePerCycle() throws Exception {
+        CountingGyro gyro = new CountingGyro();
+        ControlLoop loop = new ControlLoop()
+                .add(ControlLoop.Phase.SENSE, gyro)
+                .add(ControlLoop.Phase.ESTIMATE, new UpdateableGroup(gyro))
+                .add(ControlLoop.Phase.RECORD, gyro);
+
+        loop.start(new ActionRunInfo(new ManualClock(), null));
+        loop.step();
+        loop.step();
+        assertEquals(3, gyro.steps);
+    }
+
+    private static class CountingGyro extends TickedUpdateable implements RotationalLocationEstimator {
+        private int steps = 0;
+
+        @Override
+        protected boolean step(long tick) {
+            steps++;
+            return true;
+        }
+
+        @Override
+        public double estimateHeading() {
+            return 0;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.github.ezauton.core.helper.PathHelper;
 import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
 import com.github.ezauton.core.pathplanning.PP_PathGenerator;
 import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.TrajectoryGenerator;
 import com.github.ezauton.core.pathplanning.purepursuit.*;
 import com.github.ezauton.core.robot.implemented.TankRobotTransLocDriveable;
 import com.github.ezauton.core.simulation.SimulatedTankRobot;
@@ -79,6 +80,13 @@ public class PPSimulatorTest {
                 .generate(0.05));
     }
 
+    @Test
+    public void testSplineTrajectory() throws TimeoutException, ExecutionException {
+        test("testSplineTrajectory", new TrajectoryGenerator(15, 13, -12, 8)
+                .generate(TrajectoryGeneratorTest.splines())
+                .toPath());
+    }
+
     private void test(String name, Path path) throws TimeoutException, ExecutionException {
 
         PurePursuitMovementStrategy ppMoveStrat = new PurePursuitMovementStrategy(path, 0.001);
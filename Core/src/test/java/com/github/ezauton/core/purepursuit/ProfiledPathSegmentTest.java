@@ -0,0 +1,108 @@
+package com.github.ezauton.core.purepursuit;
+
+import com.github.ezauton.core.pathplanning.MotionState;
+import com.github.ezauton.core.pathplanning.PP_PathGenerator;
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.PathSegment;
+import com.github.ezauton.core.pathplanning.ProfiledPathSegment;
+import com.github.ezauton.core.pathplanning.purepursuit.PPWaypoint;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfiledPathSegmentTest {
+
+    @Test
+    public void testAccelerate() {
+        ProfiledPathSegment segment = segment(2, 10);
+        // Ramps up until (10^2 - 2^2) / (2 * 13) ft
+        double rampEnd = 96 / 26D;
+
+        assertEquals(2, segment.getSpeed(100), 1E-9);
+        assertEquals(2, segment.getSpeed(99), 1E-9); // before the segment
+        assertEquals(Math.sqrt(4 + 2 * 13 * 1), segment.getSpeed(101), 1E-9);
+        assertEquals(10, segment.getSpeed(100 + rampEnd), 1E-9);
+        assertEquals(10, segment.getSpeed(115), 1E-9);
+
+        assertEquals(0, segment.getTime(100), 1E-9);
+        assertEquals((Math.sqrt(4 + 2 * 13 * 1) - 2) / 13, segment.getTime(101), 1E-9);
+        assertEquals(8 / 13D + (20 - rampEnd) / 10, segment.getDuration(), 1E-9);
+    }
+
+    @Test
+    public void testDecelerate() {
+        ProfiledPathSegment segment = segment(10, 0);
+        // Ramps down from 20 - 10^2 / (2 * 12) ft
+        double rampStart = 20 - 100 / 24D;
+
+        assertEquals(10, segment.getSpeed(100 + rampStart), 1E-9);
+        assertEquals(Math.sqrt(2 * 12 * 1), segment.getSpeed(119), 1E-9);
+        assertEquals(0, segment.getSpeed(120), 1E-9);
+
+        assertEquals(rampStart / 10, segment.getTime(100 + rampStart), 1E-9);
+        assertEquals(rampStart / 10 + 10 / 12D, segment.getDuration(), 1E-9);
+
+        ProfiledPathSegment cruise = segment(5, 5);
+        assertEquals(5, cruise.getSpeed(110), 1E-9);
+        assertEquals(4, cruise.getDuration(), 1E-9);
+
+        assertThrows(IllegalStateException.class, () -> segment(0, 30));
+        assertThrows(IllegalStateException.class, () -> segment(30, 0));
+    }
+
+    @Test
+    public void testMatchesInterpolatedPath() {
+        PP_PathGenerator generator = new PP_PathGenerator(
+                PPWaypoint.simple2D(0, 0, 0, 13, -12),
+                PPWaypoint.simple2D(0, 6, 5, 13, -12),
+                PPWaypoint.simple2D(0, 20, 12, 13, -12),
+                PPWaypoint.simple2D(0, 25, 6, 13, -12),
+                PPWaypoint.simple2D(0, 30, 0, 13, -12)
+        );
+        Path profiled = generator.generate();
+        Path interpolated = generator.generate(0.001);
+
+        List<PathSegment> profiledSegments = profiled.getPathSegments();
+        List<PathSegment> interpolatedSegments = interpolated.getPathSegments();
+        assertEquals(interpolatedSegments.size(), profiledSegments.size());
+        for (int i = 0; i < profiledSegments.size(); i++) {
+            PathSegment segment = profiledSegments.get(i);
+            assertTrue(segment instanceof ProfiledPathSegment);
+            for (double d = segment.getAbsoluteDistanceStart(); d < segment.getAbsoluteDistanceEnd(); d += 0.01) {
+                // Interpolating between samples only approximates the square root
+                assertEquals(interpolatedSegments.get(i).getSpeed(d), segment.getSpeed(d), 0.05);
+            }
+        }
+    }
+
+    @Test
+    public void testTimeByPos() {
+        MotionState accelerating = new MotionState(1, 2, 4, 10);
+        // 1 + 2t + 2t^2 = 13 -> t = 2
+        assertEquals(12, accelerating.timeByPos(13), 1E-9);
+        assertEquals(10, accelerating.timeByPos(1), 1E-9);
+        assertEquals(13, accelerating.extrapolatePos(13).getPosition(), 1E-9);
+
+        MotionState braking = new MotionState(0, 4, -2, 0);
+        // Reaches 3 at t = 1 on the way to stopping at 4 (t = 2)
+        assertEquals(1, braking.timeByPos(3), 1E-9);
+        assertEquals(2, braking.timeByPos(4), 1E-6);
+        assertTrue(Double.isNaN(braking.timeByPos(5)));
+
+        MotionState cruising = new MotionState(0, 3, 0, 1);
+        assertEquals(3, cruising.timeByPos(6), 1E-9);
+        assertTrue(Double.isNaN(cruising.timeByPos(-1)));
+        assertTrue(Double.isNaN(new MotionState(0, 0, 0, 0).timeByPos(1)));
+
+        // Would lose all precision with the textbook formula
+        MotionState fast = new MotionState(0, 1E8, 1E-8, 0);
+        assertEquals(1E-8, fast.timeByPos(1), 1E-20);
+    }
+
+    private static ProfiledPathSegment segment(double speedStart, double speedStop) {
+        return new ProfiledPathSegment(new ImmutableVector(0, 0), new ImmutableVector(0, 20), false, false, 100, speedStart, speedStop, 13, -12);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.ezauton.core.purepursuit;
+
+import com.github.ezauton.core.pathplanning.QuinticSpline;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import com.github.ezauton.core.utils.MathUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuinticSplineTest {
+
+    @Test
+    public void testArcLength() {
+        QuinticSpline straight = new QuinticSpline(new ImmutableVector(0, 0), new ImmutableVector(0, 20), Math.PI / 2, Math.PI / 2);
+        assertEquals(20, straight.getLength(), 1E-9);
+        assertEquals(20, straight.getArcLength(0, 1), 1E-9);
+
+        for (QuinticSpline spline : TrajectoryGeneratorTest.splines()) {
+            // Adding up tiny chords converges to the arc length, though round off in t can skip the last chord
+            double chords = chords(spline).getArcLength(0, 1, 1E-6);
+            assertEquals(chords, spline.getLength(), 1E-4);
+            assertEquals(chords(spline).getArcLength(0.2, 0.7, 1E-6), spline.getArcLength(0.2, 0.7), 1E-4);
+            assertEquals(0, spline.getArcLength(0), 1E-12);
+            assertEquals(spline.getLength(), spline.getArcLength(1), 1E-12);
+        }
+    }
+
+    @Test
+    public void testFromArcLength() {
+        for (QuinticSpline spline : TrajectoryGeneratorTest.splines()) {
+            for (double s = 0; s <= spline.getLength(); s += 0.1) {
+                double t = spline.getTFromArcLength(s);
+                assertEquals(s, spline.getArcLength(t), 1E-9);
+            }
+            assertEquals(0, spline.getTFromArcLength(-1));
+            assertEquals(1, spline.getTFromArcLength(spline.getLength() + 1));
+
+            double t = spline.getTFromArcLength(1.5);
+            assertEquals(spline.get(t), spline.fromArcLength(1.5));
+            assertEquals(spline.get(t), spline.getPoint(1.5));
+            assertEquals(spline.get(t), spline.fromArcLength(spline.getTFromArcLength(0.5), 1));
+            assertEquals(spline.getLast(), spline.fromArcLength(spline.getLength() + 1));
+        }
+    }
+
+    @Test
+    public void testGetT() {
+        List<QuinticSpline> splines = TrajectoryGeneratorTest.splines();
+        for (QuinticSpline spline : splines) {
+            for (double t = 0; t <= 1; t += 0.05) {
+                ImmutableVector onSpline = new ImmutableVector(spline.getX(t), spline.getY(t));
+                assertEquals(t, spline.getT(onSpline, 0, 1), 1E-9);
+                assertEquals(spline.getLength() - spline.getArcLength(t), spline.getDistanceLeft(onSpline), 1E-6);
+
+                // A bit off to the side
+                ImmutableVector normal = new ImmutableVector(-spline.getDY(t), spline.getDX(t));
+                ImmutableVector offSpline = onSpline.add(normal.mul(0.1 / normal.mag()));
+                assertEquals(t, spline.getT(offSpline, 0, 1), 1E-6);
+            }
+        }
+
+        QuinticSpline spline = splines.get(1);
+        ImmutableVector middle = new ImmutableVector(spline.getX(0.5), spline.getY(0.5));
+        assertEquals(0.3, spline.getT(middle, 0, 0.3), 1E-12);
+        assertEquals(0.5, spline.getT(middle, 0.2, 0.9), 1E-9);
+    }
+
+    /**
+     * @return The spline without its arc length table
+     */
+    private static MathUtils.Geometry.ParametricFunction chords(QuinticSpline spline) {
+        return new MathUtils.Geometry.ParametricFunction() {
+            @Override
+            public double getX(double t) {
+                return spline.getX(t);
+            }
+
+            @Override
+            public double getY(double t) {
+                return spline.getY(t);
+            }
+        };
+    }
+}
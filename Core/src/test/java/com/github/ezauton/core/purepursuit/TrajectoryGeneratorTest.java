@@ -0,0 +1,154 @@
+package com.github.ezauton.core.purepursuit;
+
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.PathSegment;
+import com.github.ezauton.core.pathplanning.QuinticSpline;
+import com.github.ezauton.core.pathplanning.Trajectory;
+import com.github.ezauton.core.pathplanning.TrajectoryGenerator;
+import com.github.ezauton.core.pathplanning.purepursuit.SplinePPWaypoint;
+import com.github.ezauton.core.trajectory.geometry.ImmutableVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrajectoryGeneratorTest {
+
+    private static final double MAX_VELOCITY = 15;
+    private static final double MAX_ACCELERATION = 13;
+    private static final double MAX_DECELERATION = 12;
+    private static final double MAX_CENTRIPETAL = 8;
+
+    @Test
+    public void testStraight() {
+        // 20 ft straight ahead
+        QuinticSpline spline = new QuinticSpline(new ImmutableVector(0, 0), new ImmutableVector(0, 20), Math.PI / 2, Math.PI / 2);
+        Trajectory trajectory = new TrajectoryGenerator(10, 4, -5, MAX_CENTRIPETAL).generate(Collections.singletonList(spline));
+
+        assertEquals(20, trajectory.getLength(), 1E-3);
+        assertEquals(0, trajectory.getVelocity(0));
+        assertEquals(0, trajectory.getVelocity(trajectory.size() - 1));
+
+        // Trapezoid: 12.5 ft to reach 10 ft/s at 4 ft/s^2 and 10 ft to stop at 5 ft/s^2 do not fit in 20 ft, so it is a
+        // triangle peaking at v^2 = 2 * 20 / (1/4 + 1/5)
+        double peak = Math.sqrt(2 * 20 / (1 / 4D + 1 / 5D));
+        assertEquals(peak / 4 + peak / 5, trajectory.getDuration(), 1E-2);
+        // The peak is between samples, so the interpolated speed falls a bit short of it
+        assertEquals(peak, trajectory.getVelocityAtDistance(peak * peak / 8), 0.05);
+        assertEquals(0, trajectory.getCurvature(trajectory.size() / 2), 1E-9);
+        assertEquals(0, trajectory.getHeading(trajectory.size() / 2), 1E-9);
+
+        assertEquals(0, trajectory.getDistanceAtTime(-1));
+        assertEquals(trajectory.getLength(), trajectory.getDistanceAtTime(100));
+        assertEquals(2, trajectory.getDistanceAtTime(1), 1E-2); // d = a t^2 / 2
+        assertEquals(4, trajectory.getVelocityAtTime(1), 1E-2);
+        ImmutableVector location = trajectory.getLocationAtTime(1);
+        assertEquals(0, location.get(0), 1E-9);
+        assertEquals(2, location.get(1), 1E-2);
+    }
+
+    @Test
+    public void testSampling() {
+        Trajectory trajectory = new TrajectoryGenerator(MAX_VELOCITY, MAX_ACCELERATION, -MAX_DECELERATION, MAX_CENTRIPETAL)
+                .setSpacing(1 / 4D)
+                .generate(splines(), 0, 0.5);
+
+        // Evenly spaced, up to the chord being a bit shorter than the arc
+        for (int i = 1; i < trajectory.size(); i++) {
+            double ds = trajectory.getDistance(i) - trajectory.getDistance(i - 1);
+            assertTrue(ds > 0.2 && ds <= 0.25 + 1E-9, "sample " + i + " is " + ds + " ft from the one before");
+        }
+
+        // Counterclockwise from +y, so driving towards -x is a quarter turn left
+        QuinticSpline left = new QuinticSpline(new ImmutableVector(0, 0), new ImmutableVector(-20, 0), Math.PI, Math.PI);
+        Trajectory leftTrajectory = new TrajectoryGenerator(10, 4, -5, MAX_CENTRIPETAL).generate(Collections.singletonList(left));
+        assertEquals(Math.PI / 2, leftTrajectory.getHeading(leftTrajectory.size() / 2), 1E-9);
+    }
+
+    @Test
+    public void testLimits() {
+        Trajectory trajectory = new TrajectoryGenerator(MAX_VELOCITY, MAX_ACCELERATION, -MAX_DECELERATION, MAX_CENTRIPETAL)
+                .generate(splines(), 0, 0.5);
+
+        assertEquals(0, trajectory.getVelocity(0));
+        assertEquals(0.5, trajectory.getVelocity(trajectory.size() - 1), 1E-9);
+        assertEquals(new ImmutableVector(23, 24), trajectory.getLocation(trajectory.size() - 1));
+
+        boolean slowedForCurve = false;
+        for (int i = 0; i < trajectory.size(); i++) {
+            double v = trajectory.getVelocity(i);
+            double curveLimit = Math.sqrt(MAX_CENTRIPETAL / Math.abs(trajectory.getCurvature(i)));
+            assertTrue(v <= MAX_VELOCITY + 1E-9);
+            assertTrue(v <= curveLimit + 1E-9);
+            if (i < trajectory.size() - 1) {
+                assertTrue(trajectory.getAcceleration(i) <= MAX_ACCELERATION + 1E-6);
+                assertTrue(trajectory.getAcceleration(i) >= -MAX_DECELERATION - 1E-6);
+                assertTrue(trajectory.getTime(i + 1) > trajectory.getTime(i));
+
+                // Time-optimal: at each sample the robot is either at a limit or accelerating/decelerating as hard as
+                // it can into or out of it
+                double accelIn = i > 0 ? trajectory.getAcceleration(i - 1) : MAX_ACCELERATION;
+                double accelOut = trajectory.getAcceleration(i);
+                boolean atLimit = Math.abs(v - Math.min(MAX_VELOCITY, curveLimit)) < 1E-9
+                        || Math.abs(accelIn - MAX_ACCELERATION) < 1E-6
+                        || Math.abs(accelOut + MAX_DECELERATION) < 1E-6;
+                assertTrue(atLimit, "not at any limit at sample " + i);
+            }
+            slowedForCurve |= curveLimit < MAX_VELOCITY && Math.abs(v - curveLimit) < 1E-9;
+        }
+        assertTrue(slowedForCurve);
+
+        // The second spline turns sharply in its last inch, which an inch apart samples only partly catch. Closer
+        // samples converge.
+        Trajectory fine = new TrajectoryGenerator(MAX_VELOCITY, MAX_ACCELERATION, -MAX_DECELERATION, MAX_CENTRIPETAL)
+                .setSpacing(1 / 200D)
+                .generate(splines(), 0, 0.5);
+        Trajectory coarse = new TrajectoryGenerator(MAX_VELOCITY, MAX_ACCELERATION, -MAX_DECELERATION, MAX_CENTRIPETAL)
+                .setSpacing(1 / 48D)
+                .generate(splines(), 0, 0.5);
+        assertEquals(fine.getDuration(), coarse.getDuration(), 0.05);
+        assertEquals(fine.getLength(), coarse.getLength(), 0.01);
+        assertEquals(fine.getLength(), trajectory.getLength(), 0.01);
+    }
+
+    @Test
+    public void testToPath() {
+        Trajectory trajectory = new TrajectoryGenerator(MAX_VELOCITY, MAX_ACCELERATION, -MAX_DECELERATION, MAX_CENTRIPETAL)
+                .generate(splines(), 0, 0.5);
+        Path path = trajectory.toPath();
+
+        assertEquals(trajectory.size() - 1, path.getPathSegments().size());
+        assertEquals(trajectory.getLength(), path.getLength(), 1E-9);
+        assertEquals(new ImmutableVector(23, 24), path.getEnd());
+
+        PathSegment first = path.getPathSegments().get(0);
+        assertTrue(first.isBeginning());
+        assertEquals(trajectory.getVelocity(1), first.getSpeed(0), 1E-9); // so the robot gets going
+        for (int i = 1; i < trajectory.size(); i++) {
+            assertEquals(trajectory.getVelocity(i), path.getPathSegments().get(i - 1).getSpeed(trajectory.getDistance(i)), 1E-6);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new TrajectoryGenerator(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TrajectoryGenerator(1, 1, 1, 1).setSpacing(0));
+        assertThrows(IllegalArgumentException.class, () -> new TrajectoryGenerator(1, 1, 1, 1).generate(Collections.emptyList()));
+        // Over the max speed
+        assertThrows(IllegalArgumentException.class, () -> new TrajectoryGenerator(1, 1, 1, 1).generate(splines(), 2, 0));
+    }
+
+    /**
+     * The same path as {@link PPSimulatorTest#testSpline()}
+     */
+    static List<QuinticSpline> splines() {
+        return new SplinePPWaypoint.Builder()
+                .add(0, 0, 0, 15, 13, -12)
+                .add(0, 13, 0, 10, 13, -12)
+                .add(20, 17, -Math.PI / 2, 8, 13, -12)
+                .add(23, 24, 0, 0.5, 13, -12)
+                .buildSplines();
+    }
+}
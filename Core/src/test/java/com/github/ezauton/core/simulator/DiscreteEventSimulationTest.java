@@ -0,0 +1,102 @@
+package com.github.ezauton.core.simulator;
+
+import com.github.ezauton.core.action.*;
+import com.github.ezauton.core.simulation.DiscreteEventSimulation;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscreteEventSimulationTest {
+
+    @Test
+    public void testScheduleOrder() throws TimeoutException, ExecutionException {
+        DiscreteEventSimulation sim = new DiscreteEventSimulation();
+        AtomicInteger counter = new AtomicInteger(0);
+
+        sim.scheduleAt(1, () -> counter.compareAndSet(2, 3));
+        sim.scheduleNow(() -> counter.compareAndSet(0, 1));
+        sim.scheduleAt(0, () -> counter.compareAndSet(1, 2));
+        sim.scheduleAt(1, () -> counter.compareAndSet(3, 4));
+
+        sim.runSimulation(1, TimeUnit.SECONDS);
+
+        assertEquals(4, counter.get());
+        assertEquals(1, sim.getTime());
+    }
+
+    @Test
+    public void testPeriodicActionTiming() throws TimeoutException, ExecutionException {
+        DiscreteEventSimulation sim = new DiscreteEventSimulation();
+        AtomicInteger count = new AtomicInteger(0);
+
+        sim.add(new TimedPeriodicAction(20, TimeUnit.MILLISECONDS, 15, TimeUnit.SECONDS, count::incrementAndGet));
+        sim.runSimulation(5, TimeUnit.SECONDS);
+
+        // runs at 0, 20, ..., 15000 and is found finished at 15020
+        assertEquals(751, count.get());
+        assertEquals(15_020, sim.getTime());
+    }
+
+    @Test
+    public void testTwoPeriodicActionsInLockstep() throws TimeoutException, ExecutionException {
+        AtomicLong sum = new AtomicLong();
+
+        Action actionA = new TimedPeriodicAction(20, TimeUnit.SECONDS)
+                .addRunnable(a -> () -> sum.addAndGet(a.getStopwatch().read()));
+
+        Action actionB = new TimedPeriodicAction(20, TimeUnit.SECONDS)
+                .addRunnable(a -> () -> assertEquals(0, sum.addAndGet(-a.getStopwatch().read())));
+
+        new DiscreteEventSimulation()
+                .add(actionA)
+                .add(actionB)
+                .runSimulation(5, TimeUnit.SECONDS);
+
+        assertEquals(0, sum.get());
+    }
+
+    @Test
+    public void testActionGroup() throws TimeoutException, ExecutionException {
+        DiscreteEventSimulation sim = new DiscreteEventSimulation();
+        AtomicInteger counter = new AtomicInteger(0);
+        AtomicLong backgroundEnd = new AtomicLong(-1);
+
+        BackgroundAction background = new BackgroundAction(5, TimeUnit.MILLISECONDS);
+        background.onFinish(() -> backgroundEnd.set(sim.getTime()));
+
+        ActionGroup group = new ActionGroup()
+                .with(background)
+                .addParallel(new DelayedAction(500, TimeUnit.MILLISECONDS, () -> counter.compareAndSet(1, 2)))
+                .addSequential(new DelayedAction(10, TimeUnit.MILLISECONDS, () -> counter.compareAndSet(0, 1)))
+                .addSequential(new DelayedAction(1, TimeUnit.SECONDS, () -> counter.compareAndSet(2, 3)));
+        group.onFinish(() -> counter.compareAndSet(3, 4));
+
+        sim.add(group);
+        sim.runSimulation(5, TimeUnit.SECONDS);
+
+        assertEquals(4, counter.get());
+        assertEquals(10, backgroundEnd.get());
+        assertEquals(1_010, sim.getTime());
+    }
+
+    @Test
+    public void testException() {
+        DiscreteEventSimulation sim = new DiscreteEventSimulation();
+        sim.add(new BaseAction(() -> {
+            throw new IllegalStateException();
+        }));
+        assertThrows(ExecutionException.class, () -> sim.runSimulation(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSleepNotAllowed() {
+        DiscreteEventSimulation sim = new DiscreteEventSimulation();
+        assertThrows(IllegalStateException.class, () -> sim.sleep(1, TimeUnit.SECONDS));
+    }
+}
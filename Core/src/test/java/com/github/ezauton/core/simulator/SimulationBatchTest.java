@@ -0,0 +1,51 @@
+package com.github.ezauton.core.simulator;
+
+import com.github.ezauton.core.pathplanning.PP_PathGenerator;
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.purepursuit.PPWaypoint;
+import com.github.ezauton.core.simulation.SimulationBatch;
+import com.github.ezauton.core.utils.Clock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimulationBatchTest {
+
+    /**
+     * A straight path where the max acceleration depends on the run
+     */
+    static SimulationBatch.Scenario straightScenario(int run, Clock clock) {
+        double accel = 3 + run % 4;
+        Path path = new PP_PathGenerator(
+                PPWaypoint.simple2D(0, 0, 0, accel, -accel),
+                PPWaypoint.simple2D(0, 6, 5, accel, -accel),
+                PPWaypoint.simple2D(0, 12, 0, accel, -accel)
+        ).generate(0.05);
+        return SimulationScenarios.purePursuit(clock, path, 5);
+    }
+
+    @Test
+    public void testBatch() throws TimeoutException, ExecutionException {
+        List<SimulationBatch.RunSummary> summaries = new SimulationBatch(SimulationBatchTest::straightScenario)
+                .run(8, 30, TimeUnit.SECONDS);
+
+        assertEquals(8, summaries.size());
+        for (int i = 0; i < summaries.size(); i++) {
+            SimulationBatch.RunSummary summary = summaries.get(i);
+            assertEquals(i, summary.getRun());
+            assertEquals(0, summary.getFinalPoseError(), 0.2);
+            assertTrue(summary.getMaxCrossTrackError() < 0.2);
+            assertTrue(summary.getFinishTime() > 0);
+        }
+
+        // runs with the same parameters are deterministic
+        assertEquals(summaries.get(0).getFinishTime(), summaries.get(4).getFinishTime());
+        assertEquals(summaries.get(0).getFinalPoseError(), summaries.get(4).getFinalPoseError());
+    }
+}
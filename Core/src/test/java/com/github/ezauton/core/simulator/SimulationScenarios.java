@@ -0,0 +1,43 @@
+package com.github.ezauton.core.simulator;
+
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.BackgroundAction;
+import com.github.ezauton.core.action.PurePursuitAction;
+import com.github.ezauton.core.localization.estimators.TankRobotEncoderEncoderEstimator;
+import com.github.ezauton.core.pathplanning.Path;
+import com.github.ezauton.core.pathplanning.purepursuit.LookaheadBounds;
+import com.github.ezauton.core.pathplanning.purepursuit.PurePursuitMovementStrategy;
+import com.github.ezauton.core.simulation.SimulatedTankRobot;
+import com.github.ezauton.core.simulation.SimulationBatch;
+import com.github.ezauton.core.utils.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scenarios for {@link SimulationBatch}, shared by its tests and benchmarks
+ */
+public class SimulationScenarios {
+
+    /**
+     * A simulated tank robot following a path with pure pursuit
+     *
+     * @param clock        The clock of the run
+     * @param path         The path to follow
+     * @param maxLookahead The max lookahead of the robot
+     * @return The scenario
+     */
+    public static SimulationBatch.Scenario purePursuit(Clock clock, Path path, double maxLookahead) {
+        SimulatedTankRobot robot = new SimulatedTankRobot(1, clock, 14, 0.3, 16);
+        TankRobotEncoderEncoderEstimator locEstimator = robot.getDefaultLocEstimator();
+        locEstimator.reset();
+
+        PurePursuitMovementStrategy strategy = new PurePursuitMovementStrategy(path, 0.001);
+        PurePursuitAction purePursuitAction = new PurePursuitAction(20, TimeUnit.MILLISECONDS, strategy, locEstimator,
+                new LookaheadBounds(1, maxLookahead, 2, 10, locEstimator), robot.getDefaultTransLocDriveable());
+
+        ActionGroup group = new ActionGroup()
+                .with(new BackgroundAction(2, TimeUnit.MILLISECONDS, robot::update))
+                .addSequential(purePursuitAction);
+        return new SimulationBatch.Scenario(group, path, locEstimator);
+    }
+}
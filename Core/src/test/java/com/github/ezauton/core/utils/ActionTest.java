@@ -332,4 +332,69 @@ public class ActionTest {
 
         assertEquals(2, counter.get());
     }
+
+    @Test
+    public void testActionGroupRunAsyncNested() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        ActionGroup inner = new ActionGroup()
+                .addSequential(() -> events.add("inner 1"))
+                .addSequential(new DelayedAction(50, TimeUnit.MILLISECONDS, () -> events.add("inner 2")));
+        inner.onFinish(() -> events.add("inner end"));
+
+        CountDownLatch withEnded = new CountDownLatch(1);
+        TimedPeriodicAction with = new TimedPeriodicAction(10, TimeUnit.SECONDS);
+        with.onFinish(withEnded::countDown);
+
+        ActionGroup outer = new ActionGroup()
+                .with(with)
+                .addSequential(inner)
+                .addSequential(() -> events.add("outer 1"));
+        outer.onFinish(() -> events.add("outer end"));
+
+        CompletableFuture<Void> future = outer.runAsync(new ActionRunInfo(RealClock.CLOCK, actionScheduler));
+        future.get(1, TimeUnit.SECONDS);
+
+        // The cancelled with action ends on its own thread, so it may end after the group does
+        assertTrue(withEnded.await(1, TimeUnit.SECONDS), "with action did not end");
+        assertEquals(Arrays.asList("inner 1", "inner 2", "inner end", "outer 1", "outer end"), events);
+    }
+
+    @Test
+    public void testActionGroupRunAsyncFailure() {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        ActionGroup group = new ActionGroup()
+                .addSequential(() -> {
+                    throw new IllegalStateException();
+                })
+                .addSequential(() -> ran.set(true));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> actionScheduler.scheduleAction(group).get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testActionGroupRunAsyncCancel() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch ended = new CountDownLatch(1);
+
+        ActionGroup group = new ActionGroup()
+                .addSequential(() -> {
+                    counter.incrementAndGet();
+                    started.countDown();
+                })
+                .addSequential(new TimedPeriodicAction(1, TimeUnit.SECONDS))
+                .addSequential(counter::incrementAndGet);
+        group.onFinish(ended::countDown);
+
+        Future<Void> future = actionScheduler.scheduleAction(group);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        // Had the cancel not stopped the group, it would only end after the timed action, having counted twice
+        assertTrue(ended.await(2, TimeUnit.SECONDS));
+        assertEquals(1, counter.get());
+    }
 }
@@ -0,0 +1,203 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.ActionRunInfo;
+import com.github.ezauton.core.action.LoopTimingStats;
+import com.github.ezauton.core.action.PeriodicAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoopTimingStatsTest {
+
+    @Test
+    public void testHistogram() {
+        LoopTimingStats.Histogram histogram = new LoopTimingStats.Histogram(10);
+        for (int i = 0; i < 100; i++) {
+            histogram.record(i < 90 ? 2 : 50);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(2, histogram.getMin());
+        assertEquals(50, histogram.getMax());
+        assertEquals(6.8, histogram.getMean(), 1e-9);
+        assertEquals(2, histogram.getPercentile(0.5));
+        assertEquals(2, histogram.getPercentile(0.9));
+        assertEquals(50, histogram.getPercentile(0.99)); // overflow bucket
+        assertEquals(10, histogram.getBuckets()[9]);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testOverruns() throws Exception {
+        SteppedClock steppedClock = new SteppedClock();
+
+        // Executes take 5 ms, except the third, which takes 45 ms and puts the 20 ms loop behind schedule
+        PeriodicAction action = new PeriodicAction(20, TimeUnit.MILLISECONDS) {
+            @Override
+            protected void execute() {
+                steppedClock.time += getTimesRun() == 2 ? 45 : 5;
+            }
+
+            @Override
+            protected boolean isFinished() {
+                return getTimesRun() >= 6;
+            }
+        };
+        LoopTimingStats stats = action.getTimingStats();
+        action.run(new ActionRunInfo(steppedClock, null));
+
+        assertEquals(6, stats.getCycles());
+        assertEquals(2, stats.getOverrunCount());
+        assertEquals(25, stats.getWorstLatenessMillis());
+
+        // In microseconds
+        assertEquals(45_000, stats.getExecuteHistogram().getMax());
+        assertEquals(5_000, stats.getExecuteHistogram().getPercentile(0.5));
+
+        // 20, 20, 45 (slow execute), 5 and 10 (catching up), 20
+        assertEquals(5, stats.getPeriodHistogram().getMin());
+        assertEquals(45, stats.getPeriodHistogram().getMax());
+        assertEquals(20, stats.getPeriodHistogram().getMean(), 1e-9);
+    }
+
+    @Test
+    public void testOnlyKeptOnceAsked() throws Exception {
+        SteppedClock steppedClock = new SteppedClock();
+        PeriodicAction action = new PeriodicAction(20, TimeUnit.MILLISECONDS) {
+            @Override
+            protected boolean isFinished() {
+                return getTimesRun() >= 3;
+            }
+        };
+        action.run(new ActionRunInfo(steppedClock, null));
+
+        assertEquals(0, action.getTimingStats().getCycles());
+        assertSame(action.getTimingStats(), action.getTimingStats());
+    }
+
+    @Test
+    public void testHistogramBucketWidth() {
+        LoopTimingStats.Histogram histogram = new LoopTimingStats.Histogram(5, 10);
+        histogram.record(3);
+        histogram.record(15);
+        histogram.record(17);
+        histogram.record(500);
+
+        assertArrayEquals(new long[]{1, 2, 0, 0, 1}, histogram.getBuckets());
+        assertEquals(10, histogram.getPercentile(0.75));
+        assertEquals(500, histogram.getPercentile(1));
+        assertEquals(500, histogram.getMax());
+    }
+
+    @Test
+    public void testSpinBudgetIgnoredWhenSimulated() throws Exception {
+        SteppedClock steppedClock = new SteppedClock();
+        PeriodicAction action = new PeriodicAction(20, TimeUnit.MILLISECONDS) {
+            @Override
+            protected void execute() {
+                steppedClock.time += 5;
+            }
+
+            @Override
+            protected boolean isFinished() {
+                return getTimesRun() >= 5;
+            }
+        };
+        action.setSpinBudget(2, TimeUnit.MILLISECONDS);
+        assertEquals(2_000, action.getSpinBudget(TimeUnit.MICROSECONDS));
+
+        LoopTimingStats.Histogram jitter = action.getTimingStats().getJitterHistogram();
+        // Spinning on a clock which only moves when slept on would never finish
+        action.run(new ActionRunInfo(steppedClock, null));
+
+        assertEquals(100, steppedClock.time);
+        assertEquals(5, jitter.getCount());
+        assertEquals(0, jitter.getMax());
+    }
+
+    @Test
+    public void testSpinBudget() throws Exception {
+        TickingClock tickingClock = new TickingClock();
+        PeriodicAction action = new PeriodicAction(5, TimeUnit.MILLISECONDS) {
+            @Override
+            protected boolean isFinished() {
+                return getTimesRun() >= 20;
+            }
+        };
+        action.setSpinBudget(2, TimeUnit.MILLISECONDS);
+        LoopTimingStats.Histogram jitter = action.getTimingStats().getJitterHistogram();
+        action.run(new ActionRunInfo(tickingClock, null));
+
+        // Slept for about 3 ms of every period (less the time spent reading the clock) and spun for the rest
+        assertEquals(20, jitter.getCount());
+        assertEquals(20 * 3_000_000, tickingClock.sleptNanos, 20 * 100_000);
+        // Each read of the clock moves it by 10 us, so spinning stops at most one read past the deadline, and reading
+        // the wakeup time is one more
+        assertTrue(jitter.getMax() <= 20, jitter.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> action.setSpinBudget(-1, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * A clock which only moves when slept on (or when told to)
+     */
+    private static class SteppedClock implements Clock {
+        private long time = 0;
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+
+        @Override
+        public void scheduleAt(long millis, Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sleep(long dt, TimeUnit timeUnit) {
+            time += timeUnit.toMillis(dt);
+        }
+    }
+
+    /**
+     * A real-time clock which moves 10 us every time it is read, as if reading it took that long, and by however long
+     * it is slept on
+     */
+    private static class TickingClock implements Clock {
+        private long nanos = 0;
+        private long sleptNanos = 0;
+
+        @Override
+        public long getTime() {
+            return TimeUnit.NANOSECONDS.toMillis(getTimeNanos());
+        }
+
+        @Override
+        public long getTimeNanos() {
+            nanos += 10_000;
+            return nanos;
+        }
+
+        @Override
+        public void scheduleAt(long millis, Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sleep(long dt, TimeUnit timeUnit) {
+            nanos += timeUnit.toNanos(dt);
+            sleptNanos += timeUnit.toNanos(dt);
+        }
+
+        @Override
+        public boolean isRealTime() {
+            return true;
+        }
+    }
+}
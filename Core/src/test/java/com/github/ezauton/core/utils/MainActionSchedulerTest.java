@@ -0,0 +1,81 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.BaseAction;
+import com.github.ezauton.core.action.DelayedAction;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MainActionSchedulerTest {
+
+    @Test
+    public void testFinishedActionsAreForgotten() throws Exception {
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            futures.add(scheduler.scheduleAction(new BaseAction(() -> {
+            })));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, scheduler.getRunningCount());
+        assertTrue(scheduler.getRunningActions().isEmpty());
+    }
+
+    @Test
+    public void testRunningActionsSnapshot() throws Exception {
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK);
+
+        DelayedAction delayedAction = new DelayedAction(10, TimeUnit.SECONDS);
+        ActionGroup group = ActionGroup.ofSequentials(delayedAction);
+        CompletableFuture<Void> future = scheduler.scheduleAction(group);
+
+        long start = System.currentTimeMillis();
+        while (scheduler.getRunningCount() < 2 || scheduler.getRunningActions().get(1).getState() != MainActionScheduler.State.RUNNING) {
+            assertTrue(System.currentTimeMillis() - start < 1_000, "delayed action did not start");
+            Thread.sleep(1);
+        }
+
+        List<MainActionScheduler.ActionStatus> running = scheduler.getRunningActions();
+        assertEquals(2, running.size());
+
+        MainActionScheduler.ActionStatus groupStatus = running.get(0);
+        MainActionScheduler.ActionStatus delayedStatus = running.get(1);
+        assertSame(group, groupStatus.getAction());
+        assertEquals(-1, groupStatus.getParentId());
+        assertSame(delayedAction, delayedStatus.getAction());
+        assertEquals(groupStatus.getId(), delayedStatus.getParentId());
+        assertEquals(System.currentTimeMillis(), delayedStatus.getStartTime(), 1_000);
+
+        scheduler.killAll();
+        assertTrue(future.isCancelled());
+        start = System.currentTimeMillis();
+        while (scheduler.getRunningCount() != 0) {
+            assertTrue(System.currentTimeMillis() - start < 1_000, "actions were not forgotten");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testRejectedActionsAreForgotten() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK, false, executor) {
+        };
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.scheduleAction(new BaseAction(() -> {
+        })));
+        assertEquals(0, scheduler.getRunningCount());
+    }
+}
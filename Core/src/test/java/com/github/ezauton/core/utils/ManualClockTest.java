@@ -0,0 +1,51 @@
+package com.github.ezauton.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManualClockTest {
+
+    @Test
+    public void testScheduleAndSleep() throws InterruptedException {
+        ManualClock clock = new ManualClock();
+        List<Long> ran = Collections.synchronizedList(new ArrayList<>());
+        clock.scheduleAt(5, () -> ran.add(5L));
+
+        Thread sleeper = new Thread(() -> {
+            try {
+                clock.sleep(10, TimeUnit.MILLISECONDS);
+                ran.add(clock.getTime());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        sleeper.start();
+        awaitWaiting(sleeper);
+
+        clock.setTime(5);
+        assertEquals(Collections.singletonList(5L), ran);
+
+        clock.setTime(20);
+        sleeper.join(1_000);
+        assertFalse(sleeper.isAlive());
+        assertEquals(Arrays.asList(5L, 20L), ran);
+    }
+
+    /**
+     * Wait until the thread is sleeping on the clock, which is the only thing it waits on
+     */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.currentTimeMillis() - start < 1_000, "thread did not start sleeping");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.BackgroundAction;
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.action.tangible.PeriodicActionDriver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodicActionDriverTest {
+
+    @Test
+    public void testSharedThread() throws InterruptedException, ExecutionException, TimeoutException {
+        VirtualClock clock = new VirtualClock();
+        PeriodicActionDriver driver = new PeriodicActionDriver(clock);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger countA = new AtomicInteger(0);
+        AtomicInteger countB = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(2);
+
+        TimedPeriodicAction actionA = new TimedPeriodicAction(10, TimeUnit.MILLISECONDS, 200, TimeUnit.MILLISECONDS, () -> {
+            threads.add(Thread.currentThread());
+            if (countA.incrementAndGet() == 1) {
+                started.countDown();
+            }
+        });
+        TimedPeriodicAction actionB = new TimedPeriodicAction(10, TimeUnit.MILLISECONDS, 200, TimeUnit.MILLISECONDS, () -> {
+            threads.add(Thread.currentThread());
+            if (countB.incrementAndGet() == 1) {
+                started.countDown();
+            }
+        });
+
+        Future<Void> futureA = driver.scheduleAction(actionA);
+        Future<Void> futureB = driver.scheduleAction(actionB);
+        // Both actions run their first cycle when they are started. Then the driver sleeps until the next one.
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertTrue(clock.awaitSleeping(1, 2, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 1_000 && !(futureA.isDone() && futureB.isDone()); i++) {
+            clock.advanceBy(1, TimeUnit.MILLISECONDS);
+        }
+        futureA.get(2, TimeUnit.SECONDS);
+        futureB.get(2, TimeUnit.SECONDS);
+
+        assertEquals(1, threads.size());
+        assertTrue(threads.contains(driver.getDriverThread()));
+        assertEquals(countA.get(), countB.get(), 1);
+        assertEquals(20, countA.get(), 1);
+        driver.stop();
+    }
+
+    @Test
+    public void testCancelEnds() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        PeriodicActionDriver driver = new PeriodicActionDriver(clock);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(3);
+        CountDownLatch ended = new CountDownLatch(1);
+
+        BackgroundAction background = new BackgroundAction(5, TimeUnit.MILLISECONDS, started::countDown, ran::countDown);
+        background.onFinish(ended::countDown);
+
+        Future<Void> future = driver.scheduleAction(background);
+        // The first cycle runs when the action is started. Then the driver sleeps until the next one.
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertTrue(clock.awaitSleeping(1, 2, TimeUnit.SECONDS));
+        clock.advanceBy(10, TimeUnit.MILLISECONDS);
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        // Ends on the next tick
+        assertEquals(1, ended.getCount());
+        clock.advanceBy(5, TimeUnit.MILLISECONDS);
+        assertTrue(ended.await(2, TimeUnit.SECONDS));
+        assertEquals(0, ran.getCount());
+        driver.stop();
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.require.BaseResource;
+import com.github.ezauton.core.action.require.Resource;
+import com.github.ezauton.core.action.require.ResourceManager;
+import com.github.ezauton.core.action.require.ResourceStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceManagerTest {
+
+    @Test
+    public void testOverlappingTreesDoNotDeadlock() throws InterruptedException {
+        BaseResource left = new BaseResource();
+        BaseResource right = new BaseResource();
+
+        // Depend on the same resources in opposite orders
+        BaseResource drivetrain = new BaseResource().dependOn(left).dependOn(right);
+        BaseResource climber = new BaseResource().dependOn(right).dependOn(left);
+
+        Thread a = new Thread(() -> takeRepeatedly(drivetrain));
+        Thread b = new Thread(() -> takeRepeatedly(climber));
+        a.start();
+        b.start();
+        a.join(10_000);
+        b.join(10_000);
+
+        assertFalse(a.isAlive() || b.isAlive(), "deadlocked");
+        assertFalse(left.isTakenByAnyone() || right.isTakenByAnyone());
+        assertEquals(20_000, left.getStats().getAcquisitions());
+    }
+
+    private static void takeRepeatedly(BaseResource resource) {
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                resource.take();
+                resource.giveBack();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testTryTakeTimeout() throws InterruptedException {
+        BaseResource shared = new BaseResource();
+        BaseResource free = new BaseResource();
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                shared.take();
+                taken.countDown();
+                done.await();
+                shared.giveBack();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        taken.await();
+
+        assertFalse(ResourceManager.tryTakeAll(50, TimeUnit.MILLISECONDS, free, shared));
+        assertFalse(free.isTakenByAnyone()); // all or nothing
+        assertEquals(1, shared.getStats().getTimeouts());
+
+        done.countDown();
+        assertTrue(shared.tryTake(1, TimeUnit.SECONDS));
+        shared.assertPossession();
+        shared.giveBack();
+        holder.join();
+    }
+
+    @Test
+    public void testPreemption() throws InterruptedException {
+        BaseResource drivetrain = new BaseResource();
+        CountDownLatch taken = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        AtomicReference<Future<?>> owner = new AtomicReference<>();
+
+        FutureTask<Void> lowPriority = new FutureTask<>(() -> {
+            assertTrue(ResourceManager.tryTakeAll(owner.get(), 0, false, 1, TimeUnit.SECONDS, drivetrain));
+            try {
+                taken.countDown();
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            } finally {
+                drivetrain.giveBack();
+            }
+            return null;
+        });
+        owner.set(lowPriority);
+        new Thread(lowPriority).start();
+        taken.await();
+
+        assertFalse(ResourceManager.tryTakeAll(-1, true, 50, TimeUnit.MILLISECONDS, drivetrain)); // lower priority
+        assertFalse(lowPriority.isCancelled());
+
+        assertTrue(ResourceManager.tryTakeAll(1, true, 1, TimeUnit.SECONDS, drivetrain));
+        assertTrue(lowPriority.isCancelled());
+        assertTrue(interrupted.get());
+        ResourceManager.giveBackAll(drivetrain);
+
+        ResourceStats stats = drivetrain.getStats();
+        assertEquals(1, stats.getPreemptions());
+        assertEquals(2, stats.getAcquisitions());
+        assertEquals(1, stats.getContendedAcquisitions());
+        assertTrue(stats.getMaxHold(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    public void testNoOwnerNotPreempted() throws InterruptedException {
+        BaseResource drivetrain = new BaseResource();
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                drivetrain.take();
+                taken.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                drivetrain.giveBack();
+            }
+        });
+        holder.start();
+        taken.await();
+
+        assertFalse(ResourceManager.tryTakeAll(1, true, 50, TimeUnit.MILLISECONDS, drivetrain));
+        assertEquals(0, drivetrain.getStats().getPreemptions());
+
+        done.countDown();
+        holder.join();
+    }
+
+    @Test
+    public void testTryTakeUnsupported() {
+        Resource resource = new Resource() {
+            @Override
+            public void take() {
+            }
+
+            @Override
+            public boolean isTakenByAnyone() {
+                return false;
+            }
+
+            @Override
+            public void giveBack() {
+            }
+
+            @Override
+            public void assertPossession() {
+            }
+        };
+        BaseResource before = new BaseResource();
+        assertFalse(resource.supportsTryTake());
+        assertThrows(UnsupportedOperationException.class, () -> resource.tryTake(1, TimeUnit.SECONDS));
+        // Rejected before anything is taken
+        assertThrows(IllegalArgumentException.class, () -> ResourceManager.tryTakeAll(1, TimeUnit.SECONDS, before, resource));
+        assertFalse(before.isTakenByAnyone());
+    }
+
+    @Test
+    public void testTimeoutOnNewerSubResource() throws InterruptedException {
+        BaseResource parent = new BaseResource();
+        BaseResource child = new BaseResource(); // after its parent in the global order
+        parent.dependOn(child);
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                child.take();
+                taken.countDown();
+                done.await();
+                child.giveBack();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        taken.await();
+
+        // Only the parent was taken when the child timed out, so only the parent is given back
+        assertFalse(ResourceManager.tryTakeAll(50, TimeUnit.MILLISECONDS, parent));
+        done.countDown();
+        holder.join();
+        assertFalse(parent.isTakenByAnyone());
+
+        assertTrue(parent.tryTake(1, TimeUnit.SECONDS));
+        parent.giveBack();
+    }
+}
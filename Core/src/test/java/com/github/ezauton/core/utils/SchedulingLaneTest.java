@@ -0,0 +1,139 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.BaseAction;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.action.tangible.DeadlineExecutor;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import com.github.ezauton.core.simulation.SchedulingClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulingLaneTest {
+
+    @Test
+    public void testEarliestDeadlineFirst() throws InterruptedException {
+        DeadlineExecutor executor = new DeadlineExecutor(1, Executors.defaultThreadFactory());
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        executor.submit(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // Queued while the only thread is busy
+        long now = System.nanoTime();
+        for (int deadline : new int[]{30, 10, 20}) {
+            executor.submitWithDeadline(() -> order.add(deadline), now + TimeUnit.MILLISECONDS.toNanos(deadline));
+        }
+        executor.submit(() -> order.add(0)); // no deadline means due now
+
+        blocker.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 10, 20, 30), order);
+    }
+
+    @Test
+    public void testChildrenInheritLane() throws Exception {
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK);
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        ActionGroup group = new ActionGroup()
+                .addSequential(() -> threads.add(Thread.currentThread()))
+                .addParallel(() -> threads.add(Thread.currentThread()));
+
+        scheduler.scheduleAction(group, SchedulingClass.BACKGROUND).get(1, TimeUnit.SECONDS);
+
+        assertEquals(2, threads.size());
+        for (Thread thread : threads) {
+            assertEquals(Thread.MIN_PRIORITY, thread.getPriority());
+            assertTrue(thread.getName().startsWith("ezAuton-background-"));
+        }
+
+        Thread[] realTimeThread = new Thread[1];
+        scheduler.scheduleAction(new BaseAction(() -> realTimeThread[0] = Thread.currentThread()), SchedulingClass.REAL_TIME)
+                .get(1, TimeUnit.SECONDS);
+        assertEquals(Thread.MAX_PRIORITY, realTimeThread[0].getPriority());
+    }
+
+    @Test
+    public void testMoreLoopsThanRealTimeThreads() throws Exception {
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK);
+        int loops = 32; // four times the default number of threads
+        Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        AtomicInteger ended = new AtomicInteger();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < loops; i++) {
+            PeriodicAction loop = new PeriodicAction(5, TimeUnit.MILLISECONDS, () -> threads.add(Thread.currentThread())) {
+                @Override
+                protected boolean isFinished() {
+                    return getTimesRun() >= 10;
+                }
+
+                @Override
+                public void end() {
+                    ended.incrementAndGet();
+                }
+            };
+            futures.add(scheduler.scheduleAction(loop, SchedulingClass.REAL_TIME));
+        }
+        // A loop does not hold a thread between cycles, so none of them waits for another one to finish
+        for (CompletableFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(loops, ended.get());
+        assertTrue(threads.size() <= 8, threads.toString());
+        for (Thread thread : threads) {
+            assertEquals(Thread.MAX_PRIORITY, thread.getPriority());
+            assertTrue(thread.getName().startsWith("ezAuton-realtime-"));
+        }
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    @Test
+    public void testCancelRealTimeLoop() throws Exception {
+        MainActionScheduler scheduler = new MainActionScheduler(RealClock.CLOCK);
+        CountDownLatch ran = new CountDownLatch(3);
+        CountDownLatch ended = new CountDownLatch(1);
+
+        PeriodicAction loop = new PeriodicAction(5, TimeUnit.MILLISECONDS, ran::countDown) {
+            @Override
+            protected boolean isFinished() {
+                return false;
+            }
+
+            @Override
+            public void end() {
+                ended.countDown();
+            }
+        };
+        CompletableFuture<Void> future = scheduler.scheduleAction(loop, SchedulingClass.REAL_TIME);
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+
+        future.cancel(true);
+        assertTrue(future.isCancelled());
+        // Like an interrupted periodic action, it still ends
+        assertTrue(ended.await(1, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getRunningCount());
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.actuators.implementations.BaseSimulatedMotor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StopwatchTest {
+
+    @Test
+    public void testDefaultNanosAdapters() {
+        ManualClock clock = new ManualClock();
+        clock.setTime(10);
+        assertEquals(10_000_000, clock.getTimeNanos());
+
+        List<Long> ran = new ArrayList<>();
+        clock.scheduleAtNanos(12_000_001, () -> ran.add(clock.getTime())); // rounded up to 13 ms
+        clock.setTime(12);
+        assertTrue(ran.isEmpty());
+        clock.setTime(13);
+        assertEquals(13L, (long) ran.get(0));
+    }
+
+    @Test
+    public void testSubMillisecondStopwatch() {
+        NanoClock clock = new NanoClock();
+        Stopwatch stopwatch = new Stopwatch(clock);
+        assertThrows(IllegalArgumentException.class, stopwatch::read);
+
+        stopwatch.init();
+        clock.nanos += 1_500_000;
+        assertEquals(1, stopwatch.read());
+        assertEquals(1_500, stopwatch.read(TimeUnit.MICROSECONDS));
+        assertEquals(1_500_000, stopwatch.readNanos());
+        assertEquals(0.0015, stopwatch.pop(TimeUnit.SECONDS), 1e-12);
+
+        clock.nanos += 250_000;
+        assertEquals(0.25, stopwatch.pop(), 1e-12);
+        assertEquals(0, stopwatch.popNanos());
+    }
+
+    @Test
+    public void testSimulatedMotorIntegratesSubMillisecond() {
+        NanoClock clock = new NanoClock();
+        BaseSimulatedMotor motor = new BaseSimulatedMotor(clock);
+        motor.runVelocity(2);
+
+        // 2000 cycles of 0.5 ms would each round to 0 or 1 ms with a millisecond stopwatch
+        for (int i = 0; i < 2_000; i++) {
+            clock.nanos += 500_000;
+            motor.runVelocity(2);
+        }
+        assertEquals(2, motor.getPosition(), 1e-9);
+    }
+
+    @Test
+    public void testRealClockNanos() throws InterruptedException {
+        RealClock clock = RealClock.CLOCK;
+        long last = clock.getTimeNanos();
+        for (int i = 0; i < 1_000; i++) {
+            long now = clock.getTimeNanos();
+            assertTrue(now >= last);
+            last = now;
+        }
+        assertEquals(System.currentTimeMillis(), clock.getTime(), 1_000);
+        assertEquals(clock.getTime(), TimeUnit.NANOSECONDS.toMillis(clock.getTimeNanos()), 1);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        long[] ranAt = new long[1];
+        long scheduledFor = clock.getTimeNanos() + TimeUnit.MICROSECONDS.toNanos(2_500);
+        clock.scheduleAtNanos(scheduledFor, () -> {
+            ranAt[0] = clock.getTimeNanos();
+            latch.countDown();
+        });
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(ranAt[0] >= scheduledFor);
+    }
+
+    /**
+     * A clock which only moves when the test sets it
+     */
+    private static final class NanoClock implements Clock {
+        private long nanos = 0;
+
+        @Override
+        public long getTime() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        @Override
+        public long getTimeNanos() {
+            return nanos;
+        }
+
+        @Override
+        public void scheduleAt(long millis, Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sleep(long dt, TimeUnit timeUnit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.ezauton.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelClockTest {
+
+    @Test
+    public void testScheduleOrder() throws InterruptedException {
+        TimingWheelClock clock = new TimingWheelClock(1, TimeUnit.MILLISECONDS, 16);
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(3);
+
+        long now = clock.getTime();
+        // 40 ms is more than one revolution of the wheel
+        clock.scheduleAt(now + 40, () -> { ran.add(3); latch.countDown(); });
+        clock.scheduleAt(now + 5, () -> { ran.add(1); latch.countDown(); });
+        clock.scheduleAt(now + 20, () -> { ran.add(2); latch.countDown(); });
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2, 3), ran);
+        assertTrue(clock.getTime() >= now + 40);
+        clock.stop();
+    }
+
+    @Test
+    public void testLateRunsNow() throws InterruptedException {
+        TimingWheelClock clock = new TimingWheelClock();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        clock.scheduleAt(clock.getTime() - 1_000, latch::countDown);
+
+        assertTrue(latch.await(100, TimeUnit.MILLISECONDS));
+        clock.stop();
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        TimingWheelClock clock = new TimingWheelClock();
+        AtomicBoolean ran = new AtomicBoolean(false);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        long now = clock.getTime();
+        TimingWheelClock.Timeout timeout = clock.schedule(now + 20, () -> ran.set(true));
+        clock.scheduleAt(now + 40, latch::countDown);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertFalse(timeout.isExpired());
+        clock.stop();
+    }
+}
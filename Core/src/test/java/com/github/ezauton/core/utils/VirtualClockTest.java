@@ -0,0 +1,106 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.ActionGroup;
+import com.github.ezauton.core.action.DelayedAction;
+import com.github.ezauton.core.action.LoopTimingStats;
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.action.tangible.MainActionScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualClockTest {
+
+    @Test
+    public void testScheduleInTimeOrder() {
+        VirtualClock clock = new VirtualClock();
+        List<String> ran = new ArrayList<>();
+
+        clock.scheduleAt(10, () -> ran.add("10"));
+        clock.scheduleAt(5, () -> ran.add("5a"));
+        clock.scheduleAt(5, () -> ran.add("5b"));
+        clock.scheduleAt(1, () -> {
+            ran.add("1");
+            clock.scheduleIn(2, TimeUnit.MILLISECONDS, () -> ran.add("3"));
+        });
+
+        clock.advanceTo(5);
+        assertEquals(Arrays.asList("1", "3", "5a", "5b"), ran);
+        assertEquals(5, clock.getTime());
+
+        assertEquals(10, clock.advanceUntilIdle());
+        assertEquals(Arrays.asList("1", "3", "5a", "5b", "10"), ran);
+
+        clock.advanceBy(1, TimeUnit.SECONDS);
+        assertEquals(1_010, clock.getTime());
+    }
+
+    @Test
+    public void testSleepersWakeInOrder() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        List<String> woke = Collections.synchronizedList(new ArrayList<>());
+
+        Thread slow = new Thread(() -> sleepThenAdd(clock, 10, "slow", woke));
+        Thread fast = new Thread(() -> sleepThenAdd(clock, 5, "fast", woke));
+        slow.start();
+        fast.start();
+        assertTrue(clock.awaitSleeping(2, 1, TimeUnit.SECONDS));
+
+        clock.advanceTo(7);
+        assertEquals(Collections.singletonList("fast 5"), woke);
+
+        clock.advanceUntilIdle();
+        assertEquals(Arrays.asList("fast 5", "slow 10"), woke);
+        slow.join();
+        fast.join();
+    }
+
+    private static void sleepThenAdd(VirtualClock clock, long millis, String name, List<String> woke) {
+        try {
+            clock.sleep(millis, TimeUnit.MILLISECONDS);
+            woke.add(name + " " + clock.getTime());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testFastForwardActions() throws Exception {
+        VirtualClock clock = new VirtualClock();
+        MainActionScheduler scheduler = new MainActionScheduler(clock);
+
+        // Ten simulated minutes of a 100 ms loop
+        TimedPeriodicAction loop = new TimedPeriodicAction(100, TimeUnit.MILLISECONDS, 10, TimeUnit.MINUTES);
+        LoopTimingStats stats = loop.getTimingStats();
+        DelayedAction delayed = new DelayedAction(1, TimeUnit.MINUTES);
+        long[] delayedFinished = new long[1];
+        delayed.onFinish(() -> delayedFinished[0] = clock.getTime());
+
+        CompletableFuture<Void> future = scheduler.scheduleAction(new ActionGroup().addParallel(loop).addParallel(delayed));
+        assertTrue(clock.awaitSleeping(2, 1, TimeUnit.SECONDS));
+
+        long start = System.currentTimeMillis();
+        clock.advanceUntilIdle();
+        future.get(1, TimeUnit.SECONDS);
+
+        assertTrue(System.currentTimeMillis() - start < 10_000);
+        assertEquals(60_000, delayedFinished[0]);
+        assertEquals(6_001, loop.getTimesRun());
+        assertEquals(6_001, stats.getCycles());
+        assertEquals(0, stats.getOverrunCount());
+    }
+
+    @Test
+    public void testCannotSleepOnAdvancingThread() {
+        VirtualClock clock = new VirtualClock();
+        clock.scheduleAt(1, () -> assertThrows(IllegalStateException.class, () -> clock.sleep(1, TimeUnit.MILLISECONDS)));
+        clock.advanceUntilIdle();
+    }
+}
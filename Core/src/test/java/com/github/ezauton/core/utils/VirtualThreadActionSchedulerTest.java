@@ -0,0 +1,51 @@
+package com.github.ezauton.core.utils;
+
+import com.github.ezauton.core.action.BaseAction;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.action.TimedPeriodicAction;
+import com.github.ezauton.core.action.tangible.VirtualThreadActionScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadActionSchedulerTest {
+
+    @Test
+    public void testManyConcurrentActions() throws Exception {
+        VirtualThreadActionScheduler scheduler = new VirtualThreadActionScheduler(new TimeWarpedClock(10));
+
+        List<PeriodicAction> actions = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            PeriodicAction action = new TimedPeriodicAction(50, TimeUnit.MILLISECONDS, 1, TimeUnit.SECONDS);
+            actions.add(action);
+            futures.add(scheduler.scheduleAction(action));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(20, TimeUnit.SECONDS);
+
+        for (PeriodicAction action : actions) {
+            assertTrue(action.getTimesRun() > 0);
+        }
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    @Test
+    public void testRunsInVirtualThreadIfAvailable() throws Exception {
+        VirtualThreadActionScheduler scheduler = new VirtualThreadActionScheduler(RealClock.CLOCK);
+        Thread[] thread = new Thread[1];
+        scheduler.scheduleAction(new BaseAction(() -> thread[0] = Thread.currentThread())).get(1, TimeUnit.SECONDS);
+
+        boolean virtual;
+        try {
+            virtual = (boolean) Thread.class.getMethod("isVirtual").invoke(thread[0]);
+        } catch (NoSuchMethodException e) {
+            virtual = false; // before Java 19
+        }
+        assertEquals(VirtualThreadActionScheduler.isVirtual(), virtual);
+    }
+}
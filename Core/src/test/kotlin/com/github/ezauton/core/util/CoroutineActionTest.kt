@@ -0,0 +1,157 @@
+package com.github.ezauton.core.util
+
+import com.github.ezauton.core.action.coroutine.CoroutineActionScheduler
+import com.github.ezauton.core.action.coroutine.SuspendingActionGroup
+import com.github.ezauton.core.action.coroutine.actionGroup
+import com.github.ezauton.core.action.coroutine.suspendingAction
+import com.github.ezauton.core.utils.RealClock
+import com.github.ezauton.core.utils.VirtualClock
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.asCoroutineDispatcher
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Collections
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class CoroutineActionTest {
+
+    @Test
+    fun `delays are driven by the clock`() {
+        val clock = VirtualClock()
+        val scheduler = CoroutineActionScheduler(clock, Dispatchers.Unconfined)
+        val finishedAt = Collections.synchronizedList(mutableListOf<Long>())
+
+        val futures = (1..1_000).map { i ->
+            scheduler.scheduleAction(suspendingAction {
+                delay(i.toLong(), TimeUnit.SECONDS)
+                finishedAt.add(clock.time)
+            })
+        }
+        assertEquals(1_000, scheduler.getRunningCount())
+
+        clock.advanceTo(500_000)
+        assertEquals(500, finishedAt.size)
+
+        assertEquals(1_000_000, clock.advanceUntilIdle())
+        futures.forEach { it.get(1, TimeUnit.SECONDS) }
+        assertEquals((1..1_000).map { it * 1_000L }, finishedAt)
+        assertEquals(0, scheduler.getRunningCount())
+    }
+
+    @Test
+    fun `group composition`() {
+        val clock = VirtualClock()
+        val scheduler = CoroutineActionScheduler(clock, Dispatchers.Unconfined)
+        val log = mutableListOf<String>()
+        var withCycles = 0
+
+        val group = actionGroup {
+            with(suspendingAction {
+                periodic(1, TimeUnit.MILLISECONDS) {
+                    withCycles++
+                    true
+                }
+            })
+            addParallel(suspendingAction {
+                delay(30, TimeUnit.MILLISECONDS)
+                log.add("parallel ${clock.time}")
+            })
+            addSequential(suspendingAction {
+                delay(10, TimeUnit.MILLISECONDS)
+                log.add("first ${clock.time}")
+            })
+            addSequential(SuspendingActionGroup.ofSequentials(
+                    suspendingAction { delay(5, TimeUnit.MILLISECONDS) },
+                    suspendingAction { log.add("second ${clock.time}") }
+            ))
+        }
+        val future = scheduler.scheduleAction(group)
+
+        clock.advanceUntilIdle()
+        future.get(1, TimeUnit.SECONDS)
+        assertEquals(listOf("first 10", "second 15", "parallel 30"), log)
+        // At 0 through 9. The first sequential action was scheduled to wake up at 10 before the with action was, so it
+        // ends (and cancels the with action) first
+        assertEquals(10, withCycles)
+        assertEquals(30, clock.time)
+    }
+
+    @Test
+    fun `failure cancels siblings`() {
+        val clock = VirtualClock()
+        val scheduler = CoroutineActionScheduler(clock, Dispatchers.Unconfined)
+        var siblingCancelled = false
+
+        val future = scheduler.scheduleAction(SuspendingActionGroup()
+                .addParallel(suspendingAction {
+                    try {
+                        delay(1, TimeUnit.HOURS)
+                    } catch (e: CancellationException) {
+                        siblingCancelled = true
+                        throw e
+                    }
+                })
+                .addSequential(suspendingAction {
+                    delay(1, TimeUnit.SECONDS)
+                    throw IllegalStateException("oops")
+                }))
+
+        clock.advanceBy(1, TimeUnit.SECONDS)
+        assertTrue(siblingCancelled)
+        try {
+            future.get(1, TimeUnit.SECONDS)
+            throw AssertionError("The group should have failed")
+        } catch (e: ExecutionException) {
+            assertTrue(e.cause is IllegalStateException)
+        }
+    }
+
+    @Test
+    fun `cancellation is immediate`() {
+        val scheduler = CoroutineActionScheduler(RealClock.CLOCK)
+        val started = CountDownLatch(1)
+        val cleanedUp = CountDownLatch(1)
+
+        val future = scheduler.scheduleAction(suspendingAction {
+            try {
+                started.countDown()
+                delay(1, TimeUnit.HOURS)
+            } finally {
+                cleanedUp.countDown()
+            }
+        })
+        assertTrue(started.await(1, TimeUnit.SECONDS))
+
+        future.cancel(true)
+        assertTrue(cleanedUp.await(1, TimeUnit.SECONDS))
+        assertTrue(future.isCancelled)
+    }
+
+    @Test
+    fun `thousands of actions on two threads`() {
+        val executor = Executors.newFixedThreadPool(2)
+        val scheduler = CoroutineActionScheduler(RealClock.CLOCK, executor.asCoroutineDispatcher())
+        val cycles = AtomicInteger()
+
+        val futures = (1..10_000).map {
+            scheduler.scheduleAction(suspendingAction {
+                var timesRun = 0
+                periodic(20, TimeUnit.MILLISECONDS) {
+                    cycles.incrementAndGet()
+                    ++timesRun < 5
+                }
+            })
+        }
+        futures.forEach { it.get(10, TimeUnit.SECONDS) }
+        assertEquals(50_000, cycles.get())
+
+        scheduler.killAll()
+        executor.shutdown()
+    }
+}
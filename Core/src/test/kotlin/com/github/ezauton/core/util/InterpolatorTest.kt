@@ -2,8 +2,14 @@ package com.github.ezauton.core.util
 
 import com.github.ezauton.core.utils.EvenInterpolationMap
 import com.github.ezauton.core.utils.InterpolationMap
+import com.github.ezauton.core.utils.OddInterpolationMap
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
+import java.util.Random
 
 class InterpolatorTest {
 
@@ -80,6 +86,113 @@ class InterpolatorTest {
         }
     }
 
+    @Test
+    fun `test interpolator map api`() {
+        val map = InterpolationMap(mapOf(3.0 to 30.0, 1.0 to 10.0))
+        assertNull(map.put(2.0, 25.0))
+        assertEquals(30.0, map.put(3.0, 35.0))
+
+        assertEquals(listOf(1.0, 2.0, 3.0), map.keys.toList())
+        assertEquals(listOf(10.0, 25.0, 35.0), map.values.toList())
+        assertTrue(map.containsKey(2.0))
+        assertFalse(map.containsKey(2.5))
+        assertTrue(map.containsValue(25.0))
+        assertThrows(IllegalArgumentException::class.java) { map.put(Double.NaN, 1.0) }
+
+        // Views write through
+        map.entries.first { it.key == 2.0 }.setValue(20.0)
+        map.get(2.5).testEquals(27.5)
+        map.keys.remove(2.0)
+        map.get(2.0).testEquals(22.5)
+        assertEquals(2, map.size)
+        assertEquals(10.0, map.remove(1.0))
+        map.get(0.0).testEquals(35.0)
+
+        map.clear()
+        assertTrue(map.isEmpty())
+        assertThrows(IllegalStateException::class.java) { map.get(0.0) }
+    }
+
+    @Test
+    fun `test interpolator equals`() {
+        val map = InterpolationMap(mapOf(0.0 to 0.0, 1.0 to 5.0))
+        // Interpolates to 5 at 1, but has a different pair
+        val other = InterpolationMap(mapOf(0.0 to 0.0, 2.0 to 10.0))
+        assertFalse(map == other)
+        assertFalse(other == map)
+
+        val same = InterpolationMap(mapOf(1.0 to 5.0, 0.0 to 0.0))
+        assertEquals(map, same)
+        assertEquals(map.hashCode(), same.hashCode())
+        assertEquals(map, hashMapOf(0.0 to 0.0, 1.0 to 5.0))
+        assertEquals(hashMapOf(0.0 to 0.0, 1.0 to 5.0), map)
+        assertEquals(hashMapOf(0.0 to 0.0, 1.0 to 5.0).hashCode(), map.hashCode())
+        assertFalse(map == hashMapOf(0.0 to 0.0, 2.0 to 10.0))
+    }
+
+    @Test
+    fun `test odd interpolator`() {
+        val map = OddInterpolationMap(mapOf(0.0 to 0.0, 1.0 to 2.0, 3.0 to 4.0))
+        assertEquals(listOf(-3.0, -1.0, -0.0, 0.0, 1.0, 3.0), map.keys.toList())
+        map.get(-2.0).testEquals(-3.0)
+        map.get(-0.5).testEquals(-1.0)
+        map.get(0.0).testEquals(0.0)
+        map.get(2.0).testEquals(3.0)
+        map.integrate(-3.0, 3.0).testEquals(0.0)
+    }
+
+    @Test
+    fun `test interpolator matches linear scan`() {
+        val random = Random(5254)
+        val table = (0 until 1_000).associate { random.nextDouble() * 100 to random.nextDouble() }
+        val map = InterpolationMap(table)
+        val sorted = table.keys.sorted()
+
+        repeat(10_000) {
+            val x = random.nextDouble() * 110 - 5
+            val upper = sorted.indexOfFirst { x.toFloat() < it.toFloat() }
+            val expected = when (upper) {
+                -1 -> table.getValue(sorted.last())
+                0 -> table.getValue(sorted.first())
+                else -> {
+                    val x1 = sorted[upper - 1]
+                    val x2 = sorted[upper]
+                    table.getValue(x1) + (table.getValue(x2) - table.getValue(x1)) * (x - x1) / (x2 - x1)
+                }
+            }
+            map.get(x).testEquals(expected, 1E-9)
+        }
+    }
+
+    @Test
+    fun `test interpolator integral index`() {
+        val random = Random(5254)
+        val map = InterpolationMap((0 until 500).associate { random.nextDouble() * 50 to random.nextDouble() * 2 - 1 })
+
+        // Numerically integrate the interpolated function, which is exact enough for piecewise linear
+        fun slowIntegral(a: Double, b: Double): Double {
+            val steps = 200_000
+            val dx = (b - a) / steps
+            return (0 until steps).map { (map[a + dx * it] + map[a + dx * (it + 1)]) / 2 * dx }.sum()
+        }
+
+        repeat(20) {
+            val a = random.nextDouble() * 60 - 5
+            val b = random.nextDouble() * 60 - 5
+            map.integrate(a, b).testEquals(slowIntegral(a, b), 1E-3)
+            map.integrate(b, a).testEquals(-map.integrate(a, b))
+        }
+
+        // The index is updated when the map changes
+        val before = map.integrate(-10.0, 60.0)
+        map[100.0] = 1.0
+        map.integrate(-10.0, 60.0).testEquals(slowIntegral(-10.0, 60.0), 1E-3)
+        map.keys.remove(100.0)
+        map.integrate(-10.0, 60.0).testEquals(before, 1E-9)
+        map.entries.first().setValue(5.0)
+        map.integrate(-10.0, 60.0).testEquals(slowIntegral(-10.0, 60.0), 1E-3)
+    }
+
     fun Double.testEquals(actual: Double, epsilon: Double = 1E-6) {
         assertEquals(actual, this, epsilon)
     }
@@ -0,0 +1,46 @@
+package com.github.ezauton.recorder.base;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.ezauton.core.action.LoopTimingStats;
+import com.github.ezauton.core.action.PeriodicAction;
+import com.github.ezauton.core.utils.Clock;
+import com.github.ezauton.recorder.SequentialDataRecorder;
+import com.github.ezauton.recorder.base.frame.LoopTimingFrame;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records snapshots of the {@link LoopTimingStats} of a {@link PeriodicAction}, so loop slips show up next to the rest
+ * of the {@link com.github.ezauton.recorder.Recording}
+ */
+public class LoopTimingRecorder extends SequentialDataRecorder<LoopTimingFrame> {
+
+    @JsonIgnore
+    private LoopTimingStats stats;
+
+    public LoopTimingRecorder(String name, Clock clock, PeriodicAction action) {
+        super(name, clock);
+        this.stats = action.getTimingStats();
+    }
+
+    private LoopTimingRecorder() {
+    }
+
+    @Override
+    public boolean checkForNewData() {
+        LoopTimingStats.Histogram period = stats.getPeriodHistogram();
+        LoopTimingStats.Histogram execute = stats.getExecuteHistogram();
+        dataFrames.add(new LoopTimingFrame(
+                stopwatch.read(TimeUnit.MILLISECONDS),
+                stats.getCycles(),
+                stats.getOverrunCount(),
+                stats.getWorstLatenessMillis(),
+                period.getMean(),
+                period.getMax(),
+                execute.getMean(),
+                execute.getPercentile(0.99),
+                execute.getMax()
+        ));
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.ezauton.recorder.base.frame;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.ezauton.recorder.SequentialDataFrame;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the loop timing stats of a periodic action. Execute durations are in microseconds and all other
+ * durations are in milliseconds.
+ */
+public class LoopTimingFrame extends SequentialDataFrame implements Serializable {
+
+    @JsonProperty
+    private long cycles;
+
+    @JsonProperty
+    private long overrunCount;
+
+    @JsonProperty
+    private long worstLateness;
+
+    @JsonProperty
+    private double meanPeriod;
+
+    @JsonProperty
+    private long maxPeriod;
+
+    @JsonProperty
+    private double meanExecute;
+
+    @JsonProperty
+    private long p99Execute;
+
+    @JsonProperty
+    private long maxExecute;
+
+    public LoopTimingFrame(double time, long cycles, long overrunCount, long worstLateness, double meanPeriod, long maxPeriod, double meanExecute, long p99Execute, long maxExecute) {
+        super(time);
+        this.cycles = cycles;
+        this.overrunCount = overrunCount;
+        this.worstLateness = worstLateness;
+        this.meanPeriod = meanPeriod;
+        this.maxPeriod = maxPeriod;
+        this.meanExecute = meanExecute;
+        this.p99Execute = p99Execute;
+        this.maxExecute = maxExecute;
+    }
+
+    private LoopTimingFrame() {
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    public long getWorstLateness() {
+        return worstLateness;
+    }
+
+    public double getMeanPeriod() {
+        return meanPeriod;
+    }
+
+    public long getMaxPeriod() {
+        return maxPeriod;
+    }
+
+    public double getMeanExecute() {
+        return meanExecute;
+    }
+
+    public long getP99Execute() {
+        return p99Execute;
+    }
+
+    public long getMaxExecute() {
+        return maxExecute;
+    }
+
+    @Override
+    public String toString() {
+        return "LoopTimingFrame{" +
+                "cycles=" + cycles +
+                ", overrunCount=" + overrunCount +
+                ", worstLateness=" + worstLateness +
+                ", meanPeriod=" + meanPeriod +
+                ", maxPeriod=" + maxPeriod +
+                ", meanExecute=" + meanExecute +
+                ", p99Execute=" + p99Execute +
+                ", maxExecute=" + maxExecute +
+                ", time=" + time +
+                '}';
+    }
+}